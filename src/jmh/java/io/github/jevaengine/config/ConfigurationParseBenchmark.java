@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.config;
+
+import io.github.jevaengine.IAssetStreamFactory;
+import io.github.jevaengine.config.binary.BinaryConfigurationCompiler;
+import io.github.jevaengine.config.binary.BinaryConfigurationFactory;
+import io.github.jevaengine.config.json.JsonConfigurationFactory;
+import io.github.jevaengine.config.json.StreamingJsonConfigurationFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Constructs and fully walks a synthetic entity list through each configuration factory. Documents are served from
+ * memory, so only parsing and tree construction are measured. The largest document is roughly 40 MB of JSON, close
+ * to the size of a full world file.
+ *
+ * Allocation per parse is reported by the gc profiler (see jmh.arguments in the benchmark profile). The retained
+ * benchmarks report the heap still held by a parsed tree in the retainedBytes counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigurationParseBenchmark {
+	private static final URI DOCUMENT = URI.create("memory:/entities.jec");
+
+	@Param({"16", "1024", "262144"})
+	public int entries;
+
+	private final Map<URI, byte[]> m_assets = new HashMap<>();
+
+	private IConfigurationFactory m_jsonFactory;
+	private IConfigurationFactory m_streamingFactory;
+	private IConfigurationFactory m_binaryFactory;
+
+	@Setup
+	public void setup() throws Exception {
+		StringBuilder document = new StringBuilder("{\"entities\": [");
+
+		for (int i = 0; i < entries; i++) {
+			if (i > 0)
+				document.append(',');
+
+			document.append("{\"name\": \"entity").append(i).append("\", \"class\": \"npc\", ")
+					.append("\"location\": [").append(i % 64).append(".5, ").append(i / 64).append(".5, 0.0], ")
+					.append("\"isStatic\": false, \"flags\": {\"health\": 100, \"faction\": \"villager\"}}");
+		}
+
+		document.append("]}");
+
+		byte[] source = document.toString().getBytes(StandardCharsets.UTF_8);
+		ByteArrayOutputStream compiled = new ByteArrayOutputStream();
+		BinaryConfigurationCompiler.compile(new ByteArrayInputStream(source), compiled);
+
+		m_assets.put(DOCUMENT, source);
+		m_assets.put(URI.create(DOCUMENT + BinaryConfigurationCompiler.COMPILED_EXTENSION), compiled.toByteArray());
+
+		IAssetStreamFactory assetFactory = new IAssetStreamFactory() {
+			@Override
+			public InputStream create(URI name) throws AssetStreamConstructionException {
+				byte[] asset = m_assets.get(name);
+
+				if (asset == null)
+					throw new AssetStreamConstructionException(name, new IllegalArgumentException("No such asset."));
+
+				return new ByteArrayInputStream(asset);
+			}
+		};
+
+		m_jsonFactory = new JsonConfigurationFactory(assetFactory);
+		m_streamingFactory = new StreamingJsonConfigurationFactory(assetFactory);
+		m_binaryFactory = new BinaryConfigurationFactory(assetFactory);
+	}
+
+	private static int walk(IImmutableVariable variable) throws NoSuchChildVariableException {
+		int visited = 1;
+
+		for (String child : variable.getChildren())
+			visited += walk(variable.getChild(child));
+
+		return visited;
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+
+		for (int i = 0; i < 3; i++)
+			System.gc();
+
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private static int retained(IConfigurationFactory factory, RetainedHeap heap) throws Exception {
+		long before = usedHeap();
+		IImmutableVariable document = factory.create(DOCUMENT);
+		heap.retainedBytes = usedHeap() - before;
+
+		/* Walking after measuring keeps the tree reachable until the heap has been sampled. */
+		return walk(document);
+	}
+
+	@Benchmark
+	public int json() throws Exception {
+		return walk(m_jsonFactory.create(DOCUMENT));
+	}
+
+	@Benchmark
+	public int streamingJson() throws Exception {
+		return walk(m_streamingFactory.create(DOCUMENT));
+	}
+
+	@Benchmark
+	public int binary() throws Exception {
+		return walk(m_binaryFactory.create(DOCUMENT));
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@Warmup(iterations = 1)
+	@Measurement(iterations = 5)
+	public int retainedJson(RetainedHeap heap) throws Exception {
+		return retained(m_jsonFactory, heap);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@Warmup(iterations = 1)
+	@Measurement(iterations = 5)
+	public int retainedStreamingJson(RetainedHeap heap) throws Exception {
+		return retained(m_streamingFactory, heap);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@Warmup(iterations = 1)
+	@Measurement(iterations = 5)
+	public int retainedBinary(RetainedHeap heap) throws Exception {
+		return retained(m_binaryFactory, heap);
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class RetainedHeap {
+		public long retainedBytes;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			retainedBytes = 0;
+		}
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Iteration over MutableProcessList, with and without modification during the iteration, against a plain ArrayList.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MutableProcessListBenchmark {
+	@Param({"16", "1024"})
+	public int size;
+
+	private final List<Integer> m_processList = new MutableProcessList<>();
+	private final List<Integer> m_arrayList = new ArrayList<>();
+
+	@Setup
+	public void setup() {
+		for (int i = 0; i < size; i++) {
+			m_processList.add(i);
+			m_arrayList.add(i);
+		}
+	}
+
+	@Benchmark
+	public long iterate() {
+		long sum = 0;
+
+		for (Integer i : m_processList)
+			sum += i;
+
+		return sum;
+	}
+
+	@Benchmark
+	public long iterateArrayList() {
+		long sum = 0;
+
+		for (Integer i : m_arrayList)
+			sum += i;
+
+		return sum;
+	}
+
+	//Each visited element is removed and appended, as entities do when they re-enter a process list during an update.
+	@Benchmark
+	public long iterateWhileMutating() {
+		long sum = 0;
+		int visited = 0;
+
+		for (Integer i : m_processList) {
+			sum += i;
+
+			if (++visited > size)
+				break;
+
+			m_processList.remove(i);
+			m_processList.add(i);
+		}
+
+		return sum;
+	}
+}
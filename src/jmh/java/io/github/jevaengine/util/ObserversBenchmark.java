@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Compares raising an observer interface through the original reflective proxy, the current generic proxy and a
+ * nominated broadcaster.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObserversBenchmark {
+	@Param({"1", "8", "64"})
+	public int observers;
+
+	private final Observers m_observers = new Observers();
+	private final ReflectiveObservers m_reflectiveObservers = new ReflectiveObservers();
+	private long m_received = 0;
+
+	@Setup
+	public void setup() {
+		for (int i = 0; i < observers; i++) {
+			Observer o = new Observer();
+			m_observers.add(o);
+			m_reflectiveObservers.add(o);
+		}
+	}
+
+	@Benchmark
+	public long raiseReflective() {
+		m_reflectiveObservers.raise(IProxiedObserver.class).changed(1);
+
+		return m_received;
+	}
+
+	@Benchmark
+	public long raiseProxy() {
+		m_observers.raise(IProxiedObserver.class).changed(1);
+
+		return m_received;
+	}
+
+	@Benchmark
+	public long raiseBroadcaster() {
+		m_observers.raise(IBroadcastObserver.class).changed(1);
+
+		return m_received;
+	}
+
+	public interface IProxiedObserver {
+		void changed(int value);
+	}
+
+	@ObserverBroadcaster(IBroadcastObserver.Broadcaster.class)
+	public interface IBroadcastObserver {
+		void changed(int value);
+
+		final class Broadcaster implements IBroadcastObserver {
+			private final ObserverSet<IBroadcastObserver> m_observers;
+
+			public Broadcaster(Observers observers) {
+				m_observers = observers.getObserverSet(IBroadcastObserver.class);
+			}
+
+			@Override
+			public void changed(int value) {
+				m_observers.beginDispatch();
+
+				try {
+					for (int i = 0; i < m_observers.size(); i++) {
+						IBroadcastObserver o = m_observers.get(i);
+
+						if (o != null)
+							o.changed(value);
+					}
+				} finally {
+					m_observers.endDispatch();
+				}
+			}
+		}
+	}
+
+	/*
+	 * Copy of the original Observers implementation, which dispatched every raised call through Method.invoke.
+	 */
+	private static final class ReflectiveObservers {
+		private final Collection<Object> m_observers = new MutableProcessList<>();
+
+		private final Map<Class<?>, Object> m_broadcasters = new HashMap<>();
+
+		private static void getInterfaces(Set<Class<?>> list, Class<?> clazz) {
+			for (Class<?> c : clazz.getInterfaces()) {
+				list.add(c);
+				getInterfaces(list, c);
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private <T> T createBroadcaster(Class<T> clazz) {
+			final Set<Class<?>> baseInterfaces = new HashSet<>();
+
+			baseInterfaces.add(clazz);
+			getInterfaces(baseInterfaces, clazz);
+
+			return (T) Proxy.newProxyInstance(clazz.getClassLoader(), new Class[]{clazz}, new InvocationHandler() {
+				@Override
+				public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+					method.setAccessible(true);
+					traverseObservers:
+					for (Object o : m_observers) {
+						for (Class<?> c : baseInterfaces) {
+							if (!method.getDeclaringClass().equals(c))
+								continue;
+
+							if (c.isAssignableFrom(o.getClass())) {
+								method.invoke(o, args);
+								continue traverseObservers;
+							}
+						}
+					}
+
+					return null;
+				}
+			});
+		}
+
+		public void add(Object o) {
+			if (!m_observers.contains(o))
+				m_observers.add(o);
+		}
+
+		@SuppressWarnings("unchecked")
+		public <T> T raise(Class<T> clazz) {
+			if (!m_broadcasters.containsKey(clazz))
+				m_broadcasters.put(clazz, createBroadcaster(clazz));
+
+			return (T) m_broadcasters.get(clazz);
+		}
+	}
+
+	private final class Observer implements IProxiedObserver, IBroadcastObserver {
+		@Override
+		public void changed(int value) {
+			m_received += value;
+		}
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.world;
+
+import io.github.jevaengine.math.Rect2F;
+import io.github.jevaengine.math.Vector3F;
+import io.github.jevaengine.world.entity.DefaultEntity;
+import io.github.jevaengine.world.entity.IEntity;
+import io.github.jevaengine.world.physics.NullPhysicsWorldFactory;
+import io.github.jevaengine.world.search.RectangleSearchFilter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Scene graph maintenance and queries over a world populated with synthetic entities. Physics is disabled, so the
+ * world's update is dominated by the scene graph's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SceneGraphBenchmark {
+	private static final int WORLD_SIZE = 256;
+
+	@Param({"256", "4096"})
+	public int entities;
+
+	private World m_world;
+	private DefaultEntity m_transient;
+	private final Rect2F m_searchRegion = new Rect2F(WORLD_SIZE / 2 - 16, WORLD_SIZE / 2 - 16, 32, 32);
+
+	@Setup
+	public void setup() {
+		m_world = SyntheticWorlds.createWorld(WORLD_SIZE, new NullPhysicsWorldFactory());
+		SyntheticWorlds.populate(m_world, entities);
+
+		m_transient = SyntheticWorlds.createEntity("transient");
+	}
+
+	@Benchmark
+	public IEntity addRemove() {
+		m_world.addEntity(m_transient);
+		m_transient.getBody().setLocation(new Vector3F(WORLD_SIZE / 2, WORLD_SIZE / 2, 0));
+		m_world.removeEntity(m_transient);
+
+		return m_transient;
+	}
+
+	@Benchmark
+	public World update() {
+		m_world.update(16);
+
+		return m_world;
+	}
+
+	@Benchmark
+	public IEntity[] search() {
+		return m_world.getEntities().search(IEntity.class, new RectangleSearchFilter<IEntity>(m_searchRegion));
+	}
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.world;
+
+import io.github.jevaengine.math.Matrix3X3;
+import io.github.jevaengine.math.Rect2D;
+import io.github.jevaengine.math.Rect3F;
+import io.github.jevaengine.math.Vector3F;
+import io.github.jevaengine.script.NullScriptBuilder;
+import io.github.jevaengine.util.IObserverRegistry;
+import io.github.jevaengine.util.Observers;
+import io.github.jevaengine.world.IWeatherFactory.NullWeather;
+import io.github.jevaengine.world.entity.DefaultEntity;
+import io.github.jevaengine.world.entity.NullEntityFactory;
+import io.github.jevaengine.world.entity.NullEntityTaskModelFactory;
+import io.github.jevaengine.world.physics.IPhysicsWorldFactory;
+import io.github.jevaengine.world.physics.PhysicsBodyDescription;
+import io.github.jevaengine.world.physics.PhysicsBodyDescription.PhysicsBodyType;
+import io.github.jevaengine.world.physics.PhysicsBodyShape;
+import io.github.jevaengine.world.physics.PhysicsBodyShape.PhysicsBodyShapeType;
+import io.github.jevaengine.world.scene.model.ISceneModel;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+/*
+ * Fixtures shared by the world benchmarks. Synthetic entities are unit boxes with a single, invisible, model component,
+ * scattered over the world with a fixed seed so that every run measures the same scene.
+ */
+public final class SyntheticWorlds {
+	private static final long SEED = 0x4A455641L;
+
+	private SyntheticWorlds() {
+	}
+
+	public static World createWorld(int size, IPhysicsWorldFactory physicsWorldFactory) {
+		return new World(size, size, 0.5F, 1.0F, 1.0F, new NullWeather(), physicsWorldFactory, new TiledEffectMapFactory(), new NullEntityFactory(), null);
+	}
+
+	public static DefaultEntity createEntity(String name) {
+		PhysicsBodyShape shape = new PhysicsBodyShape(PhysicsBodyShapeType.Box, new Rect3F(1, 1, 1));
+		PhysicsBodyDescription body = new PhysicsBodyDescription(PhysicsBodyType.Dynamic, shape, 1.0F, true, false, 0.5F);
+
+		return new DefaultEntity(new NullEntityTaskModelFactory(), new BoxSceneModel(), new NullScriptBuilder(), body, name);
+	}
+
+	public static List<DefaultEntity> populate(World world, int entities) {
+		Random random = new Random(SEED);
+		Rect2D bounds = world.getBounds();
+		List<DefaultEntity> populated = new ArrayList<>();
+
+		for (int i = 0; i < entities; i++) {
+			DefaultEntity e = createEntity("entity" + i);
+			world.addEntity(e);
+			e.getBody().setLocation(new Vector3F(random.nextFloat() * bounds.width, random.nextFloat() * bounds.height, 0));
+
+			populated.add(e);
+		}
+
+		return populated;
+	}
+
+	public static Vector3F[] createLocations(int count, float extent) {
+		Random random = new Random(SEED);
+		Vector3F[] locations = new Vector3F[count];
+
+		for (int i = 0; i < count; i++)
+			locations[i] = new Vector3F(random.nextFloat() * extent, random.nextFloat() * extent, random.nextInt(2));
+
+		return locations;
+	}
+
+	public static final class BoxSceneModel implements ISceneModel {
+		private final Observers m_observers = new Observers();
+		private final Rect3F m_bounds = new Rect3F(1, 1, 1);
+		private Direction m_direction = Direction.Zero;
+
+		@Override
+		public BoxSceneModel clone() {
+			return new BoxSceneModel();
+		}
+
+		@Override
+		public Collection<ISceneModelComponent> getComponents(Matrix3X3 projection) {
+			List<ISceneModelComponent> components = new ArrayList<>();
+			components.add(new BoxComponent());
+
+			return components;
+		}
+
+		@Override
+		public Rect3F getAABB() {
+			return new Rect3F(m_bounds);
+		}
+
+		@Override
+		public Direction getDirection() {
+			return m_direction;
+		}
+
+		@Override
+		public void setDirection(Direction direction) {
+			m_direction = direction;
+		}
+
+		@Override
+		public PhysicsBodyShape getBodyShape() {
+			return new PhysicsBodyShape(PhysicsBodyShapeType.Box, getAABB());
+		}
+
+		@Override
+		public void update(int deltaTime) {
+		}
+
+		@Override
+		public IObserverRegistry getObservers() {
+			return m_observers;
+		}
+
+		@Override
+		public void dispose() {
+		}
+
+		private final class BoxComponent implements ISceneModelComponent {
+			@Override
+			public String getName() {
+				return "box";
+			}
+
+			@Override
+			public boolean testPick(int x, int y, float scale) {
+				return false;
+			}
+
+			@Override
+			public Rect3F getBounds() {
+				return new Rect3F(m_bounds);
+			}
+
+			@Override
+			public Vector3F getOrigin() {
+				return new Vector3F();
+			}
+
+			@Override
+			public void render(Graphics2D g, int x, int y, float scale) {
+			}
+		}
+	}
+}
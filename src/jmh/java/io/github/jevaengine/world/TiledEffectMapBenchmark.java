@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.world;
+
+import io.github.jevaengine.math.Rect2F;
+import io.github.jevaengine.math.Vector2F;
+import io.github.jevaengine.world.IImmutableEffectMap.LogicEffects;
+import io.github.jevaengine.world.search.RectangleSearchFilter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Point and region queries against a tiled effect map with randomly placed obstruction overlays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TiledEffectMapBenchmark {
+	private static final int MAP_SIZE = 256;
+	private static final int OVERLAYS = 512;
+
+	@Param({"4", "32"})
+	public int regionSize;
+
+	private final TiledEffectMap m_effectMap = new TiledEffectMap();
+	private final Random m_random = new Random(0);
+
+	@Setup
+	public void setup() {
+		for (int i = 0; i < OVERLAYS; i++) {
+			Rect2F region = new Rect2F(m_random.nextInt(MAP_SIZE), m_random.nextInt(MAP_SIZE), 1 + m_random.nextInt(8), 1 + m_random.nextInt(8));
+			m_effectMap.applyOverlayEffects(new RectangleSearchFilter<LogicEffects>(region), new LogicEffects(SyntheticWorlds.createEntity("obstruction" + i)));
+		}
+	}
+
+	@Benchmark
+	public LogicEffects pointQuery() {
+		return m_effectMap.getTileEffects(new Vector2F(m_random.nextInt(MAP_SIZE), m_random.nextInt(MAP_SIZE)));
+	}
+
+	@Benchmark
+	public LogicEffects[] regionQuery() {
+		Rect2F region = new Rect2F(m_random.nextInt(MAP_SIZE), m_random.nextInt(MAP_SIZE), regionSize, regionSize);
+
+		return m_effectMap.getTileEffects(new RectangleSearchFilter<LogicEffects>(region));
+	}
+}
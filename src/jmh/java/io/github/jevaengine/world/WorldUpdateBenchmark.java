@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.world;
+
+import io.github.jevaengine.math.Vector3F;
+import io.github.jevaengine.world.entity.DefaultEntity;
+import io.github.jevaengine.world.physics.dyn4j.Dyn4jWorldFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * A full headless tick of a world simulating synthetic, moving entities under dyn4j physics.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorldUpdateBenchmark {
+	private static final int WORLD_SIZE = 128;
+
+	@Param({"100", "1000"})
+	public int entities;
+
+	private World m_world;
+
+	@Setup
+	public void setup() {
+		m_world = SyntheticWorlds.createWorld(WORLD_SIZE, new Dyn4jWorldFactory());
+
+		Random random = new Random(0);
+
+		for (DefaultEntity e : SyntheticWorlds.populate(m_world, entities))
+			e.getBody().setLinearVelocity(new Vector3F(random.nextFloat() * 2 - 1, random.nextFloat() * 2 - 1, 0));
+	}
+
+	@Benchmark
+	public World update() {
+		m_world.update(16);
+
+		return m_world;
+	}
+}
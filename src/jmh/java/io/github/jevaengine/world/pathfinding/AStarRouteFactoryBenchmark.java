@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.world.pathfinding;
+
+import io.github.jevaengine.math.Vector2F;
+import io.github.jevaengine.math.Vector3F;
+import io.github.jevaengine.world.Direction;
+import io.github.jevaengine.world.SyntheticWorlds;
+import io.github.jevaengine.world.World;
+import io.github.jevaengine.world.entity.DefaultEntity;
+import io.github.jevaengine.world.physics.NullPhysicsWorldFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Routes an entity across open ground, and around a wall standing between it and its destination.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AStarRouteFactoryBenchmark {
+	private static final int WORLD_SIZE = 64;
+
+	private final AStarRouteFactory m_routeFactory = new AStarRouteFactory();
+
+	private World m_world;
+	private IRoutingRules m_routingRules;
+
+	private final Vector2F m_start = new Vector2F(8, 8);
+	private final Vector2F m_openDestination = new Vector2F(8, 20);
+	private final Vector2F m_walledDestination = new Vector2F(20, 8);
+
+	@Setup
+	public void setup() {
+		m_world = SyntheticWorlds.createWorld(WORLD_SIZE, new NullPhysicsWorldFactory());
+
+		for (int y = 0; y <= 16; y++) {
+			DefaultEntity wall = SyntheticWorlds.createEntity("wall" + y);
+			m_world.addEntity(wall);
+			wall.getBody().setLocation(new Vector3F(14, y, 0));
+		}
+
+		DefaultEntity subject = SyntheticWorlds.createEntity("subject");
+		m_world.addEntity(subject);
+		subject.getBody().setLocation(new Vector3F(m_start, 0));
+
+		m_routingRules = new EntityRoutingRules(subject, Direction.ALL_DIRECTIONS);
+	}
+
+	private Route route(Vector2F destination) {
+		try {
+			return m_routeFactory.create(m_routingRules, m_world, m_start, destination, 0.5F);
+		} catch (IncompleteRouteException e) {
+			return e.getIncompleteRoute();
+		}
+	}
+
+	@Benchmark
+	public Route openGround() {
+		return route(m_openDestination);
+	}
+
+	@Benchmark
+	public Route aroundWall() {
+		return route(m_walledDestination);
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.world.scene;
+
+import io.github.jevaengine.math.Rect2D;
+import io.github.jevaengine.math.Vector3F;
+import io.github.jevaengine.world.SyntheticWorlds;
+import io.github.jevaengine.world.SyntheticWorlds.BoxSceneModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Fills a topologically sorted scene buffer with overlapping boxes and renders it, which sorts the buffer. The boxes'
+ * components draw nothing, so the measurement is dominated by the sort.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TopologicalSortBenchmark {
+	@Param({"128", "1024"})
+	public int models;
+
+	private final BoxSceneModel m_model = new BoxSceneModel();
+	private final Rect2D m_bounds = new Rect2D(640, 480);
+
+	private TopologicalOrthographicProjectionSceneBuffer m_sceneBuffer;
+	private Vector3F[] m_locations;
+
+	private BufferedImage m_target;
+	private Graphics2D m_graphics;
+
+	@Setup
+	public void setup() {
+		m_sceneBuffer = new TopologicalOrthographicProjectionSceneBuffer(new IsometricProjectionFactory(64, 32).create());
+		m_locations = SyntheticWorlds.createLocations(models, (float) Math.sqrt(models) * 2);
+
+		m_target = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+		m_graphics = m_target.createGraphics();
+	}
+
+	@TearDown
+	public void tearDown() {
+		m_graphics.dispose();
+	}
+
+	@Benchmark
+	public ISceneBuffer sort() {
+		m_sceneBuffer.reset();
+
+		for (Vector3F l : m_locations)
+			m_sceneBuffer.addModel(m_model, l);
+
+		m_sceneBuffer.render(m_graphics, 0, 0, 1.0F, m_bounds);
+
+		return m_sceneBuffer;
+	}
+}
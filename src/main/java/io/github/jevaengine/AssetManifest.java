@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine;
+
+import io.github.jevaengine.config.IImmutableVariable;
+import io.github.jevaengine.config.ISerializable;
+import io.github.jevaengine.config.IVariable;
+import io.github.jevaengine.config.NoSuchChildVariableException;
+import io.github.jevaengine.config.ValueSerializationException;
+
+/*
+ * An ordered list of the assets used over a play session, as recorded by a RecordingAssetStreamFactory.
+ */
+public final class AssetManifest implements ISerializable {
+	public String[] assets = new String[0];
+
+	public AssetManifest() {
+	}
+
+	public AssetManifest(String[] _assets) {
+		assets = _assets;
+	}
+
+	@Override
+	public void serialize(IVariable target) throws ValueSerializationException {
+		target.addChild("assets").setValue(assets);
+	}
+
+	@Override
+	public void deserialize(IImmutableVariable source) throws ValueSerializationException {
+		try {
+			assets = source.getChild("assets").getValues(String[].class);
+		} catch (NoSuchChildVariableException e) {
+			throw new ValueSerializationException(e);
+		}
+	}
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine;
+
+import io.github.jevaengine.audio.IAudioClipFactory;
+import io.github.jevaengine.audio.IAudioClipFactory.AudioClipConstructionException;
+import io.github.jevaengine.config.IConfigurationFactory;
+import io.github.jevaengine.config.IConfigurationFactory.ConfigurationConstructionException;
+import io.github.jevaengine.graphics.IGraphicFactory;
+import io.github.jevaengine.graphics.IGraphicFactory.GraphicConstructionException;
+import io.github.jevaengine.graphics.ISpriteFactory;
+import io.github.jevaengine.graphics.ISpriteFactory.SpriteConstructionException;
+import io.github.jevaengine.script.IScriptBuilderFactory;
+import io.github.jevaengine.script.IScriptBuilderFactory.ScriptBuilderConstructionException;
+import io.github.jevaengine.util.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Warms asset caches from an AssetManifest, typically while a splash screen is shown. Each asset is handed to the
+ * loader registered for its extension, which constructs it through a caching factory; assets without a loader are
+ * skipped. Loading is spread over the loading pool.
+ *
+ * Manifests may be stale, so assets which fail to load are logged and otherwise ignored.
+ */
+public final class AssetPrefetcher {
+	private final Logger m_logger = LoggerFactory.getLogger(AssetPrefetcher.class);
+
+	private final IEngineThreadPool m_threadPool;
+	private final Map<String, IAssetLoader> m_loaders = new HashMap<>();
+
+	public AssetPrefetcher(IEngineThreadPool threadPool) {
+		m_threadPool = threadPool;
+	}
+
+	public void put(String extention, IAssetLoader loader) {
+		String ext = extention.startsWith(".") ? extention : "." + extention;
+		m_loaders.put(ext, loader);
+	}
+
+	@Nullable
+	private IAssetLoader getLoader(URI name) {
+		String path = name.getPath();
+
+		if (path == null)
+			return null;
+
+		for (Map.Entry<String, IAssetLoader> e : m_loaders.entrySet()) {
+			if (path.endsWith(e.getKey()))
+				return e.getValue();
+		}
+
+		return null;
+	}
+
+	public void prefetch(AssetManifest manifest, IInitializationProgressMonitor monitor) throws InterruptedException {
+		ParallelLoadStage stage = new ParallelLoadStage(m_threadPool);
+
+		for (String asset : manifest.assets) {
+			final URI name;
+
+			try {
+				name = new URI(asset);
+			} catch (URISyntaxException e) {
+				m_logger.warn("Skipping malformed asset " + asset + " in manifest.");
+				continue;
+			}
+
+			final IAssetLoader loader = getLoader(name);
+
+			if (loader == null)
+				continue;
+
+			stage.add(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						loader.load(name);
+					} catch (AssetPrefetchException e) {
+						m_logger.warn("Unable to prefetch asset " + name + ".", e);
+					}
+				}
+			});
+		}
+
+		stage.run(monitor, 0, 1.0F, "Prefetching assets.");
+		monitor.statusChanged(1.0F, "Completed");
+	}
+
+	public interface IAssetLoader {
+		void load(URI name) throws AssetPrefetchException;
+	}
+
+	public static final class GraphicLoader implements IAssetLoader {
+		private final IGraphicFactory m_factory;
+
+		public GraphicLoader(IGraphicFactory factory) {
+			m_factory = factory;
+		}
+
+		@Override
+		public void load(URI name) throws AssetPrefetchException {
+			try {
+				m_factory.create(name);
+			} catch (GraphicConstructionException e) {
+				throw new AssetPrefetchException(name, e);
+			}
+		}
+	}
+
+	public static final class SpriteLoader implements IAssetLoader {
+		private final ISpriteFactory m_factory;
+
+		public SpriteLoader(ISpriteFactory factory) {
+			m_factory = factory;
+		}
+
+		@Override
+		public void load(URI name) throws AssetPrefetchException {
+			try {
+				m_factory.create(name);
+			} catch (SpriteConstructionException e) {
+				throw new AssetPrefetchException(name, e);
+			}
+		}
+	}
+
+	public static final class ConfigurationLoader implements IAssetLoader {
+		private final IConfigurationFactory m_factory;
+
+		public ConfigurationLoader(IConfigurationFactory factory) {
+			m_factory = factory;
+		}
+
+		@Override
+		public void load(URI name) throws AssetPrefetchException {
+			try {
+				m_factory.create(name);
+			} catch (ConfigurationConstructionException e) {
+				throw new AssetPrefetchException(name, e);
+			}
+		}
+	}
+
+	public static final class AudioClipLoader implements IAssetLoader {
+		private final IAudioClipFactory m_factory;
+
+		public AudioClipLoader(IAudioClipFactory factory) {
+			m_factory = factory;
+		}
+
+		@Override
+		public void load(URI name) throws AssetPrefetchException {
+			try {
+				m_factory.create(name).dispose();
+			} catch (AudioClipConstructionException e) {
+				throw new AssetPrefetchException(name, e);
+			}
+		}
+	}
+
+	public static final class ScriptLoader implements IAssetLoader {
+		private final IScriptBuilderFactory m_factory;
+
+		public ScriptLoader(IScriptBuilderFactory factory) {
+			m_factory = factory;
+		}
+
+		@Override
+		public void load(URI name) throws AssetPrefetchException {
+			try {
+				m_factory.create(name);
+			} catch (ScriptBuilderConstructionException e) {
+				throw new AssetPrefetchException(name, e);
+			}
+		}
+	}
+
+	public static final class AssetPrefetchException extends Exception {
+		private static final long serialVersionUID = 1L;
+
+		public AssetPrefetchException(URI assetName, Exception cause) {
+			super("Error prefetching asset " + assetName.toString(), cause);
+		}
+	}
+}
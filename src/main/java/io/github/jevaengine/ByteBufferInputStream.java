@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/*
+ * An asset stream backed by a buffer, typically a slice of a memory-mapped file. Consumers which recognize the
+ * stream may take the buffer directly rather than copying out of the stream.
+ */
+public final class ByteBufferInputStream extends InputStream {
+	private final ByteBuffer m_buffer;
+	private int m_mark = 0;
+
+	public ByteBufferInputStream(ByteBuffer buffer) {
+		m_buffer = buffer.slice();
+	}
+
+	/*
+	 * Returns an independent view of the remaining, unread contents of this stream.
+	 */
+	public ByteBuffer getBuffer() {
+		return m_buffer.slice().asReadOnlyBuffer();
+	}
+
+	@Override
+	public int read() {
+		if (!m_buffer.hasRemaining())
+			return -1;
+
+		return m_buffer.get() & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] bytes, int off, int len) {
+		if (len == 0)
+			return 0;
+
+		if (!m_buffer.hasRemaining())
+			return -1;
+
+		len = Math.min(len, m_buffer.remaining());
+		m_buffer.get(bytes, off, len);
+
+		return len;
+	}
+
+	@Override
+	public long skip(long n) {
+		int skipped = (int) Math.max(0, Math.min(n, m_buffer.remaining()));
+		m_buffer.position(m_buffer.position() + skipped);
+
+		return skipped;
+	}
+
+	@Override
+	public int available() {
+		return m_buffer.remaining();
+	}
+
+	@Override
+	public boolean markSupported() {
+		return true;
+	}
+
+	@Override
+	public synchronized void mark(int readLimit) {
+		m_mark = m_buffer.position();
+	}
+
+	@Override
+	public synchronized void reset() {
+		m_buffer.position(m_mark);
+	}
+}
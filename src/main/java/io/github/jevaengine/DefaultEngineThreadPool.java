@@ -18,48 +18,342 @@
  */
 package io.github.jevaengine;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import io.github.jevaengine.util.Nullable;
+import io.github.jevaengine.util.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+/*
+ * Backs each task purpose with its own pool, configured through a PoolConfiguration. The default
+ * configurations may be overridden with system properties of the form jevaengine.threadPool.<purpose>.<setting>,
+ * where purpose is the lower case purpose name and setting is one of threads, queue, priority or virtual.
+ *
+ * Virtual threads are only used where requested and supported by the running JVM; otherwise the pool
+ * falls back to platform threads.
+ */
+@Singleton
+@ThreadSafe
 public class DefaultEngineThreadPool implements IEngineThreadPool {
-	private static final int LOADING_THREADS = 5;
+	private static final long DEFAULT_SHUTDOWN_TIMEOUT = 5000;
+	private static final long IDLE_THREAD_TIMEOUT = 60000;
 
-	private ExecutorService m_daemonExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
-		@Override
-		public Thread newThread(Runnable r) {
-			Thread thread = Executors.defaultThreadFactory().newThread(r);
-			thread.setDaemon(true);
-			thread.setPriority(Thread.MIN_PRIORITY);
+	private final Logger m_logger = LoggerFactory.getLogger(DefaultEngineThreadPool.class);
 
-			return thread;
+	private final Map<Purpose, Pool> m_pools = new EnumMap<>(Purpose.class);
+
+	public DefaultEngineThreadPool(Map<Purpose, PoolConfiguration> configurations) {
+		for (Purpose p : Purpose.values()) {
+			PoolConfiguration configuration = configurations.get(p);
+			m_pools.put(p, new Pool(p, configuration == null ? getDefaultConfiguration(p) : configuration));
 		}
-	});
+	}
 
-	private ExecutorService m_loadingExecutor = Executors.newFixedThreadPool(LOADING_THREADS);
+	@Inject
+	public DefaultEngineThreadPool() {
+		this(new EnumMap<Purpose, PoolConfiguration>(Purpose.class));
+	}
 
-	private ExecutorService m_longLivingLowPriorityExecutor = Executors.newCachedThreadPool();
+	private static String getPropertyName(Purpose purpose, String setting) {
+		return "jevaengine.threadPool." + purpose.name().toLowerCase(Locale.ROOT) + "." + setting;
+	}
 
-	private ExecutorService m_engineLogicExector = Executors.newSingleThreadExecutor();
+	public static PoolConfiguration getDefaultConfiguration(Purpose purpose) {
+		int threads;
+		int priority = Thread.NORM_PRIORITY;
+		boolean daemon = false;
 
-	@Override
-	public void execute(Purpose purpose, Runnable task) {
 		switch (purpose) {
 			case Loading:
-				m_loadingExecutor.execute(task);
+				threads = 5;
+				break;
+			case GameLogic:
+				threads = 1;
 				break;
 			case LongLivingLowPriority:
-				m_longLivingLowPriorityExecutor.execute(task);
+				threads = PoolConfiguration.UNBOUNDED;
+				priority = Thread.MIN_PRIORITY;
 				break;
 			case LongLivingLowPriorityDaemon:
-				m_daemonExecutor.execute(task);
-				break;
-			case GameLogic:
-				m_engineLogicExector.execute(task);
+				threads = PoolConfiguration.UNBOUNDED;
+				priority = Thread.MIN_PRIORITY;
+				daemon = true;
 				break;
 			default:
 				throw new UnsupportedOperationException("Unrecognized task purpose.");
 		}
+
+		return new PoolConfiguration(
+				Integer.getInteger(getPropertyName(purpose, "threads"), threads),
+				Integer.getInteger(getPropertyName(purpose, "queue"), PoolConfiguration.UNBOUNDED),
+				Integer.getInteger(getPropertyName(purpose, "priority"), priority),
+				daemon,
+				Boolean.getBoolean(getPropertyName(purpose, "virtual")),
+				RejectionPolicy.Abort);
+	}
+
+	@Override
+	public void execute(Purpose purpose, Runnable task) {
+		Pool pool = m_pools.get(purpose);
+
+		if (pool == null)
+			throw new UnsupportedOperationException("Unrecognized task purpose.");
+
+		pool.execute(task);
+	}
+
+	public PoolStatistics getStatistics(Purpose purpose) {
+		return m_pools.get(purpose).getStatistics();
 	}
 
+	public List<PoolStatistics> getStatistics() {
+		List<PoolStatistics> statistics = new ArrayList<>();
+
+		for (Pool p : m_pools.values())
+			statistics.add(p.getStatistics());
+
+		return statistics;
+	}
+
+	/*
+	 * Stops accepting tasks and waits up to the timeout for queued and running tasks to complete, after
+	 * which any remaining tasks are interrupted. Returns false if some pool did not terminate in time.
+	 */
+	public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+		for (Pool p : m_pools.values())
+			p.m_executor.shutdown();
+
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		boolean terminated = true;
+
+		for (Pool p : m_pools.values()) {
+			if (!p.m_executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+				m_logger.warn("Thread pool " + p.m_name + " did not terminate in time; interrupting " + p.m_executor.getActiveCount() + " running tasks.");
+				p.m_executor.shutdownNow();
+				terminated = false;
+			}
+		}
+
+		return terminated;
+	}
+
+	public boolean shutdown() throws InterruptedException {
+		return shutdown(DEFAULT_SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS);
+	}
+
+	public boolean isShutdown() {
+		for (Pool p : m_pools.values()) {
+			if (!p.m_executor.isShutdown())
+				return false;
+		}
+
+		return true;
+	}
+
+	public enum RejectionPolicy {
+		Abort,
+		CallerRuns,
+		Discard,
+	}
+
+	public static final class PoolConfiguration {
+		public static final int UNBOUNDED = 0;
+
+		private final int m_threads;
+		private final int m_queueCapacity;
+		private final int m_priority;
+		private final boolean m_daemon;
+		private final boolean m_virtual;
+		private final RejectionPolicy m_rejectionPolicy;
+
+		/*
+		 * An unbounded thread count creates threads on demand and retires them when idle, in which case
+		 * tasks are never queued. Priority and daemon status do not apply to virtual threads.
+		 */
+		public PoolConfiguration(int threads, int queueCapacity, int priority, boolean daemon, boolean virtual, RejectionPolicy rejectionPolicy) {
+			m_threads = Math.max(UNBOUNDED, threads);
+			m_queueCapacity = Math.max(UNBOUNDED, queueCapacity);
+			m_priority = Math.min(Thread.MAX_PRIORITY, Math.max(Thread.MIN_PRIORITY, priority));
+			m_daemon = daemon;
+			m_virtual = virtual;
+			m_rejectionPolicy = rejectionPolicy;
+		}
+
+		public PoolConfiguration(int threads, int priority, boolean daemon) {
+			this(threads, UNBOUNDED, priority, daemon, false, RejectionPolicy.Abort);
+		}
+
+		public int getThreads() {
+			return m_threads;
+		}
+
+		public int getQueueCapacity() {
+			return m_queueCapacity;
+		}
+
+		public int getPriority() {
+			return m_priority;
+		}
+
+		public boolean isDaemon() {
+			return m_daemon;
+		}
+
+		public boolean isVirtual() {
+			return m_virtual;
+		}
+
+		public RejectionPolicy getRejectionPolicy() {
+			return m_rejectionPolicy;
+		}
+	}
+
+	public static final class PoolStatistics {
+		public final String name;
+		public final boolean virtual;
+		public final int threads;
+		public final int largestThreads;
+		public final int active;
+		public final int queued;
+		public final long completed;
+		public final long rejected;
+
+		private PoolStatistics(String _name, boolean _virtual, int _threads, int _largestThreads, int _active, int _queued, long _completed, long _rejected) {
+			name = _name;
+			virtual = _virtual;
+			threads = _threads;
+			largestThreads = _largestThreads;
+			active = _active;
+			queued = _queued;
+			completed = _completed;
+			rejected = _rejected;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s: %d/%d %s threads, %d active, %d queued, %d completed, %d rejected",
+					name, threads, largestThreads, virtual ? "virtual" : "platform", active, queued, completed, rejected);
+		}
+	}
+
+	private final class Pool {
+		private final String m_name;
+		private final ThreadPoolExecutor m_executor;
+		private final boolean m_virtual;
+		private final AtomicLong m_rejected = new AtomicLong();
+
+		public Pool(Purpose purpose, PoolConfiguration configuration) {
+			m_name = "jevaengine-" + purpose.name();
+
+			ThreadFactory threadFactory = configuration.isVirtual() ? createVirtualThreadFactory(m_name) : null;
+			m_virtual = threadFactory != null;
+
+			if (threadFactory == null)
+				threadFactory = new PlatformThreadFactory(m_name, configuration.getPriority(), configuration.isDaemon());
+
+			if (configuration.getThreads() == PoolConfiguration.UNBOUNDED) {
+				m_executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, IDLE_THREAD_TIMEOUT, TimeUnit.MILLISECONDS,
+						new SynchronousQueue<Runnable>(), threadFactory, new RejectionHandler(configuration.getRejectionPolicy()));
+			} else {
+				BlockingQueue<Runnable> queue = configuration.getQueueCapacity() == PoolConfiguration.UNBOUNDED ?
+						new LinkedBlockingQueue<Runnable>() : new ArrayBlockingQueue<Runnable>(configuration.getQueueCapacity());
+
+				m_executor = new ThreadPoolExecutor(configuration.getThreads(), configuration.getThreads(), IDLE_THREAD_TIMEOUT, TimeUnit.MILLISECONDS,
+						queue, threadFactory, new RejectionHandler(configuration.getRejectionPolicy()));
+			}
+		}
+
+		@Nullable
+		private ThreadFactory createVirtualThreadFactory(String name) {
+			try {
+				Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+				Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+
+				builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, name + "-", 0L);
+
+				return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+			} catch (ReflectiveOperationException | ClassCastException e) {
+				m_logger.info("Virtual threads are unavailable on this JVM; " + name + " will use platform threads.");
+				return null;
+			}
+		}
+
+		public void execute(Runnable task) {
+			m_executor.execute(task);
+		}
+
+		public PoolStatistics getStatistics() {
+			return new PoolStatistics(m_name, m_virtual, m_executor.getPoolSize(), m_executor.getLargestPoolSize(),
+					m_executor.getActiveCount(), m_executor.getQueue().size(), m_executor.getCompletedTaskCount(), m_rejected.get());
+		}
+
+		private final class RejectionHandler implements RejectedExecutionHandler {
+			private final RejectionPolicy m_policy;
+
+			public RejectionHandler(RejectionPolicy policy) {
+				m_policy = policy;
+			}
+
+			@Override
+			public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+				m_rejected.incrementAndGet();
+
+				if (executor.isShutdown())
+					throw new RejectedExecutionException("Thread pool " + m_name + " has been shut down.");
+
+				switch (m_policy) {
+					case CallerRuns:
+						task.run();
+						break;
+					case Discard:
+						m_logger.warn("Thread pool " + m_name + " is saturated; discarding task.");
+						break;
+					case Abort:
+					default:
+						throw new RejectedExecutionException("Thread pool " + m_name + " is saturated.");
+				}
+			}
+		}
+	}
+
+	private static final class PlatformThreadFactory implements ThreadFactory {
+		private final String m_name;
+		private final int m_priority;
+		private final boolean m_daemon;
+		private final AtomicInteger m_count = new AtomicInteger();
+
+		public PlatformThreadFactory(String name, int priority, boolean daemon) {
+			m_name = name;
+			m_priority = priority;
+			m_daemon = daemon;
+		}
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, m_name + "-" + m_count.getAndIncrement());
+			thread.setDaemon(m_daemon);
+			thread.setPriority(m_priority);
+
+			return thread;
+		}
+	}
 }
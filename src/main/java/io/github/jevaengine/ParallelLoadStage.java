@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine;
+
+import io.github.jevaengine.IEngineThreadPool.Purpose;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/*
+ * A set of independent loading tasks, drained by a number of loading threads and by the calling thread.
+ * Because the caller participates, a stage always completes, even if every loading thread is occupied
+ * (as it may be when the stage is itself run from a loading thread.)
+ */
+public final class ParallelLoadStage {
+	private static final int DEFAULT_HELPERS = 4;
+
+	private final Logger m_logger = LoggerFactory.getLogger(ParallelLoadStage.class);
+
+	private final IEngineThreadPool m_threadPool;
+	private final int m_helpers;
+
+	private final Queue<Runnable> m_tasks = new ConcurrentLinkedQueue<>();
+	private int m_total = 0;
+	private int m_completed = 0;
+
+	public ParallelLoadStage(IEngineThreadPool threadPool, int helpers) {
+		m_threadPool = threadPool;
+		m_helpers = helpers;
+	}
+
+	public ParallelLoadStage(IEngineThreadPool threadPool) {
+		this(threadPool, DEFAULT_HELPERS);
+	}
+
+	public synchronized void add(Runnable task) {
+		m_tasks.add(task);
+		m_total++;
+	}
+
+	private boolean runNext() {
+		Runnable task = m_tasks.poll();
+
+		if (task == null)
+			return false;
+
+		try {
+			task.run();
+		} catch (RuntimeException e) {
+			m_logger.error("Unexpected error in loading task.", e);
+		} finally {
+			synchronized (this) {
+				m_completed++;
+				notifyAll();
+			}
+		}
+
+		return true;
+	}
+
+	/*
+	 * Runs all added tasks to completion, reporting progress between progressStart and progressStart + progressSpan.
+	 */
+	public void run(IInitializationProgressMonitor monitor, float progressStart, float progressSpan, String status) throws InterruptedException {
+		int helpers;
+
+		synchronized (this) {
+			helpers = Math.min(m_helpers, m_total - m_completed - 1);
+		}
+
+		for (int i = 0; i < helpers; i++) {
+			m_threadPool.execute(Purpose.Loading, new Runnable() {
+				@Override
+				public void run() {
+					while (runNext()) ;
+				}
+			});
+		}
+
+		while (runNext())
+			monitor.statusChanged(progressStart + progressSpan * getProgress(), status);
+
+		synchronized (this) {
+			while (m_completed < m_total) {
+				wait();
+				monitor.statusChanged(progressStart + progressSpan * getProgress(), status);
+			}
+		}
+	}
+
+	public synchronized float getProgress() {
+		return m_total == 0 ? 1.0F : m_completed / (float) m_total;
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine;
+
+import io.github.jevaengine.util.ThreadSafe;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Records, in order of first use, every asset resolved through the decorated factory, so that the assets used over
+ * a play session can be written to an AssetManifest and prefetched at the start of the next.
+ */
+public final class RecordingAssetStreamFactory implements IAssetStreamFactory {
+	private final IAssetStreamFactory m_assetFactory;
+	private final Set<URI> m_recorded = new LinkedHashSet<>();
+
+	private volatile boolean m_isRecording = true;
+
+	public RecordingAssetStreamFactory(IAssetStreamFactory assetFactory) {
+		m_assetFactory = assetFactory;
+	}
+
+	public void setRecording(boolean isRecording) {
+		m_isRecording = isRecording;
+	}
+
+	public boolean isRecording() {
+		return m_isRecording;
+	}
+
+	@Override
+	@ThreadSafe
+	public InputStream create(URI name) throws AssetStreamConstructionException {
+		InputStream stream = m_assetFactory.create(name);
+
+		if (m_isRecording) {
+			synchronized (m_recorded) {
+				m_recorded.add(name.normalize());
+			}
+		}
+
+		return stream;
+	}
+
+	public void clear() {
+		synchronized (m_recorded) {
+			m_recorded.clear();
+		}
+	}
+
+	public AssetManifest getManifest() {
+		List<String> assets = new ArrayList<>();
+
+		synchronized (m_recorded) {
+			for (URI uri : m_recorded)
+				assets.add(uri.toString());
+		}
+
+		return new AssetManifest(assets.toArray(new String[assets.size()]));
+	}
+}
@@ -40,11 +40,15 @@ public class AudioClipCache implements IDisposable {
 
 	private final ReferenceQueue<Clip> m_clipCleanupQueue;
 
-	public AudioClipCache(URI name, byte[] source, ReferenceQueue<Clip> clipCleanupQueue) {
+	public AudioClipCache(URI name, ByteBuffer source, ReferenceQueue<Clip> clipCleanupQueue) {
 		m_clipName = name;
 		m_clipCleanupQueue = clipCleanupQueue;
 
-		m_clipStream = new ByteBufferAdapter(ByteBuffer.wrap(source));
+		m_clipStream = new ByteBufferAdapter(source.slice());
+	}
+
+	public AudioClipCache(URI name, byte[] source, ReferenceQueue<Clip> clipCleanupQueue) {
+		this(name, ByteBuffer.wrap(source), clipCleanupQueue);
 	}
 
 	@Override
@@ -18,8 +18,12 @@
  */
 package io.github.jevaengine.audio;
 
+import io.github.jevaengine.ByteBufferInputStream;
 import io.github.jevaengine.IAssetStreamFactory;
 import io.github.jevaengine.IAssetStreamFactory.AssetStreamConstructionException;
+import io.github.jevaengine.util.AssetCache;
+import io.github.jevaengine.util.AssetCache.AssetCacheStatistics;
+import io.github.jevaengine.util.AssetCache.IWeigher;
 
 import javax.inject.Inject;
 import javax.sound.sampled.Clip;
@@ -31,17 +35,38 @@ import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.lang.ref.ReferenceQueue;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 
 public final class CachedAudioClipFactory implements IAudioClipFactory {
+	private static final long DEFAULT_CACHE_BUDGET = 64 * 1024 * 1024;
+
 	private final IAssetStreamFactory m_assetFactory;
 
 	private final ClipCleanup m_clipCleanup = new ClipCleanup();
 	private final AudioClipCacheController m_cacheController = new AudioClipCacheController();
 
+	//Encoded clip data, retained so that clip caches released by the cleanup routine can be rebuilt without a reload.
+	//Clips served from buffer backed streams are retained as the stream's buffer, rather than copied onto the heap.
+	private final AssetCache<URI, ByteBuffer> m_dataCache;
+
+	public CachedAudioClipFactory(IAssetStreamFactory assetFactory, long cacheBudget) {
+		m_assetFactory = assetFactory;
+		m_dataCache = new AssetCache<>("audio", new IWeigher<ByteBuffer>() {
+			@Override
+			public long weigh(ByteBuffer value) {
+				return value.remaining();
+			}
+		}, cacheBudget);
+	}
+
 	@Inject
 	public CachedAudioClipFactory(IAssetStreamFactory assetFactory) {
-		m_assetFactory = assetFactory;
+		this(assetFactory, DEFAULT_CACHE_BUDGET);
+	}
+
+	public AssetCacheStatistics getCacheStatistics() {
+		return m_dataCache.getStatistics();
 	}
 
 	@Override
@@ -61,10 +86,22 @@ public final class CachedAudioClipFactory implements IAudioClipFactory {
 	public final class AudioClipCacheController {
 		private ArrayList<AudioClipCache> m_clipCaches = new ArrayList<>();
 
-		private byte[] constructCache(URI name) throws AssetStreamConstructionException, IOException {
+		private ByteBuffer constructCache(URI name) throws AssetStreamConstructionException, IOException {
+			ByteBuffer cached = m_dataCache.get(name);
+
+			if (cached != null)
+				return cached;
+
 			ByteArrayOutputStream bos = new ByteArrayOutputStream();
 
 			try (InputStream source = m_assetFactory.create(name)) {
+				if (source instanceof ByteBufferInputStream) {
+					ByteBuffer data = ((ByteBufferInputStream) source).getBuffer();
+					m_dataCache.put(name, data);
+
+					return data;
+				}
+
 				byte[] readBuffer = new byte[2048];
 
 				int length = 0;
@@ -79,7 +116,10 @@ public final class CachedAudioClipFactory implements IAudioClipFactory {
 				throw e;
 			}
 
-			return bos.toByteArray();
+			ByteBuffer data = ByteBuffer.wrap(bos.toByteArray());
+			m_dataCache.put(name, data);
+
+			return data;
 		}
 
 		public synchronized AudioClipCache getCache(URI name) throws AssetStreamConstructionException, IOException {
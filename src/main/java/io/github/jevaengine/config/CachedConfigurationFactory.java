@@ -18,66 +18,58 @@
  */
 package io.github.jevaengine.config;
 
-import io.github.jevaengine.util.Nullable;
+import io.github.jevaengine.config.json.JsonVariable;
+import io.github.jevaengine.util.AssetCache;
+import io.github.jevaengine.util.AssetCache.AssetCacheStatistics;
+import io.github.jevaengine.util.AssetCache.ConstantWeigher;
+import io.github.jevaengine.util.AssetCache.ILoader;
 import io.github.jevaengine.util.ThreadSafe;
 
 import javax.inject.Inject;
-import java.lang.ref.SoftReference;
 import java.net.URI;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
 
+/*
+ * Configurations are cached by normalized name, so differently spelled references to the same resource share an entry.
+ * Concurrent requests for a configuration which is not yet cached are coalesced into a single load. Mutable
+ * configurations are copy-on-write views over the cached tree, and are only copied once they are modified.
+ */
 public final class CachedConfigurationFactory implements IConfigurationFactory {
+	//Configurations do not track their parsed size, so they are budgeted by count.
+	private static final long DEFAULT_CACHE_BUDGET = 4096;
+
 	private final IConfigurationFactory m_configurationFactory;
-	private HashMap<URI, SoftReference<IImmutableVariable>> m_varCache = new HashMap<>();
+	private final AssetCache<URI, IImmutableVariable> m_varCache;
 
-	@Inject
-	public CachedConfigurationFactory(IConfigurationFactory configurationFactory) {
+	private final ILoader<URI, IImmutableVariable, ConfigurationConstructionException> m_loader = new ILoader<URI, IImmutableVariable, ConfigurationConstructionException>() {
+		@Override
+		public IImmutableVariable load(URI name) throws ConfigurationConstructionException {
+			return m_configurationFactory.create(name);
+		}
+	};
+
+	public CachedConfigurationFactory(IConfigurationFactory configurationFactory, long cacheBudget) {
 		m_configurationFactory = configurationFactory;
+		m_varCache = new AssetCache<>("configurations", new ConstantWeigher<IImmutableVariable>(), cacheBudget);
 	}
 
-	@ThreadSafe
-	@Nullable
-	private IImmutableVariable findCachedConfiguration(URI formal) {
-		synchronized (m_varCache) {
-			Iterator<Map.Entry<URI, SoftReference<IImmutableVariable>>> it = m_varCache.entrySet().iterator();
-
-			while (it.hasNext()) {
-				Map.Entry<URI, SoftReference<IImmutableVariable>> entry = it.next();
-
-				if (entry.getValue().get() != null) {
-					if (entry.getKey().equals(formal))
-						return entry.getValue().get();
-				} else
-					it.remove();
-			}
+	@Inject
+	public CachedConfigurationFactory(IConfigurationFactory configurationFactory) {
+		this(configurationFactory, DEFAULT_CACHE_BUDGET);
+	}
 
-			return null;
-		}
+	public AssetCacheStatistics getCacheStatistics() {
+		return m_varCache.getStatistics();
 	}
 
 	@Override
 	@ThreadSafe
 	public IImmutableVariable create(URI name) throws ConfigurationConstructionException {
-		synchronized (m_varCache) {
-			IImmutableVariable cacheVar = findCachedConfiguration(name);
-
-			if (cacheVar != null)
-				return cacheVar;
-			else {
-				IImmutableVariable loadVar = createMutable(name);
-
-				m_varCache.put(name, new SoftReference<IImmutableVariable>(loadVar));
-
-				return loadVar;
-			}
-		}
+		return m_varCache.get(name.normalize(), m_loader);
 	}
 
 	@Override
 	@ThreadSafe
 	public IVariable createMutable(URI name) throws ConfigurationConstructionException {
-		return m_configurationFactory.createMutable(name);
+		return new CopyOnWriteVariable(create(name), new JsonVariable());
 	}
 }
@@ -0,0 +1,245 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.config;
+
+import io.github.jevaengine.util.Nullable;
+
+import java.util.Arrays;
+
+/*
+ * A mutable view over a shared, immutable configuration tree. Reads are served from the shared tree until the first
+ * modification made through the view, or any of its children, at which point the shared tree is copied into the
+ * view's own mutable tree and all further access is directed there. The shared tree is never modified.
+ */
+public final class CopyOnWriteVariable implements IVariable {
+	private final CopyOnWriteTree m_tree;
+	private final String[] m_path;
+
+	public CopyOnWriteVariable(IImmutableVariable shared, IVariable copyTarget) {
+		this(new CopyOnWriteTree(shared, copyTarget), new String[0]);
+	}
+
+	private CopyOnWriteVariable(CopyOnWriteTree tree, String[] path) {
+		m_tree = tree;
+		m_path = path;
+	}
+
+	public boolean isCopied() {
+		return m_tree.m_copy != null;
+	}
+
+	private String[] getChildPath(String name) {
+		String[] path = Arrays.copyOf(m_path, m_path.length + 1);
+		path[m_path.length] = name;
+
+		return path;
+	}
+
+	private IImmutableVariable read() throws NoSuchChildVariableException {
+		IImmutableVariable current = m_tree.m_copy == null ? m_tree.m_shared : m_tree.m_copy;
+
+		for (String name : m_path)
+			current = current.getChild(name);
+
+		return current;
+	}
+
+	private IImmutableVariable readValue() throws ValueSerializationException {
+		try {
+			return read();
+		} catch (NoSuchChildVariableException e) {
+			throw new ValueSerializationException(e);
+		}
+	}
+
+	private IVariable write() throws NoSuchChildVariableException, ValueSerializationException {
+		IVariable current = m_tree.copy();
+
+		for (String name : m_path)
+			current = current.getChild(name);
+
+		return current;
+	}
+
+	private IVariable writeValue() throws ValueSerializationException {
+		try {
+			return write();
+		} catch (NoSuchChildVariableException e) {
+			throw new ValueSerializationException(e);
+		}
+	}
+
+	@Override
+	public void setValue(ISerializable value) throws ValueSerializationException {
+		writeValue().setValue(value);
+	}
+
+	@Override
+	public void setValue(ISerializable[] value) throws ValueSerializationException {
+		writeValue().setValue(value);
+	}
+
+	@Override
+	public void setValue(String value) throws ValueSerializationException {
+		writeValue().setValue(value);
+	}
+
+	@Override
+	public void setValue(String[] value) throws ValueSerializationException {
+		writeValue().setValue(value);
+	}
+
+	@Override
+	public void setValue(int value) throws ValueSerializationException {
+		writeValue().setValue(value);
+	}
+
+	@Override
+	public void setValue(int[] value) throws ValueSerializationException {
+		writeValue().setValue(value);
+	}
+
+	@Override
+	public void setValue(double value) throws ValueSerializationException {
+		writeValue().setValue(value);
+	}
+
+	@Override
+	public void setValue(double[] value) throws ValueSerializationException {
+		writeValue().setValue(value);
+	}
+
+	@Override
+	public void setValue(boolean value) throws ValueSerializationException {
+		writeValue().setValue(value);
+	}
+
+	@Override
+	public void setValue(boolean[] value) throws ValueSerializationException {
+		writeValue().setValue(value);
+	}
+
+	@Override
+	public void setValue(Object o) throws ValueSerializationException {
+		writeValue().setValue(o);
+	}
+
+	@Override
+	public <T> T getValue(Class<T> cls) throws ValueSerializationException {
+		return readValue().getValue(cls);
+	}
+
+	@Override
+	public <T> T[] getValues(Class<T[]> cls) throws ValueSerializationException {
+		return readValue().getValues(cls);
+	}
+
+	@Override
+	public int getInt() throws ValueSerializationException {
+		return readValue().getInt();
+	}
+
+	@Override
+	public float getFloat() throws ValueSerializationException {
+		return readValue().getFloat();
+	}
+
+	@Override
+	public float[] getFloatArray() throws ValueSerializationException {
+		return readValue().getFloatArray();
+	}
+
+	@Override
+	public boolean childExists(String name) {
+		try {
+			return read().childExists(name);
+		} catch (NoSuchChildVariableException e) {
+			return false;
+		}
+	}
+
+	@Override
+	public IVariable getChild(String name) throws NoSuchChildVariableException {
+		if (!read().childExists(name))
+			throw new NoSuchChildVariableException(name);
+
+		return new CopyOnWriteVariable(m_tree, getChildPath(name));
+	}
+
+	@Override
+	public String[] getChildren() {
+		try {
+			return read().getChildren();
+		} catch (NoSuchChildVariableException e) {
+			return new String[0];
+		}
+	}
+
+	@Override
+	public IVariable addChild(String name) {
+		try {
+			write().addChild(name);
+		} catch (NoSuchChildVariableException | ValueSerializationException e) {
+			throw new IllegalStateException("Parent of added child has been removed.", e);
+		}
+
+		return new CopyOnWriteVariable(m_tree, getChildPath(name));
+	}
+
+	@Override
+	public void removeChild(String name) throws NoSuchChildVariableException {
+		try {
+			write().removeChild(name);
+		} catch (ValueSerializationException e) {
+			throw new NoSuchChildVariableException(name);
+		}
+	}
+
+	@Override
+	public void serialize(IVariable target) throws ValueSerializationException {
+		readValue().serialize(target);
+	}
+
+	@Override
+	public void deserialize(IImmutableVariable source) throws ValueSerializationException {
+		writeValue().deserialize(source);
+	}
+
+	private static final class CopyOnWriteTree {
+		private final IImmutableVariable m_shared;
+		private final IVariable m_copyTarget;
+
+		@Nullable
+		private IVariable m_copy;
+
+		public CopyOnWriteTree(IImmutableVariable shared, IVariable copyTarget) {
+			m_shared = shared;
+			m_copyTarget = copyTarget;
+		}
+
+		public IVariable copy() throws ValueSerializationException {
+			if (m_copy == null) {
+				m_shared.serialize(m_copyTarget);
+				m_copy = m_copyTarget;
+			}
+
+			return m_copy;
+		}
+	}
+}
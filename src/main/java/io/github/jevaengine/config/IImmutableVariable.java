@@ -23,6 +23,25 @@ public interface IImmutableVariable extends ISerializable {
 
 	<T> T[] getValues(Class<T[]> cls) throws ValueSerializationException;
 
+	//Typed accessors, which implementations may override to avoid boxing where the underlying representation allows.
+	default int getInt() throws ValueSerializationException {
+		return getValue(Integer.class);
+	}
+
+	default float getFloat() throws ValueSerializationException {
+		return getValue(Double.class).floatValue();
+	}
+
+	default float[] getFloatArray() throws ValueSerializationException {
+		Double[] source = getValues(Double[].class);
+		float[] values = new float[source.length];
+
+		for (int i = 0; i < source.length; i++)
+			values[i] = source[i].floatValue();
+
+		return values;
+	}
+
 	boolean childExists(String name);
 
 	IImmutableVariable getChild(String name) throws NoSuchChildVariableException;
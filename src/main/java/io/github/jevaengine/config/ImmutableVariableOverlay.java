@@ -18,8 +18,6 @@
  */
 package io.github.jevaengine.config;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
 import java.util.HashSet;
 
@@ -46,25 +44,9 @@ public final class ImmutableVariableOverlay implements IImmutableVariable {
 
 	@Override
 	public <T> T getValue(Class<T> cls) throws ValueSerializationException {
-		if (ISerializable.class.isAssignableFrom(cls)) {
-			try {
-				Constructor<T> constructor = cls.getDeclaredConstructor();
-				constructor.setAccessible(true);
-
-				T instance = constructor.newInstance();
-
-				((ISerializable) instance).deserialize(this);
-
-				return instance;
-			} catch (NoSuchMethodException |
-					SecurityException |
-					IllegalAccessException |
-					IllegalArgumentException ex) {
-				throw new ValueSerializationException(ex);
-			} catch (InstantiationException | InvocationTargetException ex) {
-				throw new RuntimeException(ex);
-			}
-		} else
+		if (ISerializable.class.isAssignableFrom(cls))
+			return SerializableInstantiator.deserialize(cls, this);
+		else
 			throw new ValueSerializationException(new IncompatibleValueTypeException());
 	}
 
@@ -73,6 +55,21 @@ public final class ImmutableVariableOverlay implements IImmutableVariable {
 		return m_overlay.getValues(dest);
 	}
 
+	@Override
+	public int getInt() throws ValueSerializationException {
+		return m_overlay.getInt();
+	}
+
+	@Override
+	public float getFloat() throws ValueSerializationException {
+		return m_overlay.getFloat();
+	}
+
+	@Override
+	public float[] getFloatArray() throws ValueSerializationException {
+		return m_overlay.getFloatArray();
+	}
+
 
 	@Override
 	public boolean childExists(String name) {
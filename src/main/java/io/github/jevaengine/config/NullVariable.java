@@ -38,6 +38,21 @@ public final class NullVariable implements IImmutableVariable {
 		throw new ValueSerializationException(new UnsupportedValueTypeException());
 	}
 
+	@Override
+	public int getInt() throws ValueSerializationException {
+		throw new ValueSerializationException(new UnsupportedValueTypeException());
+	}
+
+	@Override
+	public float getFloat() throws ValueSerializationException {
+		throw new ValueSerializationException(new UnsupportedValueTypeException());
+	}
+
+	@Override
+	public float[] getFloatArray() throws ValueSerializationException {
+		throw new ValueSerializationException(new UnsupportedValueTypeException());
+	}
+
 	@Override
 	public boolean childExists(String name) {
 		return false;
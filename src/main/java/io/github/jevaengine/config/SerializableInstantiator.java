@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.config;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+
+/*
+ * Constructs ISerializable implementations through their default constructors. The constructor of each class is
+ * looked up once and cached as a method handle, rather than being looked up reflectively per instance.
+ */
+public final class SerializableInstantiator {
+	private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+	private static final ClassValue<Object> m_constructors = new ClassValue<Object>() {
+		@Override
+		protected Object computeValue(Class<?> type) {
+			try {
+				Constructor<?> constructor = type.getDeclaredConstructor();
+				constructor.setAccessible(true);
+
+				return MethodHandles.lookup().unreflectConstructor(constructor).asType(CONSTRUCTOR_TYPE);
+			} catch (NoSuchMethodException | SecurityException | IllegalAccessException e) {
+				//Cached as well, so that the failure is reported on each attempt without repeating the lookup.
+				return e;
+			}
+		}
+	};
+
+	private SerializableInstantiator() {
+	}
+
+	public static <T> T instantiate(Class<T> cls) throws ValueSerializationException {
+		Object constructor = m_constructors.get(cls);
+
+		if (constructor instanceof Exception)
+			throw new ValueSerializationException((Exception) constructor);
+
+		try {
+			Object instance = (Object) ((MethodHandle) constructor).invokeExact();
+
+			return cls.cast(instance);
+		} catch (Error | RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new ValueSerializationException(e);
+		} catch (Throwable t) {
+			throw new ValueSerializationException(new Exception(t));
+		}
+	}
+
+	public static <T> T deserialize(Class<T> cls, IImmutableVariable source) throws ValueSerializationException {
+		T instance = instantiate(cls);
+
+		((ISerializable) instance).deserialize(source);
+
+		return instance;
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.config.binary;
+
+import io.github.jevaengine.config.ValueSerializationException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static io.github.jevaengine.config.binary.BinaryConfigurationCompiler.*;
+
+/*
+ * A compiled configuration backed by a (typically memory-mapped) buffer. Only absolute reads are made against
+ * the buffer, so it may be shared by any number of threads. Strings are decoded lazily, on first access.
+ */
+final class BinaryConfiguration {
+	private final ByteBuffer m_buffer;
+	private final int[] m_stringOffsets;
+	private final String[] m_strings;
+	private final int m_root;
+
+	public BinaryConfiguration(ByteBuffer buffer) throws ValueSerializationException {
+		m_buffer = buffer;
+
+		if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+			throw new ValueSerializationException("Not a compiled configuration.");
+
+		if (buffer.getInt(4) != VERSION)
+			throw new ValueSerializationException("Unsupported compiled configuration version " + buffer.getInt(4));
+
+		int stringTable = buffer.getInt(8);
+		m_root = buffer.getInt(12);
+
+		int stringCount = buffer.getInt(stringTable);
+		m_stringOffsets = new int[stringCount];
+		m_strings = new String[stringCount];
+
+		for (int i = 0, offset = stringTable + 4; i < stringCount; i++) {
+			m_stringOffsets[i] = offset;
+			offset += 4 + buffer.getInt(offset);
+		}
+	}
+
+	public BinaryVariable getRoot() {
+		return new BinaryVariable(this, m_root);
+	}
+
+	public byte getType(int node) {
+		return m_buffer.get(node);
+	}
+
+	public boolean getBoolean(int node) {
+		return m_buffer.get(node + 1) != 0;
+	}
+
+	public int getInt(int node) {
+		return m_buffer.getInt(node + 1);
+	}
+
+	public double getDouble(int node) {
+		return m_buffer.getDouble(node + 1);
+	}
+
+	public int getCount(int node) {
+		return m_buffer.getInt(node + 1);
+	}
+
+	public int getElement(int node, int index) {
+		return m_buffer.getInt(node + 5 + index * 4);
+	}
+
+	public String getKey(int node, int index) {
+		return getString(m_buffer.getInt(node + 5 + index * 8));
+	}
+
+	public int getChild(int node, int index) {
+		return m_buffer.getInt(node + 9 + index * 8);
+	}
+
+	//Object children are sorted by key, see BinaryConfigurationCompiler.
+	public int findChild(int node, String key) {
+		int low = 0;
+		int high = getCount(node) - 1;
+
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int comparison = getKey(node, mid).compareTo(key);
+
+			if (comparison < 0)
+				low = mid + 1;
+			else if (comparison > 0)
+				high = mid - 1;
+			else
+				return getChild(node, mid);
+		}
+
+		return -1;
+	}
+
+	public String getString(int index) {
+		String s = m_strings[index];
+
+		//Racing threads decode equal strings, so an unsynchronized cache is harmless.
+		if (s == null) {
+			int offset = m_stringOffsets[index];
+			byte[] encoded = new byte[m_buffer.getInt(offset)];
+
+			for (int i = 0; i < encoded.length; i++)
+				encoded[i] = m_buffer.get(offset + 4 + i);
+
+			s = new String(encoded, StandardCharsets.UTF_8);
+			m_strings[index] = s;
+		}
+
+		return s;
+	}
+}
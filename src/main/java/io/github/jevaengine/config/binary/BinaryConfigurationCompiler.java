@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.config.binary;
+
+import io.github.jevaengine.config.UnsupportedValueTypeException;
+import io.github.jevaengine.config.ValueSerializationException;
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.Map.Entry;
+import java.util.zip.CRC32;
+
+/*
+ * Offline compiler from JSON configurations (world, sprite, model and entity declarations alike) to the
+ * compact binary form read by BinaryConfigurationFactory.
+ *
+ * Layout, big endian:
+ *   header:  magic, version, string table offset, root node offset, CRC-32 of the source (5 ints)
+ *   nodes:   type byte followed by
+ *              boolean - 1 byte, int - 4 bytes, double - 8 bytes, string - string index,
+ *              array   - element count, element node offsets
+ *              object  - child count, (key string index, child node offset) pairs sorted by key
+ *   strings: string count, then for every string its UTF-8 length and bytes.
+ *
+ * Keys and string values are pooled in the string table, and objects are sorted by key so that children can
+ * be located by binary search without decoding their siblings.
+ */
+public final class BinaryConfigurationCompiler {
+	public static final String COMPILED_EXTENSION = ".jbc";
+
+	static final int MAGIC = 0x4A455643;
+	static final int VERSION = 2;
+	static final int HEADER_SIZE = 20;
+	static final int SOURCE_HASH_OFFSET = 16;
+
+	static final byte TYPE_NULL = 0;
+	static final byte TYPE_BOOLEAN = 1;
+	static final byte TYPE_INT = 2;
+	static final byte TYPE_DOUBLE = 3;
+	static final byte TYPE_STRING = 4;
+	static final byte TYPE_ARRAY = 5;
+	static final byte TYPE_OBJECT = 6;
+
+	private final Map<String, Integer> m_stringIndices = new HashMap<>();
+	private final List<String> m_strings = new ArrayList<>();
+
+	private final ByteArrayOutputStream m_nodeBuffer = new ByteArrayOutputStream();
+	private final DataOutputStream m_nodes = new DataOutputStream(m_nodeBuffer);
+
+	private BinaryConfigurationCompiler() {
+	}
+
+	public static void compile(InputStream source, OutputStream dest) throws IOException, ValueSerializationException {
+		byte[] contents = read(source);
+		CRC32 hash = new CRC32();
+		hash.update(contents);
+
+		BinaryConfigurationCompiler compiler = new BinaryConfigurationCompiler();
+
+		int root = compiler.writeNode(new ObjectMapper().readTree(new ByteArrayInputStream(contents)));
+		compiler.write(root, (int) hash.getValue(), dest);
+	}
+
+	//The CRC-32 of the source a configuration is compiled from, recorded so that stale compiles can be detected.
+	static int getSourceHash(InputStream source) throws IOException {
+		CRC32 hash = new CRC32();
+		byte[] buffer = new byte[8192];
+
+		for (int read; (read = source.read(buffer)) >= 0; )
+			hash.update(buffer, 0, read);
+
+		return (int) hash.getValue();
+	}
+
+	private static byte[] read(InputStream source) throws IOException {
+		ByteArrayOutputStream contents = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+
+		for (int read; (read = source.read(buffer)) >= 0; )
+			contents.write(buffer, 0, read);
+
+		return contents.toByteArray();
+	}
+
+	private int getStringIndex(String s) {
+		Integer index = m_stringIndices.get(s);
+
+		if (index == null) {
+			index = m_strings.size();
+			m_strings.add(s);
+			m_stringIndices.put(s, index);
+		}
+
+		return index;
+	}
+
+	//Children are written before their parents, so a node's offset is known by the time its parent refers to it.
+	private int writeNode(JsonNode node) throws IOException, ValueSerializationException {
+		if (node.isArray()) {
+			int[] elements = new int[node.size()];
+
+			for (int i = 0; i < elements.length; i++)
+				elements[i] = writeNode(node.get(i));
+
+			int offset = HEADER_SIZE + m_nodes.size();
+			m_nodes.writeByte(TYPE_ARRAY);
+			m_nodes.writeInt(elements.length);
+
+			for (int e : elements)
+				m_nodes.writeInt(e);
+
+			return offset;
+		} else if (node.isObject()) {
+			TreeMap<String, Integer> children = new TreeMap<>();
+
+			Iterator<Entry<String, JsonNode>> fields = node.getFields();
+
+			while (fields.hasNext()) {
+				Entry<String, JsonNode> field = fields.next();
+				children.put(field.getKey(), writeNode(field.getValue()));
+			}
+
+			int offset = HEADER_SIZE + m_nodes.size();
+			m_nodes.writeByte(TYPE_OBJECT);
+			m_nodes.writeInt(children.size());
+
+			for (Entry<String, Integer> c : children.entrySet()) {
+				m_nodes.writeInt(getStringIndex(c.getKey()));
+				m_nodes.writeInt(c.getValue());
+			}
+
+			return offset;
+		}
+
+		int offset = HEADER_SIZE + m_nodes.size();
+
+		if (node.isBoolean()) {
+			m_nodes.writeByte(TYPE_BOOLEAN);
+			m_nodes.writeBoolean(node.asBoolean());
+		} else if (node.isInt()) {
+			m_nodes.writeByte(TYPE_INT);
+			m_nodes.writeInt(node.asInt());
+		} else if (node.isNull()) {
+			m_nodes.writeByte(TYPE_NULL);
+		} else if (node.isDouble()) {
+			m_nodes.writeByte(TYPE_DOUBLE);
+			m_nodes.writeDouble(node.asDouble());
+		} else if (node.isTextual()) {
+			m_nodes.writeByte(TYPE_STRING);
+			m_nodes.writeInt(getStringIndex(node.asText()));
+		} else
+			throw new ValueSerializationException(new UnsupportedValueTypeException());
+
+		return offset;
+	}
+
+	private void write(int root, int sourceHash, OutputStream dest) throws IOException {
+		m_nodes.flush();
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(dest));
+
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(HEADER_SIZE + m_nodes.size());
+		out.writeInt(root);
+		out.writeInt(sourceHash);
+
+		m_nodeBuffer.writeTo(out);
+
+		out.writeInt(m_strings.size());
+
+		for (String s : m_strings) {
+			byte[] encoded = s.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(encoded.length);
+			out.write(encoded);
+		}
+
+		out.flush();
+	}
+
+	/*
+	 * Compiles each of the given JSON configuration files to a sibling file with the compiled extension appended.
+	 */
+	public static void main(String[] args) {
+		if (args.length == 0) {
+			System.err.println("Usage: BinaryConfigurationCompiler <configuration>...");
+			System.exit(1);
+		}
+
+		boolean failed = false;
+
+		for (String source : args) {
+			File dest = new File(source + COMPILED_EXTENSION);
+
+			try (InputStream in = new FileInputStream(source);
+			     OutputStream out = new FileOutputStream(dest)) {
+				compile(in, out);
+				System.out.println("Compiled " + source + " to " + dest.getPath());
+			} catch (IOException | ValueSerializationException e) {
+				System.err.println("Error compiling " + source + ": " + e.getMessage());
+				failed = true;
+
+				//A partially written document would otherwise be preferred over its source.
+				dest.delete();
+			}
+		}
+
+		if (failed)
+			System.exit(1);
+	}
+}
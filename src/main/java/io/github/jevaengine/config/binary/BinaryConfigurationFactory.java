@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.config.binary;
+
+import io.github.jevaengine.ByteBufferInputStream;
+import io.github.jevaengine.IAssetStreamFactory;
+import io.github.jevaengine.IAssetStreamFactory.AssetStreamConstructionException;
+import io.github.jevaengine.config.IConfigurationFactory;
+import io.github.jevaengine.config.IImmutableVariable;
+import io.github.jevaengine.config.IVariable;
+import io.github.jevaengine.config.ValueSerializationException;
+import io.github.jevaengine.config.json.JsonConfigurationFactory;
+import io.github.jevaengine.util.Nullable;
+import io.github.jevaengine.util.ThreadSafe;
+
+import javax.inject.Inject;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import static io.github.jevaengine.config.binary.BinaryConfigurationCompiler.HEADER_SIZE;
+import static io.github.jevaengine.config.binary.BinaryConfigurationCompiler.SOURCE_HASH_OFFSET;
+import static io.github.jevaengine.config.binary.BinaryConfigurationCompiler.VERSION;
+
+/*
+ * Reads configurations compiled by BinaryConfigurationCompiler. A request for a configuration is served from its
+ * compiled sibling (the same name with the compiled extension appended) when one exists and was compiled from the
+ * current source, and otherwise from the source factory. A compiled configuration whose source is not available is
+ * served as is. Compiled configurations on the local file system are memory-mapped rather than read, as are those
+ * served from buffer backed asset streams.
+ *
+ * Mutable configurations are always constructed by the source factory, since they are edited and saved as source.
+ */
+public final class BinaryConfigurationFactory implements IConfigurationFactory {
+	private final IAssetStreamFactory m_assetFactory;
+	private final IConfigurationFactory m_sourceFactory;
+
+	public BinaryConfigurationFactory(IAssetStreamFactory assetFactory, IConfigurationFactory sourceFactory) {
+		m_assetFactory = assetFactory;
+		m_sourceFactory = sourceFactory;
+	}
+
+	@Inject
+	public BinaryConfigurationFactory(IAssetStreamFactory assetFactory) {
+		this(assetFactory, new JsonConfigurationFactory(assetFactory));
+	}
+
+	private static URI getCompiledName(URI name) throws URISyntaxException {
+		if (name.getPath() == null || name.getPath().endsWith(BinaryConfigurationCompiler.COMPILED_EXTENSION))
+			return name;
+
+		return new URI(name.getScheme(), name.getAuthority(), name.getPath() + BinaryConfigurationCompiler.COMPILED_EXTENSION, name.getQuery(), name.getFragment());
+	}
+
+	@Nullable
+	private ByteBuffer map(URI compiledName) throws IOException {
+		if ("file".equals(compiledName.getScheme())) {
+			File file = new File(compiledName);
+
+			if (!file.isFile())
+				return null;
+
+			try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+				return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			}
+		}
+
+		try (InputStream in = m_assetFactory.create(compiledName)) {
+			if (in instanceof ByteBufferInputStream)
+				return ((ByteBufferInputStream) in).getBuffer();
+
+			ByteArrayOutputStream contents = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+
+			for (int read; (read = in.read(buffer)) >= 0; )
+				contents.write(buffer, 0, read);
+
+			return ByteBuffer.wrap(contents.toByteArray());
+		} catch (AssetStreamConstructionException e) {
+			return null;
+		}
+	}
+
+	//Compiles of an older format, or of a source which has since been modified, are stale.
+	private boolean isStale(URI sourceName, ByteBuffer compiled) throws IOException {
+		if (compiled.limit() < HEADER_SIZE || compiled.getInt(4) != VERSION)
+			return true;
+
+		try (InputStream source = m_assetFactory.create(sourceName)) {
+			return BinaryConfigurationCompiler.getSourceHash(source) != compiled.getInt(SOURCE_HASH_OFFSET);
+		} catch (AssetStreamConstructionException e) {
+			return false;
+		}
+	}
+
+	@Override
+	@ThreadSafe
+	public IImmutableVariable create(URI name) throws ConfigurationConstructionException {
+		try {
+			URI compiledName = getCompiledName(name);
+			ByteBuffer compiled = map(compiledName);
+
+			if (compiled == null || (!compiledName.equals(name) && isStale(name, compiled))) {
+				if (compiledName.equals(name))
+					throw new ConfigurationConstructionException(name, new IOException("Compiled configuration does not exist."));
+
+				return m_sourceFactory.create(name);
+			}
+
+			return new BinaryConfiguration(compiled).getRoot();
+		} catch (IOException | URISyntaxException | ValueSerializationException e) {
+			throw new ConfigurationConstructionException(name, e);
+		}
+	}
+
+	@Override
+	@ThreadSafe
+	public IVariable createMutable(URI name) throws ConfigurationConstructionException {
+		return m_sourceFactory.createMutable(name);
+	}
+}
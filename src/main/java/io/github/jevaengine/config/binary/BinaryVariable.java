@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.config.binary;
+
+import io.github.jevaengine.config.*;
+import io.github.jevaengine.util.Nullable;
+
+import java.lang.reflect.Array;
+
+import static io.github.jevaengine.config.binary.BinaryConfigurationCompiler.*;
+
+/*
+ * Read-only view of a node in a compiled configuration. Children are located and decoded only when accessed.
+ */
+public final class BinaryVariable implements IImmutableVariable {
+	private final BinaryConfiguration m_configuration;
+	private final int m_node;
+
+	BinaryVariable(BinaryConfiguration configuration, int node) {
+		m_configuration = configuration;
+		m_node = node;
+	}
+
+	@Nullable
+	private Object getRawValue() {
+		switch (m_configuration.getType(m_node)) {
+			case TYPE_BOOLEAN:
+				return m_configuration.getBoolean(m_node);
+			case TYPE_INT:
+				return m_configuration.getInt(m_node);
+			case TYPE_DOUBLE:
+				return m_configuration.getDouble(m_node);
+			case TYPE_STRING:
+				return m_configuration.getString(m_configuration.getInt(m_node));
+			default:
+				return null;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T convert(Object value, Class<T> cls) throws ValueSerializationException {
+		if (cls.isAssignableFrom(value.getClass()))
+			return (T) value;
+		else if (cls == Double.class && value instanceof Integer)
+			return (T) new Double(((Integer) value).doubleValue());
+		else
+			throw new ValueSerializationException(new UnsupportedValueTypeException());
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> T getValue(Class<T> cls) throws ValueSerializationException {
+		byte type = m_configuration.getType(m_node);
+
+		if (type == TYPE_NULL)
+			throw new ValueSerializationException(new IncompatibleValueTypeException());
+
+		if (ISerializable.class.isAssignableFrom(cls))
+			return SerializableInstantiator.deserialize(cls, this);
+		else if (type == TYPE_ARRAY && cls.isArray())
+			return (T) getValues((Class<Object[]>) cls);
+		else if (type == TYPE_ARRAY || type == TYPE_OBJECT)
+			throw new ValueSerializationException(new IncompatibleValueTypeException());
+
+		return convert(getRawValue(), cls);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> T[] getValues(Class<T[]> cls) throws ValueSerializationException {
+		if (m_configuration.getType(m_node) != TYPE_ARRAY)
+			throw new ValueSerializationException(new IncompatibleValueTypeException());
+
+		Class<T> componentType = (Class<T>) cls.getComponentType();
+		T[] values = (T[]) Array.newInstance(componentType, m_configuration.getCount(m_node));
+
+		for (int i = 0; i < values.length; i++) {
+			BinaryVariable element = new BinaryVariable(m_configuration, m_configuration.getElement(m_node, i));
+
+			if (ISerializable.class.isAssignableFrom(componentType))
+				values[i] = SerializableInstantiator.deserialize(componentType, element);
+			else {
+				Object raw = element.getRawValue();
+
+				if (raw == null)
+					throw new ValueSerializationException(new UnsupportedValueTypeException());
+
+				values[i] = convert(raw, componentType);
+			}
+		}
+
+		return values;
+	}
+
+	@Override
+	public int getInt() throws ValueSerializationException {
+		switch (m_configuration.getType(m_node)) {
+			case TYPE_INT:
+				return m_configuration.getInt(m_node);
+			case TYPE_NULL:
+			case TYPE_ARRAY:
+			case TYPE_OBJECT:
+				throw new ValueSerializationException(new IncompatibleValueTypeException());
+			default:
+				throw new ValueSerializationException(new UnsupportedValueTypeException());
+		}
+	}
+
+	private static float getFloat(BinaryConfiguration configuration, int node) throws ValueSerializationException {
+		switch (configuration.getType(node)) {
+			case TYPE_INT:
+				return configuration.getInt(node);
+			case TYPE_DOUBLE:
+				return (float) configuration.getDouble(node);
+			case TYPE_NULL:
+			case TYPE_ARRAY:
+			case TYPE_OBJECT:
+				throw new ValueSerializationException(new IncompatibleValueTypeException());
+			default:
+				throw new ValueSerializationException(new UnsupportedValueTypeException());
+		}
+	}
+
+	@Override
+	public float getFloat() throws ValueSerializationException {
+		return getFloat(m_configuration, m_node);
+	}
+
+	@Override
+	public float[] getFloatArray() throws ValueSerializationException {
+		if (m_configuration.getType(m_node) != TYPE_ARRAY)
+			throw new ValueSerializationException(new IncompatibleValueTypeException());
+
+		float[] values = new float[m_configuration.getCount(m_node)];
+
+		for (int i = 0; i < values.length; i++)
+			values[i] = getFloat(m_configuration, m_configuration.getElement(m_node, i));
+
+		return values;
+	}
+
+	@Override
+	public boolean childExists(String name) {
+		return m_configuration.getType(m_node) == TYPE_OBJECT && m_configuration.findChild(m_node, name) >= 0;
+	}
+
+	@Override
+	public BinaryVariable getChild(String name) throws NoSuchChildVariableException {
+		if (m_configuration.getType(m_node) != TYPE_OBJECT)
+			throw new NoSuchChildVariableException(name);
+
+		int child = m_configuration.findChild(m_node, name);
+
+		if (child < 0)
+			throw new NoSuchChildVariableException(name);
+
+		return new BinaryVariable(m_configuration, child);
+	}
+
+	@Override
+	public String[] getChildren() {
+		if (m_configuration.getType(m_node) != TYPE_OBJECT)
+			return new String[0];
+
+		String[] children = new String[m_configuration.getCount(m_node)];
+
+		for (int i = 0; i < children.length; i++)
+			children[i] = m_configuration.getKey(m_node, i);
+
+		return children;
+	}
+
+	@Override
+	public void serialize(IVariable target) throws ValueSerializationException {
+		switch (m_configuration.getType(m_node)) {
+			case TYPE_NULL:
+				return;
+			case TYPE_OBJECT:
+				for (int i = 0; i < m_configuration.getCount(m_node); i++)
+					new BinaryVariable(m_configuration, m_configuration.getChild(m_node, i)).serialize(target.addChild(m_configuration.getKey(m_node, i)));
+				return;
+			case TYPE_ARRAY:
+				serializeArray(target);
+				return;
+			default:
+				target.setValue(getRawValue());
+		}
+	}
+
+	private void serializeArray(IVariable target) throws ValueSerializationException {
+		int count = m_configuration.getCount(m_node);
+		Object[] primitives = new Object[count];
+		ISerializable[] variables = new ISerializable[count];
+		boolean isPrimitive = true;
+
+		for (int i = 0; i < count; i++) {
+			BinaryVariable element = new BinaryVariable(m_configuration, m_configuration.getElement(m_node, i));
+			variables[i] = element;
+			primitives[i] = element.getRawValue();
+			isPrimitive &= primitives[i] != null;
+		}
+
+		if (count > 0 && !isPrimitive)
+			target.setValue(variables);
+		else
+			target.setValue(primitives);
+	}
+
+	@Override
+	public void deserialize(IImmutableVariable source) throws ValueSerializationException {
+		throw new ValueSerializationException(new UnsupportedOperationException("Compiled configurations are immutable."));
+	}
+}
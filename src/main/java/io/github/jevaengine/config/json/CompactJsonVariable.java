@@ -0,0 +1,485 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.config.json;
+
+import io.github.jevaengine.config.*;
+import io.github.jevaengine.util.Nullable;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/*
+ * Immutable configuration tree built in a single pass over a JSON token stream. Objects store their (interned)
+ * keys and children in parallel arrays sorted by key, and arrays of numbers, booleans or strings are stored as
+ * primitive arrays rather than as a variable per element.
+ */
+public final class CompactJsonVariable implements IImmutableVariable {
+	private static final String[] NO_KEYS = new String[0];
+	private static final CompactJsonVariable[] NO_CHILDREN = new CompactJsonVariable[0];
+
+	/*
+	 * One of null, Boolean, Integer, Double, String, int[], double[], boolean[], String[] or CompactJsonVariable[].
+	 * Unused for objects.
+	 */
+	@Nullable
+	private final Object m_value;
+
+	@Nullable
+	private final String[] m_keys;
+	private final CompactJsonVariable[] m_children;
+
+	private CompactJsonVariable(@Nullable Object value) {
+		m_value = value;
+		m_keys = null;
+		m_children = NO_CHILDREN;
+	}
+
+	private CompactJsonVariable(String[] keys, CompactJsonVariable[] children) {
+		m_value = null;
+		m_keys = keys;
+		m_children = children;
+	}
+
+	public static CompactJsonVariable parse(JsonParser parser) throws IOException, ValueSerializationException {
+		JsonToken token = parser.nextToken();
+
+		if (token == null)
+			throw new ValueSerializationException("Empty configuration.");
+
+		return parse(parser, token);
+	}
+
+	private static CompactJsonVariable parse(JsonParser parser, JsonToken token) throws IOException, ValueSerializationException {
+		switch (token) {
+			case START_OBJECT:
+				return parseObject(parser);
+			case START_ARRAY:
+				return parseArray(parser);
+			case VALUE_NULL:
+				return new CompactJsonVariable(null);
+			default:
+				return new CompactJsonVariable(parseScalar(parser, token));
+		}
+	}
+
+	private static Object parseScalar(JsonParser parser, JsonToken token) throws IOException, ValueSerializationException {
+		switch (token) {
+			case VALUE_TRUE:
+				return Boolean.TRUE;
+			case VALUE_FALSE:
+				return Boolean.FALSE;
+			case VALUE_NUMBER_INT:
+				if (parser.getNumberType() != JsonParser.NumberType.INT)
+					throw new ValueSerializationException(new UnsupportedValueTypeException());
+
+				return parser.getIntValue();
+			case VALUE_NUMBER_FLOAT:
+				return parser.getDoubleValue();
+			case VALUE_STRING:
+				return parser.getText();
+			default:
+				throw new ValueSerializationException(new UnsupportedValueTypeException());
+		}
+	}
+
+	private static CompactJsonVariable parseObject(JsonParser parser) throws IOException, ValueSerializationException {
+		final List<String> keys = new ArrayList<>();
+		List<CompactJsonVariable> children = new ArrayList<>();
+
+		for (JsonToken token; (token = parser.nextToken()) != JsonToken.END_OBJECT; ) {
+			if (token != JsonToken.FIELD_NAME)
+				throw new ValueSerializationException(new UnsupportedValueTypeException());
+
+			keys.add(parser.getCurrentName().intern());
+			children.add(parse(parser, parser.nextToken()));
+		}
+
+		if (keys.isEmpty())
+			return new CompactJsonVariable(NO_KEYS, NO_CHILDREN);
+
+		//Sort both arrays by key so that children can be found by binary search.
+		Integer[] order = new Integer[keys.size()];
+
+		for (int i = 0; i < order.length; i++)
+			order[i] = i;
+
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b) {
+				return keys.get(a).compareTo(keys.get(b));
+			}
+		});
+
+		String[] sortedKeys = new String[order.length];
+		CompactJsonVariable[] sortedChildren = new CompactJsonVariable[order.length];
+
+		for (int i = 0; i < order.length; i++) {
+			sortedKeys[i] = keys.get(order[i]);
+			sortedChildren[i] = children.get(order[i]);
+		}
+
+		return new CompactJsonVariable(sortedKeys, sortedChildren);
+	}
+
+	private static CompactJsonVariable parseArray(JsonParser parser) throws IOException, ValueSerializationException {
+		ArrayBuilder builder = new ArrayBuilder();
+
+		for (JsonToken token; (token = parser.nextToken()) != JsonToken.END_ARRAY; )
+			builder.add(parser, token);
+
+		return new CompactJsonVariable(builder.build());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T convert(@Nullable Object value, Class<T> cls) throws ValueSerializationException {
+		if (value == null)
+			throw new ValueSerializationException(new IncompatibleValueTypeException());
+		else if (cls.isAssignableFrom(value.getClass()))
+			return (T) value;
+		else if (cls == Double.class && value instanceof Integer)
+			return (T) new Double(((Integer) value).doubleValue());
+		else
+			throw new ValueSerializationException(new UnsupportedValueTypeException());
+	}
+
+	private boolean isObject() {
+		return m_keys != null;
+	}
+
+	private boolean isArray() {
+		return m_value != null && m_value.getClass().isArray();
+	}
+
+	private int getLength() {
+		return Array.getLength(m_value);
+	}
+
+	@Nullable
+	private Object getElement(int index) {
+		if (m_value instanceof CompactJsonVariable[])
+			return ((CompactJsonVariable[]) m_value)[index];
+
+		return Array.get(m_value, index);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> T getValue(Class<T> cls) throws ValueSerializationException {
+		if (m_value == null && !isObject())
+			throw new ValueSerializationException(new IncompatibleValueTypeException());
+
+		if (ISerializable.class.isAssignableFrom(cls))
+			return SerializableInstantiator.deserialize(cls, this);
+		else if (isArray() && cls.isArray())
+			return (T) getValues((Class<Object[]>) cls);
+		else if (isArray() || isObject())
+			throw new ValueSerializationException(new IncompatibleValueTypeException());
+
+		return convert(m_value, cls);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> T[] getValues(Class<T[]> cls) throws ValueSerializationException {
+		if (!isArray())
+			throw new ValueSerializationException(new IncompatibleValueTypeException());
+
+		Class<T> componentType = (Class<T>) cls.getComponentType();
+		T[] values = (T[]) Array.newInstance(componentType, getLength());
+
+		for (int i = 0; i < values.length; i++) {
+			Object element = getElement(i);
+
+			if (element instanceof CompactJsonVariable) {
+				CompactJsonVariable variable = (CompactJsonVariable) element;
+
+				if (ISerializable.class.isAssignableFrom(componentType))
+					values[i] = SerializableInstantiator.deserialize(componentType, variable);
+				else if (variable.isObject() && componentType.isAssignableFrom(CompactJsonVariable.class))
+					values[i] = (T) variable;
+				else
+					values[i] = convert(variable.m_value, componentType);
+			} else if (ISerializable.class.isAssignableFrom(componentType))
+				throw new ValueSerializationException(new IncompatibleValueTypeException());
+			else
+				values[i] = convert(element, componentType);
+		}
+
+		return values;
+	}
+
+	@Override
+	public int getInt() throws ValueSerializationException {
+		if (m_value instanceof Integer)
+			return (Integer) m_value;
+		else if (m_value == null || isArray())
+			throw new ValueSerializationException(new IncompatibleValueTypeException());
+		else
+			throw new ValueSerializationException(new UnsupportedValueTypeException());
+	}
+
+	@Override
+	public float getFloat() throws ValueSerializationException {
+		if (m_value instanceof Double)
+			return ((Double) m_value).floatValue();
+		else if (m_value instanceof Integer)
+			return (Integer) m_value;
+		else if (m_value == null || isArray())
+			throw new ValueSerializationException(new IncompatibleValueTypeException());
+		else
+			throw new ValueSerializationException(new UnsupportedValueTypeException());
+	}
+
+	@Override
+	public float[] getFloatArray() throws ValueSerializationException {
+		if (m_value instanceof double[]) {
+			double[] source = (double[]) m_value;
+			float[] values = new float[source.length];
+
+			for (int i = 0; i < source.length; i++)
+				values[i] = (float) source[i];
+
+			return values;
+		} else if (m_value instanceof int[]) {
+			int[] source = (int[]) m_value;
+			float[] values = new float[source.length];
+
+			for (int i = 0; i < source.length; i++)
+				values[i] = source[i];
+
+			return values;
+		} else if (m_value instanceof CompactJsonVariable[]) {
+			CompactJsonVariable[] source = (CompactJsonVariable[]) m_value;
+			float[] values = new float[source.length];
+
+			for (int i = 0; i < source.length; i++)
+				values[i] = source[i].getFloat();
+
+			return values;
+		} else
+			throw new ValueSerializationException(new IncompatibleValueTypeException());
+	}
+
+	private int indexOf(String name) {
+		return m_keys == null ? -1 : Arrays.binarySearch(m_keys, name);
+	}
+
+	@Override
+	public boolean childExists(String name) {
+		return indexOf(name) >= 0;
+	}
+
+	@Override
+	public CompactJsonVariable getChild(String name) throws NoSuchChildVariableException {
+		int index = indexOf(name);
+
+		if (index < 0)
+			throw new NoSuchChildVariableException(name);
+
+		return m_children[index];
+	}
+
+	@Override
+	public String[] getChildren() {
+		return m_keys == null ? new String[0] : m_keys.clone();
+	}
+
+	@Override
+	public void serialize(IVariable target) throws ValueSerializationException {
+		if (isObject()) {
+			for (int i = 0; i < m_keys.length; i++)
+				m_children[i].serialize(target.addChild(m_keys[i]));
+		} else if (m_value instanceof int[])
+			target.setValue((int[]) m_value);
+		else if (m_value instanceof double[])
+			target.setValue((double[]) m_value);
+		else if (m_value instanceof boolean[])
+			target.setValue((boolean[]) m_value);
+		else if (m_value instanceof String[])
+			target.setValue((String[]) m_value);
+		else if (m_value instanceof CompactJsonVariable[])
+			target.setValue((ISerializable[]) m_value);
+		else if (m_value != null)
+			target.setValue(m_value);
+	}
+
+	@Override
+	public void deserialize(IImmutableVariable source) throws ValueSerializationException {
+		throw new ValueSerializationException(new UnsupportedOperationException("Compact configurations are immutable."));
+	}
+
+	/*
+	 * Accumulates array elements into the narrowest storage that holds them all: int, then double, for numbers;
+	 * boolean or String for homogeneous arrays of those; and a variable per element for anything else.
+	 */
+	private static final class ArrayBuilder {
+		private enum Kind {
+			Empty,
+			Int,
+			Double,
+			Boolean,
+			String,
+			Mixed
+		}
+
+		private Kind m_kind = Kind.Empty;
+		private int m_size = 0;
+
+		private int[] m_ints;
+		private double[] m_doubles;
+		private boolean[] m_booleans;
+		private String[] m_strings;
+		private List<CompactJsonVariable> m_mixed;
+
+		private static Kind getKind(JsonToken token) {
+			switch (token) {
+				case VALUE_NUMBER_INT:
+					return Kind.Int;
+				case VALUE_NUMBER_FLOAT:
+					return Kind.Double;
+				case VALUE_TRUE:
+				case VALUE_FALSE:
+					return Kind.Boolean;
+				case VALUE_STRING:
+					return Kind.String;
+				default:
+					return Kind.Mixed;
+			}
+		}
+
+		public void add(JsonParser parser, JsonToken token) throws IOException, ValueSerializationException {
+			Kind kind = getKind(token);
+
+			if (kind == Kind.Int && parser.getNumberType() != JsonParser.NumberType.INT)
+				throw new ValueSerializationException(new UnsupportedValueTypeException());
+
+			if (m_kind == Kind.Empty) {
+				m_kind = kind;
+
+				switch (kind) {
+					case Int:
+						m_ints = new int[8];
+						break;
+					case Double:
+						m_doubles = new double[8];
+						break;
+					case Boolean:
+						m_booleans = new boolean[8];
+						break;
+					case String:
+						m_strings = new String[8];
+						break;
+					default:
+						m_mixed = new ArrayList<>();
+				}
+			} else if (m_kind == Kind.Int && kind == Kind.Double) {
+				m_doubles = new double[m_ints.length];
+
+				for (int i = 0; i < m_size; i++)
+					m_doubles[i] = m_ints[i];
+
+				m_ints = null;
+				m_kind = Kind.Double;
+			} else if (m_kind != kind && !(m_kind == Kind.Double && kind == Kind.Int) && m_kind != Kind.Mixed) {
+				m_mixed = new ArrayList<>();
+
+				for (int i = 0; i < m_size; i++)
+					m_mixed.add(new CompactJsonVariable(getBoxed(i)));
+
+				m_ints = null;
+				m_doubles = null;
+				m_booleans = null;
+				m_strings = null;
+				m_kind = Kind.Mixed;
+			}
+
+			switch (m_kind) {
+				case Int:
+					m_ints = ensureCapacity(m_ints);
+					m_ints[m_size] = parser.getIntValue();
+					break;
+				case Double:
+					m_doubles = ensureCapacity(m_doubles);
+					m_doubles[m_size] = parser.getDoubleValue();
+					break;
+				case Boolean:
+					m_booleans = ensureCapacity(m_booleans);
+					m_booleans[m_size] = token == JsonToken.VALUE_TRUE;
+					break;
+				case String:
+					m_strings = ensureCapacity(m_strings);
+					m_strings[m_size] = parser.getText();
+					break;
+				default:
+					m_mixed.add(parse(parser, token));
+			}
+
+			m_size++;
+		}
+
+		private Object getBoxed(int index) {
+			switch (m_kind) {
+				case Int:
+					return m_ints[index];
+				case Double:
+					return m_doubles[index];
+				case Boolean:
+					return m_booleans[index];
+				default:
+					return m_strings[index];
+			}
+		}
+
+		private <T> T ensureCapacity(T array) {
+			int length = Array.getLength(array);
+
+			if (m_size < length)
+				return array;
+
+			@SuppressWarnings("unchecked")
+			T grown = (T) Array.newInstance(array.getClass().getComponentType(), length * 2);
+			System.arraycopy(array, 0, grown, 0, m_size);
+
+			return grown;
+		}
+
+		public Object build() {
+			switch (m_kind) {
+				case Empty:
+					return NO_CHILDREN;
+				case Int:
+					return Arrays.copyOf(m_ints, m_size);
+				case Double:
+					return Arrays.copyOf(m_doubles, m_size);
+				case Boolean:
+					return Arrays.copyOf(m_booleans, m_size);
+				case String:
+					return Arrays.copyOf(m_strings, m_size);
+				default:
+					return m_mixed.toArray(new CompactJsonVariable[m_mixed.size()]);
+			}
+		}
+	}
+}
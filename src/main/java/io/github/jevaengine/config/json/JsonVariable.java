@@ -27,8 +27,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Array;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.util.*;
 import java.util.Map.Entry;
 
@@ -256,24 +254,7 @@ public final class JsonVariable implements IVariable {
 			throw new ValueSerializationException(new IncompatibleValueTypeException());
 
 		if (ISerializable.class.isAssignableFrom(cls)) {
-			try {
-				Constructor<T> constructor = cls.getDeclaredConstructor();
-				constructor.setAccessible(true);
-
-				T instance = constructor.newInstance();
-
-				((ISerializable) instance).deserialize(m_value instanceof JsonVariable ? (JsonVariable) m_value : new JsonVariable(m_value));
-
-				return instance;
-			} catch (NoSuchMethodException |
-					SecurityException |
-					IllegalAccessException |
-					IllegalArgumentException ex) {
-				throw new ValueSerializationException(ex);
-			} catch (InstantiationException | InvocationTargetException ex) {
-				throw new ValueSerializationException(ex);
-			}
-
+			return SerializableInstantiator.deserialize(cls, m_value instanceof JsonVariable ? (JsonVariable) m_value : new JsonVariable(m_value));
 		} else if (cls.isAssignableFrom(m_value.getClass())) {
 			return (T) m_value;
 		} else if (cls == Double.class && m_value.getClass().equals(Integer.class)) {
@@ -310,40 +291,87 @@ public final class JsonVariable implements IVariable {
 			return (T[]) m_value;
 		else if (m_value instanceof Object[] &&
 				(ISerializable.class.isAssignableFrom(dest.getComponentType()) || isPrimitiveType(dest.getComponentType()))) {
-			try {
-				Object[] rawValues = (Object[]) m_value;
-				ArrayList<T> deserializedValues = new ArrayList<T>();
-
-				for (Object rawValue : rawValues) {
-					if (isPrimitive(rawValue)) {
-						deserializedValues.add((T) rawValue);
-					} else if (rawValue instanceof JsonVariable) {
-						Constructor<?> constructor = dest.getComponentType().getDeclaredConstructor();
-						constructor.setAccessible(true);
-
-						ISerializable bean = (ISerializable) constructor.newInstance();
-						bean.deserialize((JsonVariable) rawValue);
-						deserializedValues.add((T) bean);
-					} else
-						throw new ValueSerializationException(new UnsupportedValueTypeException());
-				}
-
-				T[] returnBuffer = dest.cast(Array.newInstance(dest.getComponentType(), deserializedValues.size()));
-
-				return deserializedValues.toArray(returnBuffer);
-
-			} catch (NoSuchMethodException |
-					SecurityException |
-					IllegalAccessException |
-					IllegalArgumentException ex) {
-				throw new ValueSerializationException(ex);
-			} catch (InstantiationException | InvocationTargetException ex) {
-				throw new RuntimeException(ex);
+			Object[] rawValues = (Object[]) m_value;
+			T[] returnBuffer = dest.cast(Array.newInstance(dest.getComponentType(), rawValues.length));
+
+			for (int i = 0; i < rawValues.length; i++) {
+				Object rawValue = rawValues[i];
+
+				if (isPrimitive(rawValue))
+					returnBuffer[i] = (T) rawValue;
+				else if (rawValue instanceof JsonVariable)
+					returnBuffer[i] = (T) SerializableInstantiator.deserialize(dest.getComponentType(), (JsonVariable) rawValue);
+				else
+					throw new ValueSerializationException(new UnsupportedValueTypeException());
 			}
+
+			return returnBuffer;
 		} else
 			throw new ValueSerializationException(new UnsupportedValueTypeException());
 	}
 
+	@Override
+	public int getInt() throws ValueSerializationException {
+		if (m_value instanceof JsonVariable)
+			return ((JsonVariable) m_value).getInt();
+		else if (m_value instanceof Integer)
+			return (Integer) m_value;
+		else if (m_value == null || m_value instanceof Map)
+			throw new ValueSerializationException(new IncompatibleValueTypeException());
+		else
+			throw new ValueSerializationException(new UnsupportedValueTypeException());
+	}
+
+	@Override
+	public float getFloat() throws ValueSerializationException {
+		if (m_value instanceof JsonVariable)
+			return ((JsonVariable) m_value).getFloat();
+		else if (m_value instanceof Double)
+			return ((Double) m_value).floatValue();
+		else if (m_value instanceof Integer)
+			return (Integer) m_value;
+		else if (m_value == null || m_value instanceof Map)
+			throw new ValueSerializationException(new IncompatibleValueTypeException());
+		else
+			throw new ValueSerializationException(new UnsupportedValueTypeException());
+	}
+
+	@Override
+	public float[] getFloatArray() throws ValueSerializationException {
+		if (m_value instanceof JsonVariable)
+			return ((JsonVariable) m_value).getFloatArray();
+		else if (m_value instanceof double[]) {
+			double[] source = (double[]) m_value;
+			float[] values = new float[source.length];
+
+			for (int i = 0; i < source.length; i++)
+				values[i] = (float) source[i];
+
+			return values;
+		} else if (m_value instanceof int[]) {
+			int[] source = (int[]) m_value;
+			float[] values = new float[source.length];
+
+			for (int i = 0; i < source.length; i++)
+				values[i] = source[i];
+
+			return values;
+		} else if (m_value instanceof Object[]) {
+			Object[] source = (Object[]) m_value;
+			float[] values = new float[source.length];
+
+			for (int i = 0; i < source.length; i++) {
+				if (!(source[i] instanceof Double || source[i] instanceof Integer))
+					throw new ValueSerializationException(new UnsupportedValueTypeException());
+
+				values[i] = ((Number) source[i]).floatValue();
+			}
+
+			return values;
+		} else
+			throw new ValueSerializationException(new IncompatibleValueTypeException());
+	}
+
 	@SuppressWarnings("unchecked")
 	@Override
 	public void serialize(IVariable target) throws ValueSerializationException {
@@ -354,10 +382,21 @@ public final class JsonVariable implements IVariable {
 			for (Map.Entry<String, IImmutableVariable> e : ((Map<String, IImmutableVariable>) m_value).entrySet()) {
 				e.getValue().serialize(target.addChild(e.getKey()));
 			}
-		} else
+		} else if (m_value instanceof Object[] && ((Object[]) m_value).length > 0 && !isPrimitiveBoxed(((Object[]) m_value)[0]))
+			serializeArray((Object[]) m_value, target);
+		else
 			target.setValue(m_value);
 	}
 
+	private static void serializeArray(Object[] values, IVariable target) throws ValueSerializationException {
+		ISerializable[] variables = new ISerializable[values.length];
+
+		for (int i = 0; i < values.length; i++)
+			variables[i] = values[i] instanceof JsonVariable ? (JsonVariable) values[i] : new JsonVariable(values[i]);
+
+		target.setValue(variables);
+	}
+
 	@Override
 	public void deserialize(IImmutableVariable source) {
 		m_value = source;
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.config.json;
+
+import io.github.jevaengine.IAssetStreamFactory;
+import io.github.jevaengine.IAssetStreamFactory.AssetStreamConstructionException;
+import io.github.jevaengine.config.IConfigurationFactory;
+import io.github.jevaengine.config.IImmutableVariable;
+import io.github.jevaengine.config.IVariable;
+import io.github.jevaengine.config.ValueSerializationException;
+import io.github.jevaengine.util.ThreadSafe;
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonParser;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+/*
+ * Constructs configurations by streaming over the JSON source into a CompactJsonVariable, without building
+ * an intermediate document tree. Mutable configurations are copied out of the compact tree into a JsonVariable.
+ */
+public final class StreamingJsonConfigurationFactory implements IConfigurationFactory {
+	private final IAssetStreamFactory m_assetFactory;
+	private final JsonFactory m_jsonFactory = new JsonFactory();
+
+	@Inject
+	public StreamingJsonConfigurationFactory(IAssetStreamFactory assetFactory) {
+		m_assetFactory = assetFactory;
+	}
+
+	@Override
+	@ThreadSafe
+	public IImmutableVariable create(URI name) throws ConfigurationConstructionException {
+		try (InputStream source = m_assetFactory.create(name);
+		     JsonParser parser = m_jsonFactory.createJsonParser(source)) {
+			return CompactJsonVariable.parse(parser);
+		} catch (IOException | ValueSerializationException | AssetStreamConstructionException e) {
+			throw new ConfigurationConstructionException(name, e);
+		}
+	}
+
+	@Override
+	@ThreadSafe
+	public IVariable createMutable(URI name) throws ConfigurationConstructionException {
+		try {
+			JsonVariable mutable = new JsonVariable();
+			create(name).serialize(mutable);
+
+			return mutable;
+		} catch (ValueSerializationException e) {
+			throw new ConfigurationConstructionException(name, e);
+		}
+	}
+}
@@ -20,6 +20,7 @@ package io.github.jevaengine.game;
 
 import io.github.jevaengine.graphics.IRenderable;
 import io.github.jevaengine.math.Vector2D;
+import io.github.jevaengine.util.Profiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +34,8 @@ import java.awt.image.BufferStrategy;
 public final class FrameRenderer implements IRenderer {
 	private static final int PREFERRED_BIT_DEPTH = 16;
 	private static final int MIN_BIT_DEPTH = 16;
+	private static final Profiler.Scope RENDER_SCOPE = Profiler.getDefault().getScope("frame.render");
+	private static final Profiler.Scope PRESENT_SCOPE = Profiler.getDefault().getScope("frame.present");
 	private final Logger m_logger = LoggerFactory.getLogger(FrameRenderer.class);
 	private final int m_canvasRenderWidth;
 	private final int m_canvasRenderHeight;
@@ -186,38 +189,50 @@ public final class FrameRenderer implements IRenderer {
 		if (m_renderTarget == null)
 			return;
 
-		Graphics2D g = (Graphics2D) m_bufferStrategy.getDrawGraphics();
-		g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
-		g.setRenderingHint(RenderingHints.KEY_ALPHA_INTERPOLATION, RenderingHints.VALUE_ALPHA_INTERPOLATION_SPEED);
-		g.setRenderingHint(RenderingHints.KEY_COLOR_RENDERING, RenderingHints.VALUE_COLOR_RENDER_SPEED);
-		g.setRenderingHint(RenderingHints.KEY_DITHERING, RenderingHints.VALUE_DITHER_DISABLE);
-		g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_SPEED);
-
-		Rectangle bounds = m_renderTarget.getBounds();
-		g.setColor(Color.black);
-		g.fillRect(0, 0, bounds.width, bounds.height);
-
-		switch (m_renderFitMode) {
-			case Frame:
-				frame.render(g, (bounds.width - m_canvasRenderWidth) / 2, (bounds.height - m_canvasRenderHeight) / 2, 1.0F);
-				break;
-			case Stretch:
-				Graphics2D g2 = (Graphics2D) g.create();
-
-				AffineTransform transform = g2.getTransform();
-				transform.scale((float) bounds.width / m_canvasRenderWidth, (float) bounds.height / m_canvasRenderHeight);
-				g2.setTransform(transform);
-
-				frame.render(g2, 0, 0, 1.0F);
-
-				g2.dispose();
-				break;
-			default:
-				throw new UnrecognizedRenderFitModeException();
-		}
-		g.dispose();
+		long render = RENDER_SCOPE.begin();
+
+		try {
+			Graphics2D g = (Graphics2D) m_bufferStrategy.getDrawGraphics();
+			g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+			g.setRenderingHint(RenderingHints.KEY_ALPHA_INTERPOLATION, RenderingHints.VALUE_ALPHA_INTERPOLATION_SPEED);
+			g.setRenderingHint(RenderingHints.KEY_COLOR_RENDERING, RenderingHints.VALUE_COLOR_RENDER_SPEED);
+			g.setRenderingHint(RenderingHints.KEY_DITHERING, RenderingHints.VALUE_DITHER_DISABLE);
+			g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_SPEED);
+
+			Rectangle bounds = m_renderTarget.getBounds();
+			g.setColor(Color.black);
+			g.fillRect(0, 0, bounds.width, bounds.height);
+
+			switch (m_renderFitMode) {
+				case Frame:
+					frame.render(g, (bounds.width - m_canvasRenderWidth) / 2, (bounds.height - m_canvasRenderHeight) / 2, 1.0F);
+					break;
+				case Stretch:
+					Graphics2D g2 = (Graphics2D) g.create();
+
+					AffineTransform transform = g2.getTransform();
+					transform.scale((float) bounds.width / m_canvasRenderWidth, (float) bounds.height / m_canvasRenderHeight);
+					g2.setTransform(transform);
+
+					frame.render(g2, 0, 0, 1.0F);
+
+					g2.dispose();
+					break;
+				default:
+					throw new UnrecognizedRenderFitModeException();
+			}
+			g.dispose();
+
+			long present = PRESENT_SCOPE.begin();
 
-		m_bufferStrategy.show();
+			try {
+				m_bufferStrategy.show();
+			} finally {
+				PRESENT_SCOPE.end(present);
+			}
+		} finally {
+			RENDER_SCOPE.end(render);
+		}
 	}
 
 	public enum RenderFitMode {
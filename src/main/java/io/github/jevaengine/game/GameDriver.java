@@ -24,82 +24,347 @@ import io.github.jevaengine.util.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
 
+/*
+ * Drives a game at a fixed tick rate. Tick deadlines are derived from System.nanoTime and the tick count, rather than
+ * accumulated periods, so the tick rate does not drift. The millisecond delta passed to each update is distributed the
+ * same way, so that the game's simulated time stays in step with real time.
+ *
+ * Frames are rendered on a separate thread. The game's state is guarded by a fair lock held for each update and each
+ * frame, so a slow frame delays the next tick by at most the duration of that frame; ticks missed as a result are run
+ * back to back to catch up, and are only dropped once the loop has fallen further behind than MAX_FALL_BEHIND_TICKS.
+ *
+ * A headless driver has no renderer and no render thread, and never initializes AWT; it only updates the game. Either
+ * kind of driver may instead run a batch of ticks as fast as possible, for simulation and load testing.
+ */
 public final class GameDriver {
-	private static final int GAMELOOP_PERIOD = 1000 / 60;
-	private static final int MAX_FALL_BEHIND = 10 * GAMELOOP_PERIOD;
+	private static final int DEFAULT_TICK_RATE = 60;
+	private static final int MAX_FALL_BEHIND_TICKS = 10;
 
-	private final ScheduledExecutorService m_executor = new ScheduledThreadPoolExecutor(1);
+	private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+	private static final long MIN_SLEEP_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+	private final Logger m_logger = LoggerFactory.getLogger(GameDriver.class);
 
 	private final IGame m_game;
+
+	@Nullable
 	private final IRenderer m_renderer;
 
+	private final int m_tickRate;
+	private final FramePacing m_framePacing;
+
+	private final ReentrantLock m_gameLock = new ReentrantLock(true);
+	private final Object m_tickSignal = new Object();
+
+	private final MetricsRecorder m_metrics = new MetricsRecorder();
+
+	private volatile boolean m_isRunning = false;
+
+	//Number and completion time of the most recent tick, guarded by m_tickSignal.
+	private long m_publishedTick = 0;
+	private long m_publishedTickTime = 0;
+
 	@Nullable
-	private ScheduledFuture<?> m_gameLoop;
+	private Thread m_tickThread;
+
+	@Nullable
+	private Thread m_renderThread;
+
+	//A driver constructed without a renderer is headless.
+	public GameDriver(IGameFactory gameFactory, @Nullable IRenderer renderer, int tickRate, FramePacing framePacing) {
+		if (tickRate <= 0)
+			throw new IllegalArgumentException("Tick rate must be positive.");
 
-	@Inject
-	public GameDriver(IGameFactory gameFactory, IRenderer renderer) {
 		m_game = gameFactory.create();
 		m_renderer = renderer;
+		m_tickRate = tickRate;
+		m_framePacing = framePacing;
 	}
 
-	public void begin() {
-		if (m_gameLoop != null && (!m_gameLoop.isCancelled() || !m_gameLoop.isDone()))
+	@Inject
+	public GameDriver(IGameFactory gameFactory, IRenderer renderer) {
+		this(gameFactory, renderer, DEFAULT_TICK_RATE, FramePacing.Synchronized);
+	}
+
+	public GameDriver(IGameFactory gameFactory, int tickRate) {
+		this(gameFactory, null, tickRate, FramePacing.Synchronized);
+	}
+
+	private boolean isActive() {
+		return m_isRunning || (m_tickThread != null && m_tickThread.isAlive()) || (m_renderThread != null && m_renderThread.isAlive());
+	}
+
+	public synchronized void begin() {
+		if (isActive())
 			return;
 
-		m_gameLoop = m_executor.scheduleAtFixedRate(new GameLoop(), 0, GAMELOOP_PERIOD, TimeUnit.MILLISECONDS);
+		m_isRunning = true;
+
+		m_tickThread = new Thread(new TickLoop(), "GameDriver Tick");
+		m_tickThread.start();
+
+		if (m_renderer != null) {
+			m_renderThread = new Thread(new RenderLoop(), "GameDriver Render");
+			m_renderThread.start();
+		}
 	}
 
+	/*
+	 * Runs the given number of ticks on the calling thread, back to back and without rendering. Each tick is passed the
+	 * same deltas it would have been passed at the driver's tick rate.
+	 */
+	public synchronized GameLoopMetrics runTicks(long ticks) {
+		if (isActive())
+			throw new IllegalStateException("Cannot run a batch of ticks while the game loop is running.");
+
+		for (long tick = 0; tick < ticks; tick++) {
+			long tickStart = System.nanoTime();
+			m_game.update(getTickDelta(tick));
+
+			m_metrics.recordTick(System.nanoTime() - tickStart);
+		}
+
+		return m_metrics.getMetrics();
+	}
+
+	/*
+	 * Stops the game loop and waits for the tick and render threads to finish their current tick or frame. When
+	 * invoked from one of those threads (i.e, by the game itself), the loop is only signaled to stop; that thread holds the
+	 * game lock, which the other thread may be waiting on.
+	 */
 	public void stop() {
-		if (m_gameLoop == null)
+		Thread tickThread;
+		Thread renderThread;
+
+		synchronized (this) {
+			m_isRunning = false;
+			tickThread = m_tickThread;
+			renderThread = m_renderThread;
+		}
+
+		synchronized (m_tickSignal) {
+			m_tickSignal.notifyAll();
+		}
+
+		Thread current = Thread.currentThread();
+
+		if (current == tickThread || current == renderThread)
+			return;
+
+		join(tickThread);
+		join(renderThread);
+	}
+
+	private static void join(@Nullable Thread thread) {
+		if (thread == null)
 			return;
 
-		m_gameLoop.cancel(false);
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	public boolean isHeadless() {
+		return m_renderer == null;
+	}
+
+	public int getTickRate() {
+		return m_tickRate;
+	}
+
+	public GameLoopMetrics getMetrics() {
+		return m_metrics.getMetrics();
 	}
 
-	private class GameLoop implements Runnable {
-		private final Logger m_logger = LoggerFactory.getLogger(GameLoop.class);
-		private long m_lastTime = 0;
-		private long m_timeSinceLastUpdate = 0;
+	private long getTickDeadline(long start, long tick) {
+		return start + tick * NANOS_PER_SECOND / m_tickRate;
+	}
+
+	private int getTickDelta(long tick) {
+		return (int) ((tick + 1) * 1000 / m_tickRate - tick * 1000 / m_tickRate);
+	}
+
+	private static float toMillis(long nanos) {
+		return nanos / 1000000.0F;
+	}
+
+	public enum FramePacing {
+		//A frame is rendered after each tick, or batch of catch up ticks; frames would otherwise be identical.
+		Synchronized,
+
+		//Frames are rendered back to back, regardless of whether the game has been updated since the last frame.
+		Uncapped,
+	}
+
+	public static final class GameLoopMetrics {
+		public final int tickRate;
+		public final long ticks;
+		public final long droppedTicks;
+		public final float tickTime;
+		public final float maxTickTime;
+		public final long frames;
+		public final float frameTime;
+		public final float renderLag;
+
+		private GameLoopMetrics(int _tickRate, long _ticks, long _droppedTicks, float _tickTime, float _maxTickTime,
+								long _frames, float _frameTime, float _renderLag) {
+			tickRate = _tickRate;
+			ticks = _ticks;
+			droppedTicks = _droppedTicks;
+			tickTime = _tickTime;
+			maxTickTime = _maxTickTime;
+			frames = _frames;
+			frameTime = _frameTime;
+			renderLag = _renderLag;
+		}
 
+		@Override
+		public String toString() {
+			return String.format("%d ticks at %dHz (%.2fms average, %.2fms max, %d dropped), %d frames (%.2fms average, %.2fms render lag)",
+					ticks, tickRate, tickTime, maxTickTime, droppedTicks, frames, frameTime, renderLag);
+		}
+	}
+
+	//Tick, frame and lag times are exponentially weighted averages, favouring recent samples.
+	private final class MetricsRecorder {
+		private static final float SAMPLE_WEIGHT = 0.05F;
+
+		private long m_ticks = 0;
+		private long m_droppedTicks = 0;
+		private float m_tickTime = 0;
+		private float m_maxTickTime = 0;
+		private long m_frames = 0;
+		private float m_frameTime = 0;
+		private float m_renderLag = 0;
+
+		private float average(float average, float sample, long samples) {
+			return samples == 1 ? sample : average + (sample - average) * SAMPLE_WEIGHT;
+		}
+
+		public synchronized void recordTick(long duration) {
+			m_ticks++;
+			m_tickTime = average(m_tickTime, toMillis(duration), m_ticks);
+			m_maxTickTime = Math.max(m_maxTickTime, toMillis(duration));
+		}
+
+		public synchronized void recordDroppedTicks(long dropped) {
+			m_droppedTicks += dropped;
+		}
+
+		public synchronized void recordFrame(long duration, long lag) {
+			m_frames++;
+			m_frameTime = average(m_frameTime, toMillis(duration), m_frames);
+			m_renderLag = average(m_renderLag, toMillis(lag), m_frames);
+		}
+
+		public synchronized GameLoopMetrics getMetrics() {
+			return new GameLoopMetrics(m_tickRate, m_ticks, m_droppedTicks, m_tickTime, m_maxTickTime, m_frames, m_frameTime, m_renderLag);
+		}
+	}
+
+	private final class TickLoop implements Runnable {
 		@Override
 		public void run() {
 			try {
-				if (m_lastTime == 0)
-					m_lastTime = System.currentTimeMillis();
+				long start = System.nanoTime();
+				long tick = 0;
 
-				long delta = System.currentTimeMillis() - m_lastTime;
-				m_lastTime = System.currentTimeMillis();
+				while (m_isRunning) {
+					long now = System.nanoTime();
+					long deadline = getTickDeadline(start, tick);
 
-				long deltaCalc = m_timeSinceLastUpdate + delta;
+					if (deadline - now > 0) {
+						if (deadline - now > MIN_SLEEP_NANOS)
+							LockSupport.parkNanos(deadline - now - MIN_SLEEP_NANOS / 2);
+						else
+							Thread.yield();
 
-				m_timeSinceLastUpdate = Math.min(deltaCalc, MAX_FALL_BEHIND);
+						continue;
+					}
 
-				long lostTime = deltaCalc - m_timeSinceLastUpdate;
+					long behind = (now - deadline) * m_tickRate / NANOS_PER_SECOND;
 
-				if (lostTime > 0) {
-					m_logger.info("Lost time: " + lostTime);
-				}
+					if (behind > MAX_FALL_BEHIND_TICKS) {
+						long dropped = behind - MAX_FALL_BEHIND_TICKS;
+						m_logger.info("Game loop fell behind, dropping " + dropped + " ticks.");
+						m_metrics.recordDroppedTicks(dropped);
+						tick += dropped;
+					}
 
-				boolean updated = false;
-				for (; m_timeSinceLastUpdate >= GAMELOOP_PERIOD; m_timeSinceLastUpdate -= GAMELOOP_PERIOD)
-				{
-					updated = true;
-					m_game.update(GAMELOOP_PERIOD);
-				}
+					long tickEnd;
+
+					//Every tick that is due is run under one hold of the lock, rather than alternating with frames.
+					m_gameLock.lock();
+					try {
+						int batch = 0;
+
+						do {
+							long tickStart = System.nanoTime();
+							m_game.update(getTickDelta(tick));
+							tickEnd = System.nanoTime();
+
+							m_metrics.recordTick(tickEnd - tickStart);
+							tick++;
+						} while (m_isRunning && ++batch < MAX_FALL_BEHIND_TICKS && getTickDeadline(start, tick) - tickEnd <= 0);
+					} finally {
+						m_gameLock.unlock();
+					}
 
-				if(updated)
-					m_game.render(m_renderer);
-				else
-					Thread.sleep(1);
+					synchronized (m_tickSignal) {
+						m_publishedTick = tick;
+						m_publishedTickTime = tickEnd;
+						m_tickSignal.notifyAll();
+					}
+				}
 			} catch (Throwable e) {
 				m_logger.error("Game loop execution error, terminating game loop.", e);
 				stop();
 			}
 		}
 	}
+
+	private final class RenderLoop implements Runnable {
+		@Override
+		public void run() {
+			try {
+				long renderedTick = 0;
+
+				while (m_isRunning) {
+					long tickTime;
+
+					synchronized (m_tickSignal) {
+						while (m_isRunning && m_framePacing == FramePacing.Synchronized && m_publishedTick == renderedTick)
+							m_tickSignal.wait();
+
+						renderedTick = m_publishedTick;
+						tickTime = m_publishedTickTime;
+					}
+
+					if (!m_isRunning)
+						break;
+
+					long frameStart = System.nanoTime();
+
+					m_gameLock.lock();
+					try {
+						m_game.render(m_renderer);
+					} finally {
+						m_gameLock.unlock();
+					}
+
+					long frameEnd = System.nanoTime();
+					m_metrics.recordFrame(frameEnd - frameStart, renderedTick == 0 ? 0 : frameStart - tickTime);
+				}
+			} catch (Throwable e) {
+				m_logger.error("Render loop execution error, terminating game loop.", e);
+				stop();
+			}
+		}
+	}
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.game;
+
+import io.github.jevaengine.math.Vector2D;
+import io.github.jevaengine.ui.WindowManager;
+
+/*
+ * Base for games run by a headless GameDriver, such as authoritative server simulations. There is no input source,
+ * cursor or rendering; the window manager is empty and is never updated.
+ */
+public abstract class HeadlessGame implements IGame {
+	private final WindowManager m_windowManager = new WindowManager(new Vector2D());
+
+	@Override
+	public final void render(IRenderer r) {
+	}
+
+	@Override
+	public final void update(int deltaTime) {
+		doLogic(deltaTime);
+	}
+
+	@Override
+	public final WindowManager getWindowManager() {
+		return m_windowManager;
+	}
+
+	protected abstract void doLogic(int deltaTime);
+}
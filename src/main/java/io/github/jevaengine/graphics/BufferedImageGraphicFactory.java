@@ -18,6 +18,7 @@
  */
 package io.github.jevaengine.graphics;
 
+import io.github.jevaengine.ByteBufferInputStream;
 import io.github.jevaengine.IAssetStreamFactory;
 import io.github.jevaengine.IAssetStreamFactory.AssetStreamConstructionException;
 import io.github.jevaengine.game.IRenderer;
@@ -29,7 +30,6 @@ import javax.imageio.ImageIO;
 import javax.inject.Inject;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.awt.image.FilteredImageSource;
 import java.awt.image.RGBImageFilter;
 import java.io.IOException;
 import java.io.InputStream;
@@ -47,7 +47,12 @@ public final class BufferedImageGraphicFactory implements IGraphicFactory {
 
 	@Nullable
 	private static BufferedImage createCompatibleImage(GraphicsConfiguration graphicsConfiguration, InputStream is) throws IOException {
-		Image srcImage = ImageIO.read(is);
+		Image srcImage;
+
+		if (is instanceof ByteBufferInputStream)
+			srcImage = ImageIO.read(new ByteBufferImageInputStream(((ByteBufferInputStream) is).getBuffer()));
+		else
+			srcImage = ImageIO.read(is);
 
 		if (srcImage == null)
 			return null;
@@ -62,8 +67,8 @@ public final class BufferedImageGraphicFactory implements IGraphicFactory {
 	@Override
 	@ThreadSafe
 	public IImmutableGraphic create(URI name) throws GraphicConstructionException {
-		try {
-			BufferedImage img = createCompatibleImage(m_renderer.getGraphicsConfiguration(), m_assetFactory.create(name));
+		try (InputStream source = m_assetFactory.create(name)) {
+			BufferedImage img = createCompatibleImage(m_renderer.getGraphicsConfiguration(), source);
 
 			if (img == null)
 				throw new GraphicConstructionException(name, new UnsupportedGraphicFormatException());
@@ -102,12 +107,20 @@ public final class BufferedImageGraphicFactory implements IGraphicFactory {
 			if (m_sourceImage == null)
 				return new BufferedGraphic(null);
 			else {
-				Image srcImage = Toolkit.getDefaultToolkit().createImage(new FilteredImageSource(m_sourceImage.getSource(), filter));
-				BufferedImage bufferedImage = new BufferedImage(srcImage.getWidth(null), srcImage.getHeight(null), BufferedImage.TYPE_INT_ARGB);
+				int width = m_sourceImage.getWidth();
+				int height = m_sourceImage.getHeight();
+
+				//Filter the raw ARGB pixels directly, rather than through the image producer/consumer pipeline.
+				//The destination raster is written with setDataElements so that the image remains eligible for acceleration.
+				int[] pixels = m_sourceImage.getRGB(0, 0, width, height, null, 0, width);
+
+				for (int y = 0, i = 0; y < height; y++) {
+					for (int x = 0; x < width; x++, i++)
+						pixels[i] = filter.filterRGB(x, y, pixels[i]);
+				}
 
-				Graphics2D g = bufferedImage.createGraphics();
-				g.drawImage(srcImage, 0, 0, null);
-				g.dispose();
+				BufferedImage bufferedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+				bufferedImage.getRaster().setDataElements(0, 0, width, height, pixels);
 
 				return new BufferedGraphic(bufferedImage);
 			}
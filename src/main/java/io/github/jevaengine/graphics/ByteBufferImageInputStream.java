@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.graphics;
+
+import javax.imageio.stream.ImageInputStreamImpl;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/*
+ * Lets image readers seek about a buffer directly, rather than through the stream cache ImageIO places in front of
+ * plain input streams.
+ */
+final class ByteBufferImageInputStream extends ImageInputStreamImpl {
+	private final ByteBuffer m_buffer;
+
+	public ByteBufferImageInputStream(ByteBuffer buffer) {
+		m_buffer = buffer.duplicate();
+	}
+
+	@Override
+	public int read() throws IOException {
+		checkClosed();
+		bitOffset = 0;
+
+		if (streamPos >= m_buffer.limit())
+			return -1;
+
+		return m_buffer.get((int) streamPos++) & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		checkClosed();
+		bitOffset = 0;
+
+		if (len == 0)
+			return 0;
+
+		if (streamPos >= m_buffer.limit())
+			return -1;
+
+		len = (int) Math.min(len, m_buffer.limit() - streamPos);
+
+		m_buffer.position((int) streamPos);
+		m_buffer.get(b, off, len);
+		streamPos += len;
+
+		return len;
+	}
+
+	@Override
+	public long length() {
+		return m_buffer.limit();
+	}
+}
@@ -18,18 +18,39 @@
  */
 package io.github.jevaengine.graphics;
 
+import io.github.jevaengine.math.Rect2D;
+import io.github.jevaengine.util.AssetCache;
+import io.github.jevaengine.util.AssetCache.AssetCacheStatistics;
+import io.github.jevaengine.util.AssetCache.ILoader;
+import io.github.jevaengine.util.AssetCache.IWeigher;
 import io.github.jevaengine.util.ThreadSafe;
 
-import java.lang.ref.WeakReference;
 import java.net.URI;
-import java.util.HashMap;
 
 public final class CachedGraphicFactory implements IGraphicFactory {
-	private final HashMap<URI, WeakReference<IImmutableGraphic>> m_imageCache = new HashMap<>();
+	private static final long DEFAULT_CACHE_BUDGET = 256 * 1024 * 1024;
+
+	private final AssetCache<URI, IImmutableGraphic> m_imageCache;
 	private final IGraphicFactory m_graphicFactory;
 
-	public CachedGraphicFactory(IGraphicFactory graphicFactory) {
+	private final ILoader<URI, IImmutableGraphic, GraphicConstructionException> m_loader = new ILoader<URI, IImmutableGraphic, GraphicConstructionException>() {
+		@Override
+		public IImmutableGraphic load(URI name) throws GraphicConstructionException {
+			return m_graphicFactory.create(name);
+		}
+	};
+
+	public CachedGraphicFactory(IGraphicFactory graphicFactory, long cacheBudget) {
 		m_graphicFactory = graphicFactory;
+		m_imageCache = new AssetCache<>("graphics", new GraphicWeigher(), cacheBudget);
+	}
+
+	public CachedGraphicFactory(IGraphicFactory graphicFactory) {
+		this(graphicFactory, DEFAULT_CACHE_BUDGET);
+	}
+
+	public AssetCacheStatistics getCacheStatistics() {
+		return m_imageCache.getStatistics();
 	}
 
 	@Override
@@ -41,15 +62,16 @@ public final class CachedGraphicFactory implements IGraphicFactory {
 	@Override
 	@ThreadSafe
 	public IImmutableGraphic create(URI name) throws GraphicConstructionException {
-		synchronized (m_imageCache) {
-			IImmutableGraphic img = (m_imageCache.containsKey(name) ? m_imageCache.get(name).get() : null);
+		return m_imageCache.get(name, m_loader);
+	}
 
-			if (img == null) {
-				img = m_graphicFactory.create(name);
-				m_imageCache.put(name, new WeakReference<IImmutableGraphic>(img));
-			}
+	//Weighs graphics by their approximate size, in bytes, when decoded to 32 bit pixels.
+	public static final class GraphicWeigher implements IWeigher<IImmutableGraphic> {
+		@Override
+		public long weigh(IImmutableGraphic value) {
+			Rect2D bounds = value.getBounds();
 
-			return img;
+			return (long) bounds.width * bounds.height * 4;
 		}
 	}
 }
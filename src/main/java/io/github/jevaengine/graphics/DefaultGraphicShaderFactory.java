@@ -33,6 +33,9 @@ import java.util.List;
 
 public final class DefaultGraphicShaderFactory implements IGraphicShaderFactory {
 	public final Map<String, IShaderConstructor> m_shaderTypes = new HashMap<>();
+
+	//Constructed shaders hold no per-use state, so they are retained for reuse.
+	private final Map<URI, IGraphicShader> m_shaderCache = new HashMap<>();
 	private final IConfigurationFactory m_configurationFactory;
 	private final Provider<IGraphicFactory> m_graphicFactory;
 
@@ -90,6 +93,25 @@ public final class DefaultGraphicShaderFactory implements IGraphicShaderFactory
 
 	@Override
 	public IGraphicShader create(URI name) throws GraphicShaderConstructionException {
+		URI key = name.normalize();
+
+		synchronized (m_shaderCache) {
+			IGraphicShader cached = m_shaderCache.get(key);
+
+			if (cached != null)
+				return cached;
+		}
+
+		IGraphicShader shader = construct(name);
+
+		synchronized (m_shaderCache) {
+			m_shaderCache.put(key, shader);
+		}
+
+		return shader;
+	}
+
+	private IGraphicShader construct(URI name) throws GraphicShaderConstructionException {
 		try {
 			DefaultGraphicShaderDeclaration decl = m_configurationFactory.create(name).getValue(DefaultGraphicShaderDeclaration.class);
 
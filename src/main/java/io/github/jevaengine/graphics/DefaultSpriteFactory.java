@@ -26,6 +26,10 @@ import io.github.jevaengine.graphics.IGraphicFactory.GraphicConstructionExceptio
 import io.github.jevaengine.graphics.Sprite.NoSuchSpriteAnimation;
 import io.github.jevaengine.math.Rect2D;
 import io.github.jevaengine.math.Vector2D;
+import io.github.jevaengine.util.AssetCache;
+import io.github.jevaengine.util.AssetCache.AssetCacheStatistics;
+import io.github.jevaengine.util.AssetCache.ConstantWeigher;
+import io.github.jevaengine.util.AssetCache.ILoader;
 import io.github.jevaengine.util.ThreadSafe;
 
 import javax.inject.Inject;
@@ -35,18 +39,43 @@ import java.net.URISyntaxException;
 
 @Singleton
 public class DefaultSpriteFactory implements ISpriteFactory {
+	//Sprite prototypes share their graphic and frame data with every copy, so they are budgeted by count.
+	private static final long DEFAULT_CACHE_BUDGET = 2048;
+
 	private final IConfigurationFactory m_configurationFactory;
 	private final IGraphicFactory m_graphicFactory;
 
-	@Inject
-	public DefaultSpriteFactory(IConfigurationFactory configurationFactory, IGraphicFactory graphicFactory) {
+	private final AssetCache<URI, Sprite> m_spriteCache;
+
+	private final ILoader<URI, Sprite, SpriteConstructionException> m_loader = new ILoader<URI, Sprite, SpriteConstructionException>() {
+		@Override
+		public Sprite load(URI name) throws SpriteConstructionException {
+			return construct(name);
+		}
+	};
+
+	public DefaultSpriteFactory(IConfigurationFactory configurationFactory, IGraphicFactory graphicFactory, long cacheBudget) {
 		m_configurationFactory = configurationFactory;
 		m_graphicFactory = graphicFactory;
+		m_spriteCache = new AssetCache<>("sprites", new ConstantWeigher<Sprite>(), cacheBudget);
+	}
+
+	@Inject
+	public DefaultSpriteFactory(IConfigurationFactory configurationFactory, IGraphicFactory graphicFactory) {
+		this(configurationFactory, graphicFactory, DEFAULT_CACHE_BUDGET);
+	}
+
+	public AssetCacheStatistics getCacheStatistics() {
+		return m_spriteCache.getStatistics();
 	}
 
 	@Override
 	@ThreadSafe
 	public Sprite create(URI name) throws SpriteConstructionException {
+		return new Sprite(m_spriteCache.get(name.normalize(), m_loader));
+	}
+
+	private Sprite construct(URI name) throws SpriteConstructionException {
 		try {
 			SpriteDeclaration spriteDecl = m_configurationFactory.create(name).getValue(SpriteDeclaration.class);
 
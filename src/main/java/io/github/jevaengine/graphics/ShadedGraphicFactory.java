@@ -21,21 +21,39 @@ package io.github.jevaengine.graphics;
 import io.github.jevaengine.config.*;
 import io.github.jevaengine.config.IConfigurationFactory.ConfigurationConstructionException;
 import io.github.jevaengine.graphics.IGraphicShaderFactory.GraphicShaderConstructionException;
+import io.github.jevaengine.graphics.CachedGraphicFactory.GraphicWeigher;
+import io.github.jevaengine.util.AssetCache;
+import io.github.jevaengine.util.AssetCache.AssetCacheStatistics;
+import io.github.jevaengine.util.ThreadSafe;
 
 import javax.inject.Inject;
 import java.net.URI;
 import java.net.URISyntaxException;
 
 public final class ShadedGraphicFactory implements IGraphicFactory {
+	private static final long DEFAULT_CACHE_BUDGET = 64 * 1024 * 1024;
+
 	private final IConfigurationFactory m_configurationFactory;
 	private final IGraphicShaderFactory m_shaderFactory;
 	private final IGraphicFactory m_baseGraphicFactory;
 
-	@Inject
-	public ShadedGraphicFactory(IGraphicShaderFactory shaderFactory, IGraphicFactory baseGraphicFactory, IConfigurationFactory configurationFactory) {
+	//Shaded results keyed by what they were produced from.
+	private final AssetCache<ShadedGraphicKey, IImmutableGraphic> m_shadedCache;
+
+	public ShadedGraphicFactory(IGraphicShaderFactory shaderFactory, IGraphicFactory baseGraphicFactory, IConfigurationFactory configurationFactory, long cacheBudget) {
 		m_shaderFactory = shaderFactory;
 		m_baseGraphicFactory = baseGraphicFactory;
 		m_configurationFactory = configurationFactory;
+		m_shadedCache = new AssetCache<>("shadedGraphics", new GraphicWeigher(), cacheBudget);
+	}
+
+	@Inject
+	public ShadedGraphicFactory(IGraphicShaderFactory shaderFactory, IGraphicFactory baseGraphicFactory, IConfigurationFactory configurationFactory) {
+		this(shaderFactory, baseGraphicFactory, configurationFactory, DEFAULT_CACHE_BUDGET);
+	}
+
+	public AssetCacheStatistics getCacheStatistics() {
+		return m_shadedCache.getStatistics();
 	}
 
 	@Override
@@ -44,17 +62,25 @@ public final class ShadedGraphicFactory implements IGraphicFactory {
 	}
 
 	@Override
+	@ThreadSafe
 	public IImmutableGraphic create(URI name) throws GraphicConstructionException {
 		try {
 			ShadedGraphicDeclaration decl = m_configurationFactory.create(name).getValue(ShadedGraphicDeclaration.class);
 
 			URI sourceName = name.resolve(new URI(decl.texture));
-			IImmutableGraphic source = m_baseGraphicFactory.create(sourceName);
-
 			URI shaderName = name.resolve(new URI(decl.shader));
-			source = m_shaderFactory.create(shaderName).shade(source);
 
-			return source;
+			ShadedGraphicKey key = new ShadedGraphicKey(sourceName, shaderName);
+
+			IImmutableGraphic cached = m_shadedCache.get(key);
+
+			if (cached != null)
+				return cached;
+
+			IImmutableGraphic shaded = m_shaderFactory.create(shaderName).shade(m_baseGraphicFactory.create(sourceName));
+			m_shadedCache.put(key, shaded);
+
+			return shaded;
 		} catch (ConfigurationConstructionException |
 				ValueSerializationException |
 				URISyntaxException |
@@ -64,6 +90,36 @@ public final class ShadedGraphicFactory implements IGraphicFactory {
 		}
 	}
 
+	private static final class ShadedGraphicKey {
+		private final URI m_source;
+		private final URI m_shader;
+
+		public ShadedGraphicKey(URI source, URI shader) {
+			m_source = source.normalize();
+			m_shader = shader.normalize();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (o == this)
+				return true;
+			else if (!(o instanceof ShadedGraphicKey))
+				return false;
+
+			ShadedGraphicKey key = (ShadedGraphicKey) o;
+
+			return key.m_source.equals(m_source) && key.m_shader.equals(m_shader);
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = 7;
+			hash = 31 * hash + m_source.hashCode();
+			hash = 31 * hash + m_shader.hashCode();
+			return hash;
+		}
+	}
+
 	public static final class ShadedGraphicDeclaration implements ISerializable {
 		public String shader;
 		public String texture;
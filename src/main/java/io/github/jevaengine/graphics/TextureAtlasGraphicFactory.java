@@ -0,0 +1,266 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.graphics;
+
+import io.github.jevaengine.math.Rect2D;
+import io.github.jevaengine.util.ThreadSafe;
+
+import java.awt.*;
+import java.awt.image.RGBImageFilter;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Packs every texture it constructs into a small number of large atlas pages. The returned graphics
+ * are regions of a page which offset source rects into the page, so sprite frames and font glyphs
+ * drawn through them are transparently remapped and share a single surface.
+ *
+ * Textures that do not fit within the maximum atlas size are passed through unpacked.
+ */
+public final class TextureAtlasGraphicFactory implements IGraphicFactory {
+	private static final int DEFAULT_MAX_ATLAS_SIZE = 2048;
+	private static final int PADDING = 1;
+
+	private final IGraphicFactory m_graphicFactory;
+	private final int m_maxAtlasSize;
+
+	private final Map<URI, IImmutableGraphic> m_packed = new HashMap<>();
+	private final List<AtlasPage> m_pages = new ArrayList<>();
+
+	private long m_packedArea = 0;
+	private int m_packedCount = 0;
+	private int m_rejectedCount = 0;
+
+	public TextureAtlasGraphicFactory(IGraphicFactory graphicFactory, int maxAtlasSize) {
+		m_graphicFactory = graphicFactory;
+		m_maxAtlasSize = maxAtlasSize;
+	}
+
+	public TextureAtlasGraphicFactory(IGraphicFactory graphicFactory) {
+		this(graphicFactory, DEFAULT_MAX_ATLAS_SIZE);
+	}
+
+	@Override
+	@ThreadSafe
+	public IGraphic create(int width, int height) {
+		return m_graphicFactory.create(width, height);
+	}
+
+	@Override
+	@ThreadSafe
+	public IImmutableGraphic create(URI name) throws GraphicConstructionException {
+		synchronized (m_packed) {
+			IImmutableGraphic packed = m_packed.get(name);
+
+			if (packed != null)
+				return packed;
+		}
+
+		IImmutableGraphic source = m_graphicFactory.create(name);
+
+		synchronized (m_packed) {
+			IImmutableGraphic packed = m_packed.get(name);
+
+			if (packed == null) {
+				packed = pack(source);
+				m_packed.put(name, packed);
+			}
+
+			return packed;
+		}
+	}
+
+	private IImmutableGraphic pack(IImmutableGraphic source) {
+		Rect2D bounds = source.getBounds();
+
+		if (bounds.width + PADDING > m_maxAtlasSize || bounds.height + PADDING > m_maxAtlasSize) {
+			m_rejectedCount++;
+			return source;
+		}
+
+		Rect2D region = null;
+
+		for (AtlasPage p : m_pages) {
+			if ((region = p.allocate(bounds.width, bounds.height)) != null) {
+				m_packedArea += bounds.width * bounds.height;
+				m_packedCount++;
+				return p.blit(source, region);
+			}
+		}
+
+		AtlasPage page = new AtlasPage(m_graphicFactory.create(m_maxAtlasSize, m_maxAtlasSize));
+		m_pages.add(page);
+
+		region = page.allocate(bounds.width, bounds.height);
+		m_packedArea += bounds.width * bounds.height;
+		m_packedCount++;
+
+		return page.blit(source, region);
+	}
+
+	public AtlasPackReport getPackReport() {
+		synchronized (m_packed) {
+			return new AtlasPackReport(m_pages.size(), m_maxAtlasSize, m_packedCount, m_rejectedCount, m_packedArea);
+		}
+	}
+
+	public static final class AtlasPackReport {
+		public final int pages;
+		public final int pageSize;
+		public final int packedTextures;
+		public final int rejectedTextures;
+		public final long packedArea;
+
+		private AtlasPackReport(int _pages, int _pageSize, int _packedTextures, int _rejectedTextures, long _packedArea) {
+			pages = _pages;
+			pageSize = _pageSize;
+			packedTextures = _packedTextures;
+			rejectedTextures = _rejectedTextures;
+			packedArea = _packedArea;
+		}
+
+		public float getEfficiency() {
+			long totalArea = (long) pages * pageSize * pageSize;
+
+			return totalArea == 0 ? 0 : packedArea / (float) totalArea;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%d textures packed into %d %dx%d pages (%.1f%% efficiency), %d too large to pack.",
+					packedTextures, pages, pageSize, pageSize, getEfficiency() * 100, rejectedTextures);
+		}
+	}
+
+	//Shelf packer; textures are placed left to right on horizontal shelves as tall as their tallest member.
+	private final class AtlasPage {
+		private final IGraphic m_page;
+
+		private int m_shelfY = 0;
+		private int m_shelfHeight = 0;
+		private int m_cursorX = 0;
+
+		public AtlasPage(IGraphic page) {
+			m_page = page;
+		}
+
+		public Rect2D allocate(int width, int height) {
+			int paddedWidth = width + PADDING;
+			int paddedHeight = height + PADDING;
+
+			if (m_cursorX + paddedWidth > m_maxAtlasSize) {
+				m_shelfY += m_shelfHeight;
+				m_shelfHeight = 0;
+				m_cursorX = 0;
+			}
+
+			if (m_shelfY + paddedHeight > m_maxAtlasSize)
+				return null;
+
+			Rect2D region = new Rect2D(m_cursorX, m_shelfY, width, height);
+
+			m_cursorX += paddedWidth;
+			m_shelfHeight = Math.max(m_shelfHeight, paddedHeight);
+
+			return region;
+		}
+
+		public IImmutableGraphic blit(IImmutableGraphic source, Rect2D region) {
+			Graphics2D g = m_page.createGraphics();
+			g.setComposite(AlphaComposite.Src);
+			source.render(g, region.x, region.y, 1.0F);
+			g.dispose();
+
+			return new AtlasRegionGraphic(m_page, region);
+		}
+	}
+
+	private final class AtlasRegionGraphic implements IImmutableGraphic {
+		private final IImmutableGraphic m_page;
+		private final Rect2D m_region;
+
+		public AtlasRegionGraphic(IImmutableGraphic page, Rect2D region) {
+			m_page = page;
+			m_region = region;
+		}
+
+		//The source rectangle is clamped to the region, so neighbouring regions of the page never bleed in; the
+		//destination is clamped by the same proportion.
+		@Override
+		public void render(Graphics2D g, int dx, int dy, int dw, int dh, int sx, int sy, int sw, int sh) {
+			int left = Math.max(sx, 0);
+			int top = Math.max(sy, 0);
+			int right = Math.min(sx + sw, m_region.width);
+			int bottom = Math.min(sy + sh, m_region.height);
+
+			if (sw <= 0 || sh <= 0 || right <= left || bottom <= top)
+				return;
+
+			float scaleX = dw / (float) sw;
+			float scaleY = dh / (float) sh;
+
+			int destLeft = dx + Math.round((left - sx) * scaleX);
+			int destTop = dy + Math.round((top - sy) * scaleY);
+			int destRight = dx + Math.round((right - sx) * scaleX);
+			int destBottom = dy + Math.round((bottom - sy) * scaleY);
+
+			m_page.render(g, destLeft, destTop, destRight - destLeft, destBottom - destTop,
+					m_region.x + left, m_region.y + top, right - left, bottom - top);
+		}
+
+		@Override
+		public void render(Graphics2D g, int dx, int dy, float scale) {
+			render(g, dx, dy, (int) (m_region.width * scale), (int) (m_region.height * scale),
+					0, 0, m_region.width, m_region.height);
+		}
+
+		@Override
+		public IImmutableGraphic filterImage(RGBImageFilter filter) {
+			IGraphic extracted = m_graphicFactory.create(m_region.width, m_region.height);
+
+			Graphics2D g = extracted.createGraphics();
+			g.setComposite(AlphaComposite.Src);
+			render(g, 0, 0, 1.0F);
+			g.dispose();
+
+			return extracted.filterImage(filter);
+		}
+
+		@Override
+		public boolean pickTest(int x, int y) {
+			if (x < 0 || y < 0 || x >= m_region.width || y >= m_region.height)
+				return false;
+
+			return m_page.pickTest(m_region.x + x, m_region.y + y);
+		}
+
+		@Override
+		public Rect2D getBounds() {
+			return new Rect2D(m_region.width, m_region.height);
+		}
+
+		@Override
+		public IImmutableGraphic duplicate() {
+			return new AtlasRegionGraphic(m_page, m_region);
+		}
+	}
+}
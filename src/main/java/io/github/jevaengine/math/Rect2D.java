@@ -115,13 +115,13 @@ public final class Rect2D implements ISerializable {
 	public void deserialize(IImmutableVariable source) throws ValueSerializationException {
 		try {
 			if (source.childExists("x"))
-				this.x = source.getChild("x").getValue(Integer.class);
+				this.x = source.getChild("x").getInt();
 
 			if (source.childExists("y"))
-				this.y = source.getChild("y").getValue(Integer.class);
+				this.y = source.getChild("y").getInt();
 
-			this.width = source.getChild("width").getValue(Integer.class);
-			this.height = source.getChild("height").getValue(Integer.class);
+			this.width = source.getChild("width").getInt();
+			this.height = source.getChild("height").getInt();
 		} catch (NoSuchChildVariableException e) {
 			throw new ValueSerializationException(e);
 		}
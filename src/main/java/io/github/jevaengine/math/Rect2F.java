@@ -118,13 +118,13 @@ public final class Rect2F implements ISerializable {
 	public void deserialize(IImmutableVariable source) throws ValueSerializationException {
 		try {
 			if (source.childExists("x"))
-				this.x = source.getChild("x").getValue(Double.class).floatValue();
+				this.x = source.getChild("x").getFloat();
 
 			if (source.childExists("y"))
-				this.y = source.getChild("y").getValue(Double.class).floatValue();
+				this.y = source.getChild("y").getFloat();
 
-			this.width = source.getChild("width").getValue(Double.class).floatValue();
-			this.height = source.getChild("height").getValue(Double.class).floatValue();
+			this.width = source.getChild("width").getFloat();
+			this.height = source.getChild("height").getFloat();
 		} catch (NoSuchChildVariableException e) {
 			throw new ValueSerializationException(e);
 		}
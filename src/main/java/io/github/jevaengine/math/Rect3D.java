@@ -158,17 +158,17 @@ public class Rect3D implements ISerializable {
 	public void deserialize(IImmutableVariable source) throws ValueSerializationException {
 		try {
 			if (source.childExists("x"))
-				this.x = source.getChild("x").getValue(Integer.class);
+				this.x = source.getChild("x").getInt();
 
 			if (source.childExists("y"))
-				this.y = source.getChild("y").getValue(Integer.class);
+				this.y = source.getChild("y").getInt();
 
 			if (source.childExists("z"))
-				this.z = source.getChild("z").getValue(Integer.class);
+				this.z = source.getChild("z").getInt();
 
-			this.width = source.getChild("width").getValue(Integer.class);
-			this.height = source.getChild("height").getValue(Integer.class);
-			this.depth = source.getChild("depth").getValue(Integer.class);
+			this.width = source.getChild("width").getInt();
+			this.height = source.getChild("height").getInt();
+			this.depth = source.getChild("depth").getInt();
 		} catch (NoSuchChildVariableException e) {
 			throw new ValueSerializationException(e);
 		}
@@ -168,17 +168,17 @@ public class Rect3F implements ISerializable {
 	public void deserialize(IImmutableVariable source) throws ValueSerializationException {
 		try {
 			if (source.childExists("x"))
-				this.x = source.getChild("x").getValue(Double.class).floatValue();
+				this.x = source.getChild("x").getFloat();
 
 			if (source.childExists("y"))
-				this.y = source.getChild("y").getValue(Double.class).floatValue();
+				this.y = source.getChild("y").getFloat();
 
 			if (source.childExists("z"))
-				this.z = source.getChild("z").getValue(Double.class).floatValue();
+				this.z = source.getChild("z").getFloat();
 
-			this.width = source.getChild("width").getValue(Double.class).floatValue();
-			this.height = source.getChild("height").getValue(Double.class).floatValue();
-			this.depth = source.getChild("depth").getValue(Double.class).floatValue();
+			this.width = source.getChild("width").getFloat();
+			this.height = source.getChild("height").getFloat();
+			this.depth = source.getChild("depth").getFloat();
 		} catch (NoSuchChildVariableException e) {
 			throw new ValueSerializationException(e);
 		}
@@ -94,8 +94,8 @@ public final class Vector2D implements ISerializable {
 	@Override
 	public void deserialize(IImmutableVariable source) throws ValueSerializationException {
 		try {
-			x = source.getChild("x").getValue(Integer.class);
-			y = source.getChild("y").getValue(Integer.class);
+			x = source.getChild("x").getInt();
+			y = source.getChild("y").getInt();
 		} catch (NoSuchChildVariableException e) {
 			throw new ValueSerializationException(e);
 		}
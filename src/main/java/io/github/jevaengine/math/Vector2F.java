@@ -157,8 +157,8 @@ public final class Vector2F implements ISerializable, Serializable {
 	@Override
 	public void deserialize(IImmutableVariable source) throws ValueSerializationException {
 		try {
-			x = source.getChild("x").getValue(Double.class).floatValue();
-			y = source.getChild("y").getValue(Double.class).floatValue();
+			x = source.getChild("x").getFloat();
+			y = source.getChild("y").getFloat();
 		} catch (NoSuchChildVariableException e) {
 			throw new ValueSerializationException(e);
 		}
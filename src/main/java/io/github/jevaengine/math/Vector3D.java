@@ -78,9 +78,9 @@ public final class Vector3D implements ISerializable {
 	@Override
 	public void deserialize(IImmutableVariable source) throws ValueSerializationException {
 		try {
-			x = source.getChild("x").getValue(Integer.class);
-			y = source.getChild("y").getValue(Integer.class);
-			z = source.getChild("z").getValue(Integer.class);
+			x = source.getChild("x").getInt();
+			y = source.getChild("y").getInt();
+			z = source.getChild("z").getInt();
 		} catch (NoSuchChildVariableException e) {
 			throw new ValueSerializationException(e);
 		}
@@ -145,9 +145,9 @@ public final class Vector3F implements ISerializable, Serializable {
 	@Override
 	public void deserialize(IImmutableVariable source) throws ValueSerializationException {
 		try {
-			x = source.getChild("x").getValue(Double.class).floatValue();
-			y = source.getChild("y").getValue(Double.class).floatValue();
-			z = source.getChild("z").getValue(Double.class).floatValue();
+			x = source.getChild("x").getFloat();
+			y = source.getChild("y").getFloat();
+			z = source.getChild("z").getFloat();
 		} catch (NoSuchChildVariableException e) {
 			throw new ValueSerializationException(e);
 		}
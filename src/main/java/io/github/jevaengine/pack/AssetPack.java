@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.pack;
+
+import io.github.jevaengine.util.Nullable;
+import io.github.jevaengine.util.ThreadSafe;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * A read-only, memory-mapped asset pack as written by AssetPacker. The pack is laid out as a header, an index of
+ * fixed size entries sorted by the UTF-8 bytes of their names, the names themselves and finally the asset data.
+ * Lookups binary search the index in place, and assets are returned as slices of the mapping.
+ *
+ * Header: magic, version, entry count, names offset (all int).
+ * Index entry: name offset, name length, data offset, data length (all int).
+ */
+@ThreadSafe
+public final class AssetPack {
+	public static final String PACK_EXTENSION = ".jpk";
+
+	static final int MAGIC = 0x4A455650;
+	static final int VERSION = 1;
+	static final int HEADER_SIZE = 16;
+	static final int ENTRY_SIZE = 16;
+
+	private final ByteBuffer m_pack;
+	private final int m_entryCount;
+
+	public AssetPack(ByteBuffer pack) throws IOException {
+		m_pack = pack.duplicate();
+
+		if (m_pack.limit() < HEADER_SIZE || m_pack.getInt(0) != MAGIC)
+			throw new IOException("Not an asset pack.");
+
+		if (m_pack.getInt(4) != VERSION)
+			throw new IOException("Unsupported asset pack version " + m_pack.getInt(4));
+
+		m_entryCount = m_pack.getInt(8);
+
+		if (m_entryCount < 0 || HEADER_SIZE + (long) m_entryCount * ENTRY_SIZE > m_pack.limit())
+			throw new IOException("Asset pack index is corrupt.");
+	}
+
+	public static AssetPack open(File pack) throws IOException {
+		try (FileChannel channel = FileChannel.open(pack.toPath(), StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE)
+				throw new IOException("Asset pack " + pack.getPath() + " is too large to map.");
+
+			return new AssetPack(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	public int getEntryCount() {
+		return m_entryCount;
+	}
+
+	public String getEntryName(int index) {
+		int entry = HEADER_SIZE + index * ENTRY_SIZE;
+		byte[] name = new byte[m_pack.getInt(entry + 4)];
+
+		ByteBuffer names = m_pack.duplicate();
+		names.position(m_pack.getInt(entry));
+		names.get(name);
+
+		return new String(name, StandardCharsets.UTF_8);
+	}
+
+	private ByteBuffer getEntryData(int index) {
+		int entry = HEADER_SIZE + index * ENTRY_SIZE;
+		int offset = m_pack.getInt(entry + 8);
+
+		ByteBuffer data = m_pack.duplicate();
+		data.position(offset);
+		data.limit(offset + m_pack.getInt(entry + 12));
+
+		return data.slice().asReadOnlyBuffer();
+	}
+
+	private int compareName(int index, byte[] name) {
+		int entry = HEADER_SIZE + index * ENTRY_SIZE;
+		int offset = m_pack.getInt(entry);
+		int length = m_pack.getInt(entry + 4);
+
+		for (int i = 0; i < length && i < name.length; i++) {
+			int c = (m_pack.get(offset + i) & 0xFF) - (name[i] & 0xFF);
+
+			if (c != 0)
+				return c;
+		}
+
+		return length - name.length;
+	}
+
+	@Nullable
+	public ByteBuffer find(String name) {
+		byte[] key = name.getBytes(StandardCharsets.UTF_8);
+
+		int low = 0;
+		int high = m_entryCount - 1;
+
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int c = compareName(mid, key);
+
+			if (c < 0)
+				low = mid + 1;
+			else if (c > 0)
+				high = mid - 1;
+			else
+				return getEntryData(mid);
+		}
+
+		return null;
+	}
+}
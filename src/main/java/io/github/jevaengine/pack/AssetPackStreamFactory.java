@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.pack;
+
+import io.github.jevaengine.ByteBufferInputStream;
+import io.github.jevaengine.IAssetStreamFactory;
+import io.github.jevaengine.util.Nullable;
+import io.github.jevaengine.util.ThreadSafe;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+
+/*
+ * Serves assets out of a memory-mapped AssetPack. An asset is looked up by the path of its URI, relative to the root
+ * the pack was built from. Assets missing from the pack are requested from the fallback factory, if there is one.
+ *
+ * Returned streams are ByteBufferInputStreams over the mapping, so no data is copied until it is read.
+ */
+public final class AssetPackStreamFactory implements IAssetStreamFactory {
+	private final AssetPack m_pack;
+
+	@Nullable
+	private final IAssetStreamFactory m_fallbackFactory;
+
+	public AssetPackStreamFactory(AssetPack pack, @Nullable IAssetStreamFactory fallbackFactory) {
+		m_pack = pack;
+		m_fallbackFactory = fallbackFactory;
+	}
+
+	public AssetPackStreamFactory(File pack, @Nullable IAssetStreamFactory fallbackFactory) throws IOException {
+		this(AssetPack.open(pack), fallbackFactory);
+	}
+
+	public AssetPackStreamFactory(File pack) throws IOException {
+		this(pack, null);
+	}
+
+	@Nullable
+	private static String getEntryName(URI name) {
+		String path = name.normalize().getPath();
+
+		if (path == null)
+			return null;
+
+		return path.startsWith("/") ? path.substring(1) : path;
+	}
+
+	@Override
+	@ThreadSafe
+	public InputStream create(URI name) throws AssetStreamConstructionException {
+		String entryName = getEntryName(name);
+		ByteBuffer data = entryName == null ? null : m_pack.find(entryName);
+
+		if (data != null)
+			return new ByteBufferInputStream(data);
+
+		if (m_fallbackFactory != null)
+			return m_fallbackFactory.create(name);
+
+		throw new AssetStreamConstructionException(name, new FileNotFoundException("Asset is not in pack."));
+	}
+}
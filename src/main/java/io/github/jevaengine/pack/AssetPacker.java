@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.pack;
+
+import io.github.jevaengine.util.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/*
+ * Builds an AssetPack from every file beneath a root directory. Entries are named by their path relative to the root,
+ * using '/' as the separator.
+ */
+public final class AssetPacker {
+	private AssetPacker() {
+	}
+
+	private static void collect(File root, String prefix, @Nullable File exclude, List<PackEntry> entries) throws IOException {
+		File[] children = root.listFiles();
+
+		if (children == null)
+			return;
+
+		for (File f : children) {
+			if (f.isDirectory())
+				collect(f, prefix + f.getName() + "/", exclude, entries);
+			else if (f.isFile() && (exclude == null || !f.getCanonicalFile().equals(exclude)))
+				entries.add(new PackEntry(prefix + f.getName(), f));
+		}
+	}
+
+	public static int pack(File root, OutputStream dest) throws IOException {
+		return pack(root, dest, null);
+	}
+
+	/*
+	 * Packs the assets beneath root, skipping exclude; a pack written beneath its own asset root must not include itself.
+	 */
+	public static int pack(File root, OutputStream dest, @Nullable File exclude) throws IOException {
+		List<PackEntry> entries = new ArrayList<>();
+		collect(root, "", exclude == null ? null : exclude.getCanonicalFile(), entries);
+
+		Collections.sort(entries, new Comparator<PackEntry>() {
+			@Override
+			public int compare(PackEntry a, PackEntry b) {
+				for (int i = 0; i < a.name.length && i < b.name.length; i++) {
+					int c = (a.name[i] & 0xFF) - (b.name[i] & 0xFF);
+
+					if (c != 0)
+						return c;
+				}
+
+				return a.name.length - b.name.length;
+			}
+		});
+
+		long namesOffset = AssetPack.HEADER_SIZE + (long) entries.size() * AssetPack.ENTRY_SIZE;
+		long dataOffset = namesOffset;
+
+		for (PackEntry e : entries)
+			dataOffset += e.name.length;
+
+		long packSize = dataOffset;
+
+		for (PackEntry e : entries)
+			packSize += e.file.length();
+
+		if (packSize > Integer.MAX_VALUE)
+			throw new IOException("Assets are too large to be packed into a single pack.");
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(dest));
+
+		out.writeInt(AssetPack.MAGIC);
+		out.writeInt(AssetPack.VERSION);
+		out.writeInt(entries.size());
+		out.writeInt((int) namesOffset);
+
+		int nameCursor = (int) namesOffset;
+		int dataCursor = (int) dataOffset;
+
+		for (PackEntry e : entries) {
+			int length = (int) e.file.length();
+
+			out.writeInt(nameCursor);
+			out.writeInt(e.name.length);
+			out.writeInt(dataCursor);
+			out.writeInt(length);
+
+			nameCursor += e.name.length;
+			dataCursor += length;
+		}
+
+		for (PackEntry e : entries)
+			out.write(e.name);
+
+		for (PackEntry e : entries) {
+			byte[] data = Files.readAllBytes(e.file.toPath());
+
+			if (data.length != e.file.length())
+				throw new IOException("Asset " + e.file.getPath() + " changed while packing.");
+
+			out.write(data);
+		}
+
+		out.flush();
+
+		return entries.size();
+	}
+
+	public static void main(String[] args) {
+		if (args.length != 2) {
+			System.err.println("Usage: AssetPacker <asset root> <pack>");
+			System.exit(1);
+		}
+
+		File root = new File(args[0]);
+		File dest = new File(args[1]);
+
+		try (OutputStream out = new FileOutputStream(dest)) {
+			int count = pack(root, out, dest);
+			System.out.println("Packed " + count + " assets from " + root.getPath() + " to " + dest.getPath());
+		} catch (IOException e) {
+			System.err.println("Error packing " + root.getPath() + ": " + e.getMessage());
+			dest.delete();
+			System.exit(1);
+		}
+	}
+
+	private static final class PackEntry {
+		private final byte[] name;
+		private final File file;
+
+		public PackEntry(String _name, File _file) {
+			name = _name.getBytes(StandardCharsets.UTF_8);
+			file = _file;
+		}
+	}
+}
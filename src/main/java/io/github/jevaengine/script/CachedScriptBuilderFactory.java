@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.script;
+
+import io.github.jevaengine.util.AssetCache;
+import io.github.jevaengine.util.AssetCache.AssetCacheStatistics;
+import io.github.jevaengine.util.AssetCache.ConstantWeigher;
+import io.github.jevaengine.util.AssetCache.ILoader;
+import io.github.jevaengine.util.ThreadSafe;
+
+import javax.inject.Inject;
+import java.net.URI;
+
+/*
+ * Script builders only hold their source and are never mutated, so a single builder may be shared between
+ * every script constructed from the same resource.
+ */
+public final class CachedScriptBuilderFactory implements IScriptBuilderFactory {
+	private static final long DEFAULT_CACHE_BUDGET = 1024;
+
+	private final IScriptBuilderFactory m_scriptBuilderFactory;
+	private final AssetCache<URI, IScriptBuilder> m_builderCache;
+
+	private final ILoader<URI, IScriptBuilder, ScriptBuilderConstructionException> m_loader = new ILoader<URI, IScriptBuilder, ScriptBuilderConstructionException>() {
+		@Override
+		public IScriptBuilder load(URI name) throws ScriptBuilderConstructionException {
+			return m_scriptBuilderFactory.create(name);
+		}
+	};
+
+	public CachedScriptBuilderFactory(IScriptBuilderFactory scriptBuilderFactory, long cacheBudget) {
+		m_scriptBuilderFactory = scriptBuilderFactory;
+		m_builderCache = new AssetCache<>("scripts", new ConstantWeigher<IScriptBuilder>(), cacheBudget);
+	}
+
+	@Inject
+	public CachedScriptBuilderFactory(IScriptBuilderFactory scriptBuilderFactory) {
+		this(scriptBuilderFactory, DEFAULT_CACHE_BUDGET);
+	}
+
+	public AssetCacheStatistics getCacheStatistics() {
+		return m_builderCache.getStatistics();
+	}
+
+	@Override
+	@ThreadSafe
+	public IScriptBuilder create(URI name) throws ScriptBuilderConstructionException {
+		return m_builderCache.get(name, m_loader);
+	}
+
+	@Override
+	@ThreadSafe
+	public IScriptBuilder create() throws ScriptBuilderConstructionException {
+		return m_scriptBuilderFactory.create();
+	}
+}
@@ -51,6 +51,21 @@ public final class ScriptableImmutableVariable implements IImmutableVariable {
 		return m_var.getValues(cls);
 	}
 
+	@Override
+	public int getInt() throws ValueSerializationException {
+		return m_var.getInt();
+	}
+
+	@Override
+	public float getFloat() throws ValueSerializationException {
+		return m_var.getFloat();
+	}
+
+	@Override
+	public float[] getFloatArray() throws ValueSerializationException {
+		return m_var.getFloatArray();
+	}
+
 	@Override
 	public boolean childExists(String name) {
 		return m_var.childExists(name);
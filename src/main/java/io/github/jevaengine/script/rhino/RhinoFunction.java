@@ -20,9 +20,12 @@ package io.github.jevaengine.script.rhino;
 
 import io.github.jevaengine.script.IFunction;
 import io.github.jevaengine.script.ScriptExecuteException;
+import io.github.jevaengine.util.Profiler;
 import org.mozilla.javascript.*;
 
 public class RhinoFunction implements IFunction {
+	private static final Profiler.Scope CALL_SCOPE = Profiler.getDefault().getScope("script.call");
+
 	private Function m_rhinoFunction;
 
 	public RhinoFunction(Function function) {
@@ -31,6 +34,8 @@ public class RhinoFunction implements IFunction {
 
 	@Override
 	public Object call(final Object... arguments) throws ScriptExecuteException {
+		long call = CALL_SCOPE.begin();
+
 		try {
 			Object oReturn = ContextFactory.getGlobal().call(new ContextAction() {
 				@Override
@@ -45,6 +50,8 @@ public class RhinoFunction implements IFunction {
 				return oReturn;
 		} catch (JavaScriptException | EcmaError e) {
 			throw new RhinoScriptException(e);
+		} finally {
+			CALL_SCOPE.end(call);
 		}
 	}
 }
@@ -26,8 +26,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Array;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -79,16 +77,9 @@ public final class RhinoUtility {
 		@Override
 		public <T> T getValue(Class<T> cls) throws ValueSerializationException {
 			try {
-				if (ISerializable.class.isAssignableFrom(cls)) {
-					Constructor<T> constructor = cls.getDeclaredConstructor();
-					constructor.setAccessible(true);
-
-					T instance = constructor.newInstance();
-
-					((ISerializable) instance).deserialize(this);
-
-					return instance;
-				} else if (m_value == null)
+				if (ISerializable.class.isAssignableFrom(cls))
+					return SerializableInstantiator.deserialize(cls, this);
+				else if (m_value == null)
 					throw new ValueSerializationException(new IncompatibleValueTypeException());
 				else if (cls.equals(Integer.class))
 					return (T) new Integer((parseDouble(m_value)).intValue());
@@ -98,12 +89,49 @@ public final class RhinoUtility {
 					return (T) parseDouble(m_value);
 
 				return cls.cast(m_value);
-			} catch (InstantiationException |
-					IllegalAccessException |
-					IllegalArgumentException |
-					ClassCastException |
-					InvocationTargetException |
-					NoSuchMethodException e) {
+			} catch (ClassCastException e) {
+				throw new ValueSerializationException(e);
+			}
+		}
+
+		@Override
+		public int getInt() throws ValueSerializationException {
+			if (m_value == null)
+				throw new ValueSerializationException(new IncompatibleValueTypeException());
+
+			try {
+				return parseDouble(m_value).intValue();
+			} catch (ClassCastException e) {
+				throw new ValueSerializationException(e);
+			}
+		}
+
+		@Override
+		public float getFloat() throws ValueSerializationException {
+			if (m_value == null)
+				throw new ValueSerializationException(new IncompatibleValueTypeException());
+
+			try {
+				return parseDouble(m_value).floatValue();
+			} catch (ClassCastException e) {
+				throw new ValueSerializationException(e);
+			}
+		}
+
+		@Override
+		public float[] getFloatArray() throws ValueSerializationException {
+			if (m_value == null || !(m_value instanceof NativeArray))
+				throw new ValueSerializationException(new IncompatibleValueTypeException());
+
+			try {
+				NativeArray rawValues = (NativeArray) m_value;
+				float[] values = new float[(int) rawValues.getLength()];
+
+				for (int i = 0; i < values.length; i++)
+					values[i] = parseDouble(rawValues.get(i, null)).floatValue();
+
+				return values;
+			} catch (ClassCastException e) {
 				throw new ValueSerializationException(e);
 			}
 		}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.ui;
+
+import io.github.jevaengine.math.Vector2D;
+import io.github.jevaengine.ui.Timer.ITimerObserver;
+import io.github.jevaengine.util.Profiler;
+import io.github.jevaengine.util.Profiler.ScopeStatistics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/*
+ * Turns a window into an in-game profiler overlay, listing the profiler's most expensive scopes by total time. The
+ * listing is refreshed periodically while the window is visible, and only ever reads the profiler's statistics, so the
+ * overlay may be shown while the same statistics are being read over JMX.
+ */
+public final class ProfilerOverlayBehaviourInjector extends WindowBehaviourInjector {
+	private static final int DEFAULT_REFRESH_INTERVAL = 500;
+	private static final int DEFAULT_LINES = 12;
+	private static final int PADDING = 4;
+
+	private final Profiler m_profiler;
+	private final int m_refreshInterval;
+
+	private final List<Label> m_lines = new ArrayList<>();
+	private int m_sinceRefresh = 0;
+
+	public ProfilerOverlayBehaviourInjector(Profiler profiler, int refreshInterval, int lines) {
+		m_profiler = profiler;
+		m_refreshInterval = refreshInterval;
+
+		for (int i = 0; i < lines; i++)
+			m_lines.add(new Label());
+	}
+
+	public ProfilerOverlayBehaviourInjector(Profiler profiler) {
+		this(profiler, DEFAULT_REFRESH_INTERVAL, DEFAULT_LINES);
+	}
+
+	public ProfilerOverlayBehaviourInjector() {
+		this(Profiler.getDefault());
+	}
+
+	@Override
+	protected void doInject() throws NoSuchControlException {
+		Timer timer = new Timer();
+		addControl(timer);
+
+		for (Label l : m_lines)
+			addControl(l);
+
+		timer.getObservers().add(new ITimerObserver() {
+			@Override
+			public void update(int deltaTime) {
+				m_sinceRefresh += deltaTime;
+
+				if (m_sinceRefresh >= m_refreshInterval && isVisible()) {
+					m_sinceRefresh = 0;
+					refresh();
+				}
+			}
+		});
+
+		refresh();
+	}
+
+	private void refresh() {
+		List<ScopeStatistics> statistics = m_profiler.getScopeStatistics();
+
+		Collections.sort(statistics, new Comparator<ScopeStatistics>() {
+			@Override
+			public int compare(ScopeStatistics a, ScopeStatistics b) {
+				return Long.compare(b.totalTime, a.totalTime);
+			}
+		});
+
+		int y = PADDING;
+
+		for (int i = 0; i < m_lines.size(); i++) {
+			Label line = m_lines.get(i);
+
+			if (i == 0 && !m_profiler.isEnabled())
+				line.setText("Profiler is disabled.");
+			else if (i < statistics.size())
+				line.setText(statistics.get(i).toString());
+			else
+				line.setText("");
+
+			line.setLocation(new Vector2D(PADDING, y));
+			y += line.getBounds().height;
+		}
+	}
+}
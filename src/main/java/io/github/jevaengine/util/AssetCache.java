@@ -0,0 +1,377 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Strongly referenced, weight bounded asset cache. Entries are spread over a number of independently
+ * locked stripes, but the budget applies to the cache as a whole: once it is exceeded, the least recently
+ * used entry of any stripe is evicted. Entries heavier than the entire budget are never retained.
+ *
+ * Each asset type constructs its own cache, with a weigher and budget appropriate to that type.
+ *
+ * Assets fetched through a loader are loaded at most once at a time per key; concurrent requests for an asset that is
+ * being loaded wait on and share the result of that load, while loads of different keys proceed independently.
+ */
+@ThreadSafe
+public final class AssetCache<K, V> {
+	private static final int DEFAULT_STRIPES = 8;
+
+	private final String m_name;
+	private final Profiler.Scope m_loadScope;
+	private final IWeigher<V> m_weigher;
+	private final long m_budget;
+	private final List<Stripe> m_stripes = new ArrayList<>();
+	private final ConcurrentHashMap<K, PendingLoad> m_pending = new ConcurrentHashMap<>();
+
+	private final AtomicLong m_totalSize = new AtomicLong();
+	private final AtomicLong m_clock = new AtomicLong();
+
+	private final AtomicLong m_hits = new AtomicLong();
+	private final AtomicLong m_misses = new AtomicLong();
+	private final AtomicLong m_evictions = new AtomicLong();
+
+	public AssetCache(String name, IWeigher<V> weigher, long budget, int stripes) {
+		m_name = name;
+		m_loadScope = Profiler.getDefault().getScope("assets." + name + ".load");
+		m_weigher = weigher;
+		m_budget = budget;
+
+		int stripeCount = Math.max(1, stripes);
+
+		for (int i = 0; i < stripeCount; i++)
+			m_stripes.add(new Stripe());
+	}
+
+	public AssetCache(String name, IWeigher<V> weigher, long budget) {
+		this(name, weigher, budget, DEFAULT_STRIPES);
+	}
+
+	private Stripe getStripe(Object key) {
+		int hash = key.hashCode();
+		hash ^= (hash >>> 16);
+
+		return m_stripes.get((hash & 0x7FFFFFFF) % m_stripes.size());
+	}
+
+	public String getName() {
+		return m_name;
+	}
+
+	public long getBudget() {
+		return m_budget;
+	}
+
+	@Nullable
+	public V get(K key) {
+		V value = getStripe(key).get(key);
+
+		if (value == null)
+			m_misses.incrementAndGet();
+		else
+			m_hits.incrementAndGet();
+
+		return value;
+	}
+
+	public <E extends Exception> V get(K key, ILoader<K, V, E> loader) throws E {
+		V value = get(key);
+
+		if (value != null)
+			return value;
+
+		PendingLoad pending = new PendingLoad();
+		PendingLoad loading = m_pending.putIfAbsent(key, pending);
+
+		if (loading != null)
+			return loading.<E>await();
+
+		try {
+			//A concurrent load may have completed between the miss and claiming the load.
+			value = getStripe(key).get(key);
+
+			if (value == null) {
+				long load = m_loadScope.begin();
+
+				try {
+					value = loader.load(key);
+				} finally {
+					m_loadScope.end(load);
+				}
+
+				if (value == null)
+					throw new IllegalStateException("Loader for asset cache " + m_name + " produced no asset for " + key + ".");
+
+				put(key, value);
+			}
+
+			pending.complete(value, null);
+
+			return value;
+		} catch (Throwable e) {
+			pending.complete(null, e);
+			throw e;
+		} finally {
+			m_pending.remove(key, pending);
+		}
+	}
+
+	public void put(K key, V value) {
+		long weight = m_weigher.weigh(value);
+		Stripe stripe = getStripe(key);
+
+		if (weight > m_budget) {
+			stripe.remove(key);
+			return;
+		}
+
+		stripe.put(key, value, weight);
+		trim(key);
+	}
+
+	//Evicts the least recently used entries, other than the given key, until the cache is within its budget.
+	private void trim(K retained) {
+		while (m_totalSize.get() > m_budget) {
+			Stripe victim = null;
+			long oldest = Long.MAX_VALUE;
+
+			for (Stripe s : m_stripes) {
+				long access = s.getEldestAccess(retained);
+
+				if (access < oldest) {
+					oldest = access;
+					victim = s;
+				}
+			}
+
+			if (victim == null || !victim.evictEldest(retained))
+				break;
+		}
+	}
+
+	public void remove(K key) {
+		getStripe(key).remove(key);
+	}
+
+	public void clear() {
+		for (Stripe s : m_stripes)
+			s.clear();
+	}
+
+	public AssetCacheStatistics getStatistics() {
+		long size = 0;
+		int entries = 0;
+
+		for (Stripe s : m_stripes) {
+			synchronized (s) {
+				size += s.m_size;
+				entries += s.m_entries.size();
+			}
+		}
+
+		return new AssetCacheStatistics(m_name, entries, size, m_budget, m_hits.get(), m_misses.get(), m_evictions.get());
+	}
+
+	public interface IWeigher<V> {
+		long weigh(V value);
+	}
+
+	public interface ILoader<K, V, E extends Exception> {
+		V load(K key) throws E;
+	}
+
+	public static final class ConstantWeigher<V> implements IWeigher<V> {
+		private final long m_weight;
+
+		public ConstantWeigher(long weight) {
+			m_weight = weight;
+		}
+
+		public ConstantWeigher() {
+			this(1);
+		}
+
+		@Override
+		public long weigh(V value) {
+			return m_weight;
+		}
+	}
+
+	public static final class AssetCacheStatistics {
+		public final String name;
+		public final int entries;
+		public final long size;
+		public final long budget;
+		public final long hits;
+		public final long misses;
+		public final long evictions;
+
+		private AssetCacheStatistics(String _name, int _entries, long _size, long _budget, long _hits, long _misses, long _evictions) {
+			name = _name;
+			entries = _entries;
+			size = _size;
+			budget = _budget;
+			hits = _hits;
+			misses = _misses;
+			evictions = _evictions;
+		}
+
+		public float getHitRatio() {
+			long requests = hits + misses;
+
+			return requests == 0 ? 0 : hits / (float) requests;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s: %d entries, %d/%d weight, %d hits, %d misses (%.1f%% hit ratio), %d evictions",
+					name, entries, size, budget, hits, misses, getHitRatio() * 100, evictions);
+		}
+	}
+
+	private final class Stripe {
+		private final LinkedHashMap<K, CacheEntry<V>> m_entries = new LinkedHashMap<>(16, 0.75F, true);
+		private long m_size = 0;
+
+		@Nullable
+		public synchronized V get(K key) {
+			CacheEntry<V> entry = m_entries.get(key);
+
+			if (entry == null)
+				return null;
+
+			entry.lastAccess = m_clock.incrementAndGet();
+
+			return entry.value;
+		}
+
+		public synchronized void put(K key, V value, long weight) {
+			remove(key);
+
+			m_entries.put(key, new CacheEntry<>(value, weight, m_clock.incrementAndGet()));
+			m_size += weight;
+			m_totalSize.addAndGet(weight);
+		}
+
+		public synchronized void remove(K key) {
+			CacheEntry<V> entry = m_entries.remove(key);
+
+			if (entry != null) {
+				m_size -= entry.weight;
+				m_totalSize.addAndGet(-entry.weight);
+			}
+		}
+
+		public synchronized void clear() {
+			m_totalSize.addAndGet(-m_size);
+			m_entries.clear();
+			m_size = 0;
+		}
+
+		//Entries are kept in access order, so the first entry (other than the retained key) is this stripe's least recently used.
+		public synchronized long getEldestAccess(K retained) {
+			for (Map.Entry<K, CacheEntry<V>> e : m_entries.entrySet()) {
+				if (!e.getKey().equals(retained))
+					return e.getValue().lastAccess;
+			}
+
+			return Long.MAX_VALUE;
+		}
+
+		public synchronized boolean evictEldest(K retained) {
+			Iterator<Map.Entry<K, CacheEntry<V>>> it = m_entries.entrySet().iterator();
+
+			while (it.hasNext()) {
+				Map.Entry<K, CacheEntry<V>> eldest = it.next();
+
+				if (eldest.getKey().equals(retained))
+					continue;
+
+				it.remove();
+				m_size -= eldest.getValue().weight;
+				m_totalSize.addAndGet(-eldest.getValue().weight);
+				m_evictions.incrementAndGet();
+
+				return true;
+			}
+
+			return false;
+		}
+	}
+
+	private final class PendingLoad {
+		private final CountDownLatch m_loaded = new CountDownLatch(1);
+
+		private volatile V m_value;
+		private volatile Throwable m_error;
+
+		public void complete(@Nullable V value, @Nullable Throwable error) {
+			m_value = value;
+			m_error = error;
+			m_loaded.countDown();
+		}
+
+		//Waits uninterruptibly, as the waiting thread may not be able to represent an interrupt as the loader's exception.
+		@SuppressWarnings("unchecked")
+		public <E extends Exception> V await() throws E {
+			boolean interrupted = false;
+
+			while (true) {
+				try {
+					m_loaded.await();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+
+			if (interrupted)
+				Thread.currentThread().interrupt();
+
+			if (m_error instanceof RuntimeException)
+				throw (RuntimeException) m_error;
+			else if (m_error instanceof Error)
+				throw (Error) m_error;
+			else if (m_error != null)
+				throw (E) m_error;
+
+			return m_value;
+		}
+	}
+
+	private static final class CacheEntry<V> {
+		private final V value;
+		private final long weight;
+		private long lastAccess;
+
+		public CacheEntry(V _value, long _weight, long _lastAccess) {
+			value = _value;
+			weight = _weight;
+			lastAccess = _lastAccess;
+		}
+	}
+}
@@ -18,32 +18,91 @@
  */
 package io.github.jevaengine.util;
 
-import java.lang.ref.WeakReference;
 import java.util.*;
 
+/*
+ * A list which may be freely modified while it is being iterated. Elements added during an iteration are visited by it,
+ * and elements removed before an iteration reaches them are skipped.
+ *
+ * Elements are held in an array in which removed elements are marked rather than shifted out, so that live iterators
+ * keep their place. Marked slots are dropped once they make up half of the array, or before index based access, by
+ * rebuilding the array into a new generation. Superseded generations are never modified again and link to their
+ * successor, so an iterator created on an older generation finds its place in the current one by counting the live
+ * elements that preceded it.
+ */
 public class MutableProcessList<T> implements List<T> {
+	private static final Object REMOVED = new Object();
+	private static final Object[] NO_ELEMENTS = new Object[0];
 
-	private final List<WeakReference<Queue<T>>> m_processQueues = new LinkedList<>();
-	private final List<T> m_workSet = new ArrayList<>();
+	private static final int DEFAULT_CAPACITY = 8;
+	private static final int MIN_COMPACT_SLOTS = 16;
+
+	private Generation m_generation = new Generation(DEFAULT_CAPACITY);
+	private int m_size = 0;
 
 	public MutableProcessList() {
 	}
 
 	public MutableProcessList(List<T> workSet) {
-		m_workSet.addAll(workSet);
+		addAll(workSet);
 	}
 
-	private void doProcessQueuesOperation(IProcessQueueOperation<T> operation) {
-		Iterator<WeakReference<Queue<T>>> it = m_processQueues.iterator();
+	private void rebuild(int insertAt, Object[] inserted) {
+		Generation old = m_generation;
+		Generation rebuilt = new Generation(Math.max(DEFAULT_CAPACITY, (m_size + inserted.length) * 2));
+
+		int live = 0;
+		boolean isInserted = false;
 
-		while (it.hasNext()) {
-			WeakReference<Queue<T>> queue = it.next();
+		for (int i = 0; i < old.m_length; i++) {
+			Object e = old.m_elements[i];
 
-			if (queue.get() == null)
-				it.remove();
-			else
-				operation.perform(queue.get());
+			if (e == REMOVED)
+				continue;
+
+			if (live == insertAt) {
+				rebuilt.append(inserted);
+				isInserted = true;
+			}
+
+			rebuilt.m_elements[rebuilt.m_length++] = e;
+			live++;
 		}
+
+		if (!isInserted)
+			rebuilt.append(inserted);
+
+		old.m_insertAt = inserted.length == 0 ? Integer.MAX_VALUE : insertAt;
+		old.m_insertCount = inserted.length;
+		old.m_next = rebuilt;
+
+		m_generation = rebuilt;
+		m_size += inserted.length;
+	}
+
+	private void compact() {
+		if (m_generation.m_removed > 0)
+			rebuild(Integer.MAX_VALUE, NO_ELEMENTS);
+	}
+
+	private void markRemoved(int slot) {
+		Generation g = m_generation;
+
+		g.m_elements[slot] = REMOVED;
+		g.m_removed++;
+		m_size--;
+	}
+
+	private void compactIfSparse() {
+		Generation g = m_generation;
+
+		if (g.m_removed >= MIN_COMPACT_SLOTS && g.m_removed * 2 >= g.m_length)
+			compact();
+	}
+
+	private void checkIndex(int index, int size) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
 	}
 
 	@Override
@@ -52,147 +111,199 @@ public class MutableProcessList<T> implements List<T> {
 	}
 
 	@Override
-	public boolean add(final T e) {
-		doProcessQueuesOperation(new IProcessQueueOperation<T>() {
-			@Override
-			public void perform(Queue<T> q) {
-				q.add(e);
-			}
-		});
+	public boolean add(T e) {
+		Generation g = m_generation;
 
-		m_workSet.add(e);
+		if (g.m_length == g.m_elements.length) {
+			rebuild(Integer.MAX_VALUE, NO_ELEMENTS);
+			g = m_generation;
+		}
+
+		g.m_elements[g.m_length++] = e;
+		m_size++;
 
 		return true;
 	}
 
 	@Override
-	public boolean addAll(final Collection<? extends T> c) {
-		doProcessQueuesOperation(new IProcessQueueOperation<T>() {
-			@Override
-			public void perform(Queue<T> q) {
-				q.addAll(c);
-			}
-		});
+	public boolean addAll(Collection<? extends T> c) {
+		for (T e : c)
+			add(e);
 
-		m_workSet.addAll(c);
-
-		return true;
+		return !c.isEmpty();
 	}
 
 	@Override
 	public void clear() {
+		Generation old = m_generation;
 
-		doProcessQueuesOperation(new IProcessQueueOperation<T>() {
-			@Override
-			public void perform(Queue<T> q) {
-				q.clear();
-			}
-		});
+		Arrays.fill(old.m_elements, 0, old.m_length, REMOVED);
+		old.m_removed = old.m_length;
+		old.m_insertAt = Integer.MAX_VALUE;
+		old.m_next = new Generation(DEFAULT_CAPACITY);
 
-		m_workSet.clear();
+		m_generation = old.m_next;
+		m_size = 0;
 	}
 
 	@Override
 	public boolean contains(Object o) {
-		return m_workSet.contains(o);
+		return indexOf(o) >= 0;
 	}
 
 	@Override
 	public boolean containsAll(Collection<?> c) {
-		return m_workSet.containsAll(c);
+		for (Object o : c) {
+			if (!contains(o))
+				return false;
+		}
+
+		return true;
 	}
 
 	@Override
 	public boolean isEmpty() {
-		return m_workSet.isEmpty();
+		return m_size == 0;
 	}
 
 	@Override
-	public boolean remove(final Object o) {
-		m_workSet.remove(o);
+	public boolean remove(Object o) {
+		Generation g = m_generation;
+
+		for (int i = 0; i < g.m_length; i++) {
+			Object e = g.m_elements[i];
 
-		doProcessQueuesOperation(new IProcessQueueOperation<T>() {
-			@Override
-			public void perform(Queue<T> q) {
-				q.remove(o);
+			if (e != REMOVED && Objects.equals(e, o)) {
+				markRemoved(i);
+				compactIfSparse();
+				return true;
 			}
-		});
+		}
 
-		return true;
+		return false;
 	}
 
-	@Override
-	public boolean removeAll(final Collection<?> c) {
+	private boolean removeIf(Collection<?> c, boolean isContained) {
+		Generation g = m_generation;
+		boolean isChanged = false;
 
-		doProcessQueuesOperation(new IProcessQueueOperation<T>() {
-			@Override
-			public void perform(Queue<T> q) {
-				q.removeAll(c);
+		for (int i = 0; i < g.m_length; i++) {
+			Object e = g.m_elements[i];
+
+			if (e != REMOVED && c.contains(e) == isContained) {
+				markRemoved(i);
+				isChanged = true;
 			}
-		});
+		}
 
-		return m_workSet.removeAll(c);
+		compactIfSparse();
+
+		return isChanged;
 	}
 
 	@Override
-	public boolean retainAll(final Collection<?> c) {
-
-		doProcessQueuesOperation(new IProcessQueueOperation<T>() {
-			@Override
-			public void perform(Queue<T> q) {
-				q.retainAll(c);
-			}
-		});
+	public boolean removeAll(Collection<?> c) {
+		return removeIf(c, true);
+	}
 
-		return m_workSet.retainAll(c);
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		return removeIf(c, false);
 	}
 
 	@Override
 	public int size() {
-		return m_workSet.size();
+		return m_size;
 	}
 
 	@Override
 	public Object[] toArray() {
-		return m_workSet.toArray();
+		Object[] elements = new Object[m_size];
+		Generation g = m_generation;
+
+		for (int i = 0, n = 0; i < g.m_length; i++) {
+			if (g.m_elements[i] != REMOVED)
+				elements[n++] = g.m_elements[i];
+		}
+
+		return elements;
 	}
 
+	@SuppressWarnings("unchecked")
 	@Override
 	public <Y> Y[] toArray(Y[] a) {
-		return m_workSet.toArray(a);
+		Y[] dest = a.length >= m_size ? a : (Y[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), m_size);
+		System.arraycopy(toArray(), 0, dest, 0, m_size);
+
+		if (dest.length > m_size)
+			dest[m_size] = null;
+
+		return dest;
 	}
 
 	@Override
 	public void add(int index, T element) {
-		m_workSet.add(index, element);
+		if (index < 0 || index > m_size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + m_size);
+
+		rebuild(index, new Object[]{element});
 	}
 
 	@Override
-	public boolean addAll(int index, final Collection<? extends T> c) {
-		doProcessQueuesOperation(new IProcessQueueOperation<T>() {
+	public boolean addAll(int index, Collection<? extends T> c) {
+		if (index < 0 || index > m_size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + m_size);
 
-			@Override
-			public void perform(Queue<T> q) {
-				q.addAll(c);
-			}
-		});
+		rebuild(index, c.toArray());
 
-		return m_workSet.addAll(index, c);
+		return !c.isEmpty();
 	}
 
+	@SuppressWarnings("unchecked")
 	@Override
 	public T get(int index) {
-		return m_workSet.get(index);
+		checkIndex(index, m_size);
+		compact();
+
+		return (T) m_generation.m_elements[index];
 	}
 
 	@Override
 	public int indexOf(Object o) {
-		return m_workSet.indexOf(o);
+		Generation g = m_generation;
+
+		for (int i = 0, n = 0; i < g.m_length; i++) {
+			Object e = g.m_elements[i];
+
+			if (e == REMOVED)
+				continue;
+
+			if (Objects.equals(e, o))
+				return n;
+
+			n++;
+		}
+
+		return -1;
 	}
 
 	@Override
 	public int lastIndexOf(Object o) {
-		return m_workSet.lastIndexOf(o);
+		Generation g = m_generation;
+
+		for (int i = g.m_length - 1, n = m_size - 1; i >= 0; i--) {
+			Object e = g.m_elements[i];
+
+			if (e == REMOVED)
+				continue;
+
+			if (Objects.equals(e, o))
+				return n;
+
+			n--;
+		}
+
+		return -1;
 	}
 
 	@Override
@@ -205,97 +316,100 @@ public class MutableProcessList<T> implements List<T> {
 		throw new UnsupportedOperationException();
 	}
 
+	@SuppressWarnings("unchecked")
 	@Override
 	public T remove(int index) {
-		final T remove = m_workSet.remove(index);
+		checkIndex(index, m_size);
+		compact();
 
-		doProcessQueuesOperation(new IProcessQueueOperation<T>() {
-			@Override
-			public void perform(Queue<T> q) {
-				q.remove(remove);
-			}
-		});
+		T removed = (T) m_generation.m_elements[index];
+		markRemoved(index);
+		compactIfSparse();
 
-		return remove;
+		return removed;
 	}
 
+	@SuppressWarnings("unchecked")
 	@Override
-	public T set(int index, final T element) {
-		final T remove = m_workSet.set(index, element);
-		doProcessQueuesOperation(new IProcessQueueOperation<T>() {
-			@Override
-			public void perform(Queue<T> q) {
-				q.add(element);
-				q.remove(remove);
-			}
-		});
+	public T set(int index, T element) {
+		checkIndex(index, m_size);
+		compact();
+
+		T replaced = (T) m_generation.m_elements[index];
+		m_generation.m_elements[index] = element;
 
-		return remove;
+		return replaced;
 	}
 
+	//Sub lists are detached copies, rather than views of this list.
+	@SuppressWarnings("unchecked")
 	@Override
 	public List<T> subList(int fromIndex, int toIndex) {
-		return m_workSet.subList(fromIndex, toIndex);
+		return (List<T>) new ArrayList<>(Arrays.asList(toArray())).subList(fromIndex, toIndex);
 	}
 
-	private interface IProcessQueueOperation<T> {
-		void perform(Queue<T> q);
-	}
+	private static final class Generation {
+		private final Object[] m_elements;
+		private int m_length = 0;
+		private int m_removed = 0;
 
-	private static final class WeakReferenceWithEquals<T> extends WeakReference<T> {
-		public WeakReferenceWithEquals(T referent) {
-			super(referent);
+		//Set once superseded, after which the generation is never modified.
+		@Nullable
+		private Generation m_next;
+		private int m_insertAt = Integer.MAX_VALUE;
+		private int m_insertCount = 0;
+
+		public Generation(int capacity) {
+			m_elements = new Object[capacity];
 		}
 
-		@Override
-		public int hashCode() {
-			return get() == null ? 0 : get().hashCode();
+		public void append(Object[] elements) {
+			System.arraycopy(elements, 0, m_elements, m_length, elements.length);
+			m_length += elements.length;
 		}
 
-		@Override
-		public boolean equals(Object o) {
-			return get() == null ? false : get().equals(o);
+		//Maps a slot of this superseded generation to the corresponding slot of its successor.
+		public int forward(int slot) {
+			int live = 0;
+
+			for (int i = 0; i < slot; i++) {
+				if (m_elements[i] != REMOVED)
+					live++;
+			}
+
+			return live > m_insertAt ? live + m_insertCount : live;
 		}
 	}
 
 	private final class IteratorImpl implements ListIterator<T> {
-		private final Queue<T> m_processQueue = new LinkedList<>();
+		private Generation m_iterated = m_generation;
+		private int m_slot = 0;
 		private T m_last;
 
-		public IteratorImpl() {
-			m_processQueues.add(new WeakReferenceWithEquals<>(m_processQueue));
-			m_processQueue.addAll(m_workSet);
-		}
-
 		@Override
 		public boolean hasNext() {
-			boolean isEmpty = m_processQueue.isEmpty();
-
-			if (isEmpty) {
-				m_processQueues.remove(new Object() {
-					@Override
-					public int hashCode() {
-						return m_processQueue.hashCode();
-					}
-
-					public boolean equals(Object o) {
-						if (o instanceof WeakReference<?>) {
-							return m_processQueue == ((WeakReference<?>) o).get();
-						} else
-							return false;
-					}
-				});
+			Generation g = m_iterated;
+
+			while (g.m_next != null) {
+				m_slot = g.forward(m_slot);
+				g = g.m_next;
 			}
 
-			return !isEmpty;
+			while (m_slot < g.m_length && g.m_elements[m_slot] == REMOVED)
+				m_slot++;
+
+			m_iterated = g;
+
+			return m_slot < g.m_length;
 		}
 
+		@SuppressWarnings("unchecked")
 		@Override
 		public T next() {
 			if (!hasNext())
 				throw new NoSuchElementException();
 
-			m_last = m_processQueue.poll();
+			m_last = (T) m_iterated.m_elements[m_slot++];
 			return m_last;
 		}
 
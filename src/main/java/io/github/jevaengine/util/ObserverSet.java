@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.util;
+
+import java.util.Arrays;
+
+/*
+ * The observers registered with an Observers instance which implement a particular interface, in order of
+ * registration. Broadcasters walk the set by index between beginDispatch and endDispatch:
+ *
+ * m_set.beginDispatch();
+ * try {
+ *     for (int i = 0; i < m_set.size(); i++) {
+ *         IObserver o = m_set.get(i);
+ *
+ *         if (o != null)
+ *             o.event();
+ *     }
+ * } finally {
+ *     m_set.endDispatch();
+ * }
+ *
+ * Observers added during a dispatch are appended and so are visited by it. Observers removed during a dispatch leave
+ * a null in their place until the outermost dispatch ends, so that no observer is skipped or visited twice.
+ */
+public final class ObserverSet<T> {
+	private Object[] m_observers = new Object[4];
+	private int m_size = 0;
+
+	private int m_dispatchDepth = 0;
+	private boolean m_hasRemoved = false;
+
+	ObserverSet() {
+	}
+
+	void add(Object observer) {
+		if (m_size == m_observers.length)
+			m_observers = Arrays.copyOf(m_observers, m_size * 2);
+
+		m_observers[m_size++] = observer;
+	}
+
+	void remove(Object observer) {
+		for (int i = 0; i < m_size; i++) {
+			if (m_observers[i] == observer) {
+				if (m_dispatchDepth > 0) {
+					m_observers[i] = null;
+					m_hasRemoved = true;
+				} else {
+					System.arraycopy(m_observers, i + 1, m_observers, i, m_size - i - 1);
+					m_observers[--m_size] = null;
+				}
+
+				return;
+			}
+		}
+	}
+
+	void clear() {
+		Arrays.fill(m_observers, 0, m_size, null);
+
+		if (m_dispatchDepth > 0)
+			m_hasRemoved = true;
+		else
+			m_size = 0;
+	}
+
+	private void compact() {
+		int size = 0;
+
+		for (int i = 0; i < m_size; i++) {
+			if (m_observers[i] != null)
+				m_observers[size++] = m_observers[i];
+		}
+
+		Arrays.fill(m_observers, size, m_size, null);
+		m_size = size;
+		m_hasRemoved = false;
+	}
+
+	public int size() {
+		return m_size;
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public T get(int index) {
+		return (T) m_observers[index];
+	}
+
+	public void beginDispatch() {
+		m_dispatchDepth++;
+	}
+
+	public void endDispatch() {
+		if (--m_dispatchDepth == 0 && m_hasRemoved)
+			compact();
+	}
+}
@@ -18,72 +18,196 @@
  */
 package io.github.jevaengine.util;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.*;
 
+/*
+ * Observers are partitioned, as they are registered, into an ObserverSet per raised interface, so that raising an
+ * event only visits observers which implement the interface declaring the raised method.
+ *
+ * Interfaces annotated with ObserverBroadcaster are raised through their hand-written broadcaster, which dispatches
+ * directly. Other interfaces are raised through a proxy which dispatches via cached method handles.
+ */
 public final class Observers implements IObserverRegistry {
-	private final Collection<Object> m_observers = new MutableProcessList<>();
-
-	private final Map<Class<?>, Object> m_broadcasters = new HashMap<>();
+	private static final Object[] NO_ARGUMENTS = new Object[0];
 
-	private static void getInterfaces(Set<Class<?>> list, Class<?> clazz) {
-		for (Class<?> c : clazz.getInterfaces()) {
-			list.add(c);
-			getInterfaces(list, c);
+	private static final ClassValue<BroadcasterConstructor> BROADCASTER_CONSTRUCTORS = new ClassValue<BroadcasterConstructor>() {
+		@Override
+		protected BroadcasterConstructor computeValue(Class<?> type) {
+			return new BroadcasterConstructor(type);
 		}
-	}
+	};
 
-	@SuppressWarnings("unchecked")
-	private <T> T createBroadcaster(Class<T> clazz) {
-		final Set<Class<?>> baseInterfaces = new HashSet<>();
-
-		baseInterfaces.add(clazz);
-		getInterfaces(baseInterfaces, clazz);
-
-		return (T) Proxy.newProxyInstance(clazz.getClassLoader(), new Class[]{clazz}, new InvocationHandler() {
-			@Override
-			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-				method.setAccessible(true);
-				traverseObservers:
-				for (Object o : m_observers) {
-					for (Class<?> c : baseInterfaces) {
-						if (!method.getDeclaringClass().equals(c))
-							continue;
-
-						if (c.isAssignableFrom(o.getClass())) {
-							method.invoke(o, args);
-							continue traverseObservers;
-						}
-					}
-				}
+	private final List<Object> m_observers = new ArrayList<>();
 
-				return null;
-			}
-		});
-	}
+	private final Map<Class<?>, ObserverSet<?>> m_observerSets = new HashMap<>();
+	private final Map<Class<?>, Object> m_broadcasters = new HashMap<>();
 
 	@Override
 	public void add(Object o) {
-		if(!m_observers.contains(o))
-			m_observers.add(o);
+		if (m_observers.contains(o))
+			return;
+
+		m_observers.add(o);
+
+		for (Map.Entry<Class<?>, ObserverSet<?>> e : m_observerSets.entrySet()) {
+			if (e.getKey().isInstance(o))
+				e.getValue().add(o);
+		}
 	}
 
 	@Override
 	public void remove(Object o) {
-		m_observers.remove(o);
+		if (!m_observers.remove(o))
+			return;
+
+		for (Map.Entry<Class<?>, ObserverSet<?>> e : m_observerSets.entrySet()) {
+			if (e.getKey().isInstance(o))
+				e.getValue().remove(o);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	public <T> ObserverSet<T> getObserverSet(Class<T> clazz) {
+		ObserverSet<T> set = (ObserverSet<T>) m_observerSets.get(clazz);
+
+		if (set == null) {
+			set = new ObserverSet<>();
+
+			for (Object o : m_observers) {
+				if (clazz.isInstance(o))
+					set.add(o);
+			}
+
+			m_observerSets.put(clazz, set);
+		}
+
+		return set;
 	}
 
 	@SuppressWarnings("unchecked")
 	public <T> T raise(Class<T> clazz) {
-		if (!m_broadcasters.containsKey(clazz))
-			m_broadcasters.put(clazz, createBroadcaster(clazz));
+		Object broadcaster = m_broadcasters.get(clazz);
 
-		return (T) m_broadcasters.get(clazz);
+		if (broadcaster == null) {
+			broadcaster = BROADCASTER_CONSTRUCTORS.get(clazz).create(this);
+			m_broadcasters.put(clazz, broadcaster);
+		}
+
+		return (T) broadcaster;
 	}
 
 	public void clear() {
 		m_observers.clear();
+
+		for (ObserverSet<?> set : m_observerSets.values())
+			set.clear();
+	}
+
+	private static final class BroadcasterConstructor {
+		private final Class<?> m_observer;
+
+		@Nullable
+		private final MethodHandle m_constructor;
+
+		@Nullable
+		private final RuntimeException m_error;
+
+		public BroadcasterConstructor(Class<?> observer) {
+			ObserverBroadcaster nominated = observer.getAnnotation(ObserverBroadcaster.class);
+
+			MethodHandle constructor = null;
+			RuntimeException error = null;
+
+			if (nominated != null) {
+				try {
+					if (!observer.isAssignableFrom(nominated.value()))
+						throw new IllegalStateException("Broadcaster " + nominated.value().getName() + " does not implement " + observer.getName());
+
+					Constructor<?> c = nominated.value().getConstructor(Observers.class);
+					c.setAccessible(true);
+					constructor = MethodHandles.lookup().unreflectConstructor(c);
+				} catch (NoSuchMethodException | IllegalAccessException e) {
+					error = new IllegalStateException("Broadcaster for " + observer.getName() + " cannot be constructed.", e);
+				} catch (IllegalStateException e) {
+					error = e;
+				}
+			}
+
+			m_observer = observer;
+			m_constructor = constructor;
+			m_error = error;
+		}
+
+		public Object create(Observers observers) {
+			if (m_error != null)
+				throw m_error;
+
+			if (m_constructor == null)
+				return Proxy.newProxyInstance(m_observer.getClassLoader(), new Class[]{m_observer}, observers.new ProxyBroadcaster());
+
+			try {
+				return m_constructor.invoke(observers);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new IllegalStateException("Broadcaster for " + m_observer.getName() + " cannot be constructed.", e);
+			}
+		}
+	}
+
+	private final class ProxyBroadcaster implements InvocationHandler {
+		private final Map<Method, ProxyDispatcher> m_dispatchers = new HashMap<>();
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if (method.getDeclaringClass() == Object.class)
+				return method.invoke(this, args);
+
+			ProxyDispatcher dispatcher = m_dispatchers.get(method);
+
+			if (dispatcher == null) {
+				dispatcher = new ProxyDispatcher(method);
+				m_dispatchers.put(method, dispatcher);
+			}
+
+			dispatcher.dispatch(args == null ? NO_ARGUMENTS : args);
+
+			return null;
+		}
+	}
+
+	private final class ProxyDispatcher {
+		private final ObserverSet<?> m_observers;
+		private final MethodHandle m_handle;
+
+		public ProxyDispatcher(Method method) throws IllegalAccessException {
+			method.setAccessible(true);
+
+			MethodHandle handle = MethodHandles.lookup().unreflect(method);
+
+			m_observers = getObserverSet(method.getDeclaringClass());
+			m_handle = handle.asType(handle.type().generic()).asSpreader(Object[].class, method.getParameterCount());
+		}
+
+		public void dispatch(Object[] args) throws Throwable {
+			m_observers.beginDispatch();
+
+			try {
+				for (int i = 0; i < m_observers.size(); i++) {
+					Object o = m_observers.get(i);
+
+					if (o != null)
+						m_handle.invoke(o, args);
+				}
+			} finally {
+				m_observers.endDispatch();
+			}
+		}
 	}
 }
@@ -0,0 +1,323 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/*
+ * Lightweight instrumentation for engine hot paths. Code is timed through named scopes, which accumulate call counts,
+ * total and maximum durations and a histogram of durations, and events are tallied through named counters. Scopes and
+ * counters are looked up once, typically into static fields, and are shared by every instance of the instrumented class.
+ *
+ * While the profiler is disabled, a scope costs a single volatile read to begin and a comparison to end. The default
+ * profiler is enabled by setting the system property "jevaengine.profiler" to true, or at runtime through setEnabled
+ * or its MXBean.
+ */
+@ThreadSafe
+public final class Profiler implements ProfilerMXBean {
+	private static final Profiler DEFAULT = new Profiler(Boolean.getBoolean("jevaengine.profiler"));
+
+	private static final String OBJECT_NAME = "io.github.jevaengine:type=Profiler";
+
+	private static final long DISABLED = Long.MIN_VALUE;
+
+	//Bucket i holds durations of at least 2^(i - 1) and less than 2^i microseconds; the last bucket is unbounded.
+	private static final int HISTOGRAM_BUCKETS = 20;
+
+	private final ConcurrentMap<String, Scope> m_scopes = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, Counter> m_counters = new ConcurrentHashMap<>();
+
+	private volatile boolean m_isEnabled;
+
+	public Profiler(boolean isEnabled) {
+		m_isEnabled = isEnabled;
+	}
+
+	public Profiler() {
+		this(false);
+	}
+
+	public static Profiler getDefault() {
+		return DEFAULT;
+	}
+
+	private static int getBucket(long duration) {
+		long micros = duration >> 10;
+
+		return Math.min(HISTOGRAM_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return m_isEnabled;
+	}
+
+	@Override
+	public void setEnabled(boolean isEnabled) {
+		m_isEnabled = isEnabled;
+	}
+
+	public Scope getScope(String name) {
+		Scope scope = m_scopes.get(name);
+
+		if (scope != null)
+			return scope;
+
+		Scope created = new Scope(name);
+		scope = m_scopes.putIfAbsent(name, created);
+
+		return scope == null ? created : scope;
+	}
+
+	public Counter getCounter(String name) {
+		Counter counter = m_counters.get(name);
+
+		if (counter != null)
+			return counter;
+
+		Counter created = new Counter(name);
+		counter = m_counters.putIfAbsent(name, created);
+
+		return counter == null ? created : counter;
+	}
+
+	public List<ScopeStatistics> getScopeStatistics() {
+		List<ScopeStatistics> statistics = new ArrayList<>();
+
+		for (Scope s : m_scopes.values())
+			statistics.add(s.getStatistics());
+
+		Collections.sort(statistics, new Comparator<ScopeStatistics>() {
+			@Override
+			public int compare(ScopeStatistics a, ScopeStatistics b) {
+				return a.name.compareTo(b.name);
+			}
+		});
+
+		return statistics;
+	}
+
+	@Override
+	public void reset() {
+		for (Scope s : m_scopes.values())
+			s.reset();
+
+		for (Counter c : m_counters.values())
+			c.reset();
+	}
+
+	@Override
+	public String[] getReport() {
+		List<String> report = new ArrayList<>();
+
+		for (ScopeStatistics s : getScopeStatistics())
+			report.add(s.toString());
+
+		List<String> counters = new ArrayList<>(m_counters.keySet());
+		Collections.sort(counters);
+
+		for (String name : counters)
+			report.add(name + ": " + m_counters.get(name).getValue());
+
+		return report.toArray(new String[report.size()]);
+	}
+
+	@Override
+	public long getCount(String scope) {
+		Scope s = m_scopes.get(scope);
+
+		return s == null ? 0 : s.m_count.sum();
+	}
+
+	@Override
+	public long getTotalTime(String scope) {
+		Scope s = m_scopes.get(scope);
+
+		return s == null ? 0 : s.m_totalTime.sum();
+	}
+
+	@Override
+	public long getMaxTime(String scope) {
+		Scope s = m_scopes.get(scope);
+
+		return s == null ? 0 : s.m_maxTime.get();
+	}
+
+	@Override
+	public long getCounterValue(String counter) {
+		Counter c = m_counters.get(counter);
+
+		return c == null ? 0 : c.getValue();
+	}
+
+	public void registerMBean() throws JMException {
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+	}
+
+	public void unregisterMBean() throws JMException {
+		ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+	}
+
+	@ThreadSafe
+	public final class Scope {
+		private final String m_name;
+
+		private final LongAdder m_count = new LongAdder();
+		private final LongAdder m_totalTime = new LongAdder();
+		private final AtomicLong m_maxTime = new AtomicLong();
+		private final AtomicLongArray m_histogram = new AtomicLongArray(HISTOGRAM_BUCKETS);
+
+		private Scope(String name) {
+			m_name = name;
+		}
+
+		public String getName() {
+			return m_name;
+		}
+
+		//Returns the token to pass to end.
+		public long begin() {
+			return m_isEnabled ? System.nanoTime() : DISABLED;
+		}
+
+		public void end(long begin) {
+			if (begin == DISABLED)
+				return;
+
+			long duration = System.nanoTime() - begin;
+
+			m_count.increment();
+			m_totalTime.add(duration);
+			m_histogram.incrementAndGet(getBucket(duration));
+
+			long max = m_maxTime.get();
+
+			while (duration > max && !m_maxTime.compareAndSet(max, duration))
+				max = m_maxTime.get();
+		}
+
+		private void reset() {
+			m_count.reset();
+			m_totalTime.reset();
+			m_maxTime.set(0);
+
+			for (int i = 0; i < HISTOGRAM_BUCKETS; i++)
+				m_histogram.set(i, 0);
+		}
+
+		public ScopeStatistics getStatistics() {
+			long[] histogram = new long[HISTOGRAM_BUCKETS];
+
+			for (int i = 0; i < histogram.length; i++)
+				histogram[i] = m_histogram.get(i);
+
+			return new ScopeStatistics(m_name, m_count.sum(), m_totalTime.sum(), m_maxTime.get(), histogram);
+		}
+	}
+
+	@ThreadSafe
+	public final class Counter {
+		private final String m_name;
+		private final LongAdder m_value = new LongAdder();
+
+		private Counter(String name) {
+			m_name = name;
+		}
+
+		public String getName() {
+			return m_name;
+		}
+
+		public void increment() {
+			if (m_isEnabled)
+				m_value.increment();
+		}
+
+		public void add(long amount) {
+			if (m_isEnabled)
+				m_value.add(amount);
+		}
+
+		public long getValue() {
+			return m_value.sum();
+		}
+
+		private void reset() {
+			m_value.reset();
+		}
+	}
+
+	public static final class ScopeStatistics {
+		public final String name;
+		public final long count;
+		public final long totalTime;
+		public final long maxTime;
+
+		private final long[] m_histogram;
+
+		private ScopeStatistics(String _name, long _count, long _totalTime, long _maxTime, long[] histogram) {
+			name = _name;
+			count = _count;
+			totalTime = _totalTime;
+			maxTime = _maxTime;
+			m_histogram = histogram;
+		}
+
+		public float getAverageTime() {
+			return count == 0 ? 0 : totalTime / (float) count;
+		}
+
+		//Upper bound, in nanoseconds, of the histogram bucket holding the given percentile of durations.
+		public long getPercentileTime(float percentile) {
+			long total = 0;
+
+			for (long c : m_histogram)
+				total += c;
+
+			long target = (long) Math.ceil(total * percentile / 100.0F);
+			long seen = 0;
+
+			for (int i = 0; i < m_histogram.length - 1; i++) {
+				seen += m_histogram[i];
+
+				if (seen >= target)
+					return Math.min(maxTime, (1L << i) << 10);
+			}
+
+			return maxTime;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s: %d calls, %.3fms total, %.3fms average, %.3fms 99th percentile, %.3fms max",
+					name, count, totalTime / 1000000.0F, getAverageTime() / 1000000.0F, getPercentileTime(99) / 1000000.0F, maxTime / 1000000.0F);
+		}
+	}
+}
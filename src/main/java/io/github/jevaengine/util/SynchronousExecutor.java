@@ -18,32 +18,325 @@
  */
 package io.github.jevaengine.util;
 
-import java.util.ArrayList;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
+/*
+ * Runs tasks posted from any thread on the thread which calls execute. Tasks are queued in fixed size
+ * ring buffers, one per priority lane, so that posting and draining tasks does not allocate. Tasks which
+ * do not fit in their lane's ring spill over into an unbounded queue and are moved back into the ring as
+ * space frees up.
+ *
+ * Each call to execute runs the lanes in priority order until either every task queued at the start of
+ * the call has run once, or the time budget is exhausted. Tasks which are not complete are queued again
+ * and run no sooner than the next call. At least one task is run per call, so a small budget cannot stall
+ * the executor entirely.
+ *
+ * Only a single thread may call execute at a time.
+ */
+@ThreadSafe
 public class SynchronousExecutor {
-	private Queue<ISynchronousTask> m_tasks = new ConcurrentLinkedQueue<>();
+	private static final int DEFAULT_LANE_CAPACITY = 1024;
 
-	public void enqueue(ISynchronousTask task) {
-		if (task == null)
+	//Weight given to the most recent sample in the average task latency.
+	private static final float LATENCY_SMOOTHING = 0.1F;
+
+	private final long m_budget;
+	private final TaskLane[] m_lanes;
+
+	private final AtomicLong m_executed = new AtomicLong();
+	private final AtomicLong m_requeued = new AtomicLong();
+	private final AtomicLong m_deferred = new AtomicLong();
+	private final AtomicLong m_overflowed = new AtomicLong();
+	private final AtomicLong m_budgetExhausted = new AtomicLong();
+
+	private volatile long m_averageLatency = 0;
+	private volatile long m_maxLatency = 0;
+	private volatile long m_lastExecuteTime = 0;
+
+	/*
+	 * A budget of zero or less runs every queued task on each call to execute.
+	 */
+	public SynchronousExecutor(long budgetNanos, int laneCapacity) {
+		m_budget = budgetNanos;
+		m_lanes = new TaskLane[Priority.values().length];
+
+		for (int i = 0; i < m_lanes.length; i++)
+			m_lanes[i] = new TaskLane(laneCapacity);
+	}
+
+	public SynchronousExecutor(long budgetNanos) {
+		this(budgetNanos, DEFAULT_LANE_CAPACITY);
+	}
+
+	public SynchronousExecutor() {
+		this(0);
+	}
+
+	public long getBudget() {
+		return m_budget;
+	}
+
+	public void enqueue(ISynchronousTask task, Priority priority) {
+		if (task == null || priority == null)
 			throw new NullPointerException();
 
-		m_tasks.add(task);
+		if (!m_lanes[priority.ordinal()].offer(task, System.nanoTime()))
+			m_overflowed.incrementAndGet();
+	}
+
+	public void enqueue(ISynchronousTask task) {
+		enqueue(task, Priority.Normal);
 	}
 
 	public void execute() {
-		ArrayList<ISynchronousTask> requeue = new ArrayList<>();
+		long start = System.nanoTime();
+		boolean exhausted = false;
+		int executed = 0;
+		int requeued = 0;
+
+		for (TaskLane lane : m_lanes) {
+			//Only tasks queued before this lane was visited are run, so requeued tasks wait for the next call.
+			for (int pending = lane.size(); pending > 0; pending--) {
+				long now = System.nanoTime();
+
+				if (m_budget > 0 && executed > 0 && now - start >= m_budget) {
+					exhausted = true;
+					break;
+				}
+
+				ISynchronousTask task = lane.poll();
 
-		for (ISynchronousTask r; (r = m_tasks.poll()) != null; ) {
-			if (!r.run())
-				requeue.add(r);
+				if (task == null) {
+					lane.drainOverflow();
+
+					if ((task = lane.poll()) == null)
+						break;
+				}
+
+				recordLatency(now - lane.getPolledTime());
+				executed++;
+
+				if (!task.run()) {
+					requeued++;
+					lane.requeue(task, now);
+				}
+			}
+
+			if (exhausted)
+				break;
+		}
+
+		m_executed.addAndGet(executed);
+		m_requeued.addAndGet(requeued);
+
+		if (exhausted) {
+			int deferred = 0;
+
+			for (TaskLane lane : m_lanes)
+				deferred += lane.size();
+
+			m_deferred.addAndGet(Math.max(0, deferred - requeued));
+			m_budgetExhausted.incrementAndGet();
 		}
 
-		m_tasks.addAll(requeue);
+		m_lastExecuteTime = System.nanoTime() - start;
+	}
+
+	private void recordLatency(long latency) {
+		if (latency < 0)
+			return;
+
+		m_averageLatency += (long) ((latency - m_averageLatency) * LATENCY_SMOOTHING);
+
+		if (latency > m_maxLatency)
+			m_maxLatency = latency;
+	}
+
+	public int getQueueDepth(Priority priority) {
+		return m_lanes[priority.ordinal()].size();
+	}
+
+	public int getQueueDepth() {
+		int depth = 0;
+
+		for (TaskLane lane : m_lanes)
+			depth += lane.size();
+
+		return depth;
+	}
+
+	public ExecutorStatistics getStatistics() {
+		int[] depths = new int[m_lanes.length];
+
+		for (int i = 0; i < depths.length; i++)
+			depths[i] = m_lanes[i].size();
+
+		return new ExecutorStatistics(depths, m_executed.get(), m_requeued.get(), m_deferred.get(), m_overflowed.get(),
+				m_budgetExhausted.get(), m_averageLatency, m_maxLatency, m_lastExecuteTime);
+	}
+
+	public enum Priority {
+		High,
+		Normal,
+		Low,
 	}
 
 	public interface ISynchronousTask {
 		boolean run();
 	}
+
+	public static final class ExecutorStatistics {
+		public final int[] queueDepths;
+		public final long executed;
+		public final long requeued;
+		public final long deferred;
+		public final long overflowed;
+		public final long budgetExhausted;
+		public final long averageLatency;
+		public final long maxLatency;
+		public final long lastExecuteTime;
+
+		private ExecutorStatistics(int[] _queueDepths, long _executed, long _requeued, long _deferred, long _overflowed,
+								   long _budgetExhausted, long _averageLatency, long _maxLatency, long _lastExecuteTime) {
+			queueDepths = _queueDepths;
+			executed = _executed;
+			requeued = _requeued;
+			deferred = _deferred;
+			overflowed = _overflowed;
+			budgetExhausted = _budgetExhausted;
+			averageLatency = _averageLatency;
+			maxLatency = _maxLatency;
+			lastExecuteTime = _lastExecuteTime;
+		}
+
+		public int getQueueDepth() {
+			int depth = 0;
+
+			for (int d : queueDepths)
+				depth += d;
+
+			return depth;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%d queued, %d executed, %d requeued, %d deferred over %d exhausted budgets, %d overflowed, %.3fms average latency, %.3fms max latency",
+					getQueueDepth(), executed, requeued, deferred, budgetExhausted, overflowed, averageLatency / 1000000.0F, maxLatency / 1000000.0F);
+		}
+	}
+
+	/*
+	 * Bounded multiple producer, single consumer ring. Each slot carries a sequence number which tells
+	 * producers whether the slot is free for the current lap, and the consumer whether it has been published.
+	 */
+	private static final class TaskLane {
+		private final ISynchronousTask[] m_tasks;
+		private final long[] m_enqueueTimes;
+		private final AtomicLongArray m_sequences;
+		private final int m_mask;
+
+		private final AtomicLong m_tail = new AtomicLong();
+		private volatile long m_head = 0;
+
+		private final Queue<ISynchronousTask> m_overflow = new ConcurrentLinkedQueue<>();
+		private final AtomicInteger m_overflowSize = new AtomicInteger();
+
+		private long m_polledTime = 0;
+
+		public TaskLane(int capacity) {
+			int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+
+			m_tasks = new ISynchronousTask[size];
+			m_enqueueTimes = new long[size];
+			m_sequences = new AtomicLongArray(size);
+			m_mask = size - 1;
+
+			for (int i = 0; i < size; i++)
+				m_sequences.set(i, i);
+		}
+
+		private boolean tryOffer(ISynchronousTask task, long time) {
+			while (true) {
+				long tail = m_tail.get();
+				int slot = (int) tail & m_mask;
+				long sequence = m_sequences.get(slot);
+
+				if (sequence == tail) {
+					if (m_tail.compareAndSet(tail, tail + 1)) {
+						m_tasks[slot] = task;
+						m_enqueueTimes[slot] = time;
+						m_sequences.set(slot, tail + 1);
+						return true;
+					}
+				} else if (sequence < tail)
+					return false;
+			}
+		}
+
+		/*
+		 * Returns false if the task was spilled into the overflow queue. Tasks are only placed in the ring while the
+		 * overflow queue is empty, so that tasks are run in the order they were queued.
+		 */
+		public boolean offer(ISynchronousTask task, long time) {
+			if (m_overflow.isEmpty() && tryOffer(task, time))
+				return true;
+
+			m_overflow.add(task);
+			m_overflowSize.incrementAndGet();
+
+			return false;
+		}
+
+		//Requeued tasks are timed from when they last ran, rather than from when they were first queued.
+		public void requeue(ISynchronousTask task, long time) {
+			offer(task, time);
+		}
+
+		//Overflowed tasks have lost their enqueue time, and are treated as having just been queued.
+		public void drainOverflow() {
+			long now = System.nanoTime();
+
+			for (ISynchronousTask task; (task = m_overflow.peek()) != null; ) {
+				if (!tryOffer(task, now))
+					break;
+
+				m_overflow.poll();
+				m_overflowSize.decrementAndGet();
+			}
+		}
+
+		@Nullable
+		public ISynchronousTask poll() {
+			long head = m_head;
+			int slot = (int) head & m_mask;
+
+			if (m_sequences.get(slot) != head + 1)
+				return null;
+
+			ISynchronousTask task = m_tasks[slot];
+			m_polledTime = m_enqueueTimes[slot];
+			m_tasks[slot] = null;
+
+			m_sequences.set(slot, head + m_tasks.length);
+			m_head = head + 1;
+
+			return task;
+		}
+
+		public long getPolledTime() {
+			return m_polledTime;
+		}
+
+		public int getRingSize() {
+			return (int) Math.max(0, m_tail.get() - m_head);
+		}
+
+		public int size() {
+			return getRingSize() + m_overflowSize.get();
+		}
+	}
 }
@@ -20,6 +20,7 @@ package io.github.jevaengine.world;
 
 import io.github.jevaengine.IEngineThreadPool;
 import io.github.jevaengine.IInitializationProgressMonitor;
+import io.github.jevaengine.ParallelLoadStage;
 import io.github.jevaengine.audio.IAudioClipFactory;
 import io.github.jevaengine.config.*;
 import io.github.jevaengine.config.IConfigurationFactory.ConfigurationConstructionException;
@@ -30,6 +31,9 @@ import io.github.jevaengine.script.IScriptBuilder;
 import io.github.jevaengine.script.IScriptBuilderFactory;
 import io.github.jevaengine.script.IScriptBuilderFactory.ScriptBuilderConstructionException;
 import io.github.jevaengine.script.NullScriptBuilder;
+import io.github.jevaengine.util.AssetCache;
+import io.github.jevaengine.util.AssetCache.ConstantWeigher;
+import io.github.jevaengine.util.AssetCache.ILoader;
 import io.github.jevaengine.util.Nullable;
 import io.github.jevaengine.util.ThreadSafe;
 import io.github.jevaengine.world.DefaultWorldFactory.WorldConfiguration.EntityImportDeclaration;
@@ -38,6 +42,8 @@ import io.github.jevaengine.world.DefaultWorldFactory.WorldConfiguration.ZoneDec
 import io.github.jevaengine.world.IWeatherFactory.IWeather;
 import io.github.jevaengine.world.IWeatherFactory.NullWeather;
 import io.github.jevaengine.world.IWeatherFactory.WeatherConstructionException;
+import io.github.jevaengine.world.World.IWorldObserver;
+import io.github.jevaengine.world.WorldRegionStreamer.IRegionLoader;
 import io.github.jevaengine.world.entity.IEntity;
 import io.github.jevaengine.world.entity.IEntityFactory;
 import io.github.jevaengine.world.entity.IEntityFactory.EntityConstructionException;
@@ -47,16 +53,28 @@ import io.github.jevaengine.world.entity.ThreadPooledEntityFactory;
 import io.github.jevaengine.world.physics.IPhysicsWorldFactory;
 import io.github.jevaengine.world.scene.model.ISceneModel;
 import io.github.jevaengine.world.scene.model.ISceneModelFactory;
+import io.github.jevaengine.world.scene.model.IImmutableSceneModel.SceneModelNotCloneableException;
 import io.github.jevaengine.world.scene.model.ISceneModelFactory.SceneModelConstructionException;
+import io.github.jevaengine.world.scene.model.SharedSceneModel.SharedSceneModelPrototype;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 public class DefaultWorldFactory implements IWorldFactory {
 	private static final float LOADING_PORTION_LAYERS = 0.8F;
+
+	private static final float LOADING_PORTION_PREFETCH = 0.2F;
+	private static final float LOADING_PORTION_CONSTRUCT = 0.7F;
+
+	private static final int LOADING_HELPERS = 4;
+	private static final int ARTIFACT_BATCH_SIZE = 64;
 	protected final IEngineThreadPool m_threadPool;
 	protected final IEntityFactory m_entityFactory;
 	protected final IScriptBuilderFactory m_scriptFactory;
@@ -128,6 +146,20 @@ public class DefaultWorldFactory implements IWorldFactory {
 		}
 	}
 
+	/*
+	 * Constructs a scene artifact sharing its model with every other shared artifact of the same model
+	 * constructed through the given prototype cache.
+	 */
+	protected IEntity createSharedSceneArtifact(SceneArtifactImportDeclaration artifactDecl, URI context, SharedSceneModelPrototypes prototypes) throws EntityConstructionException {
+		try {
+			SharedSceneModelPrototype prototype = prototypes.get(context.resolve(new URI(artifactDecl.model)));
+
+			return new SceneArtifact(prototype.create(artifactDecl.direction), artifactDecl.isStatic, artifactDecl.isTraversable);
+		} catch (SceneModelConstructionException | SceneModelNotCloneableException | URISyntaxException e) {
+			throw new EntityConstructionException("Scene Artifact", e);
+		}
+	}
+
 	protected IEntity createEntity(EntityImportDeclaration entityConfig, URI context) throws EntityConstructionException {
 		try {
 			IImmutableVariable auxConfig = entityConfig.auxConfig == null ? new NullVariable() : entityConfig.auxConfig;
@@ -165,51 +197,201 @@ public class DefaultWorldFactory implements IWorldFactory {
 		}
 	}
 
+	private void prefetch(URI name, WorldConfiguration worldConfig, IInitializationProgressMonitor monitor) throws InterruptedException {
+		Set<URI> configs = new LinkedHashSet<>();
+
+		for (SceneArtifactImportDeclaration artifactDecl : worldConfig.artifactImports) {
+			try {
+				configs.add(name.resolve(new URI(artifactDecl.model)));
+			} catch (URISyntaxException e) {
+				//Reported when the artifact is constructed.
+			}
+		}
+
+		for (EntityImportDeclaration entityDecl : worldConfig.entities) {
+			try {
+				if (entityDecl.config != null)
+					configs.add(name.resolve(new URI(entityDecl.config)));
+			} catch (URISyntaxException e) {
+				//Reported when the entity is constructed.
+			}
+		}
+
+		ParallelLoadStage stage = new ParallelLoadStage(m_threadPool, LOADING_HELPERS);
+
+		//Prefetching warms the configuration cache with model and entity configurations ahead of construction.
+		//Failures are ignored here; they resurface and are reported when the asset is constructed.
+		for (final URI config : configs) {
+			stage.add(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						m_configurationFactory.create(config);
+					} catch (ConfigurationConstructionException e) {
+					}
+				}
+			});
+		}
+
+		stage.run(monitor, 0, LOADING_PORTION_PREFETCH, "Prefetching World Assets.");
+	}
+
+	/*
+	 * Rather than being constructed up front, the world's artifacts and entities are streamed in and out by region.
+	 */
+	private WorldRegionStreamer createRegionStreamer(final URI name, World world, WorldConfiguration worldConfig) {
+		final SharedSceneModelPrototypes prototypes = new SharedSceneModelPrototypes();
+
+		WorldRegionStreamer streamer = new WorldRegionStreamer(world, m_threadPool, new IRegionLoader() {
+			@Override
+			public IEntity createArtifact(SceneArtifactImportDeclaration artifact) throws EntityConstructionException {
+				if (artifact.isShared && artifact.isStatic)
+					return createSharedSceneArtifact(artifact, name, prototypes);
+
+				return createSceneArtifact(artifact, name);
+			}
+
+			@Override
+			public IEntity createEntity(EntityImportDeclaration entity) throws EntityConstructionException {
+				return DefaultWorldFactory.this.createEntity(entity, name);
+			}
+		}, worldConfig.regionSectors, worldConfig.regionRadius);
+
+		//Streamed regions construct artifacts for as long as the world exists, so the sources are retained until then.
+		world.getObservers().add(new IWorldObserver() {
+			@Override
+			public void addedEntity(IEntity e) { }
+
+			@Override
+			public void removedEntity(Vector3F location, IEntity e) { }
+
+			@Override
+			public void disposed() {
+				prototypes.dispose();
+			}
+		});
+
+		for (SceneArtifactImportDeclaration artifact : worldConfig.artifactImports) {
+			for (Vector3F location : artifact.locations)
+				streamer.addArtifact(artifact, location);
+		}
+
+		for (EntityImportDeclaration entity : worldConfig.entities)
+			streamer.addEntity(entity);
+
+		return streamer;
+	}
+
 	@Override
 	@ThreadSafe
-	public final World create(URI name, final IInitializationProgressMonitor monitor) throws WorldConstructionException {
+	public final World create(final URI name, final IInitializationProgressMonitor monitor) throws WorldConstructionException {
 		try {
 
 			final WorldConfiguration worldConfig = m_configurationFactory.create(name).getValue(WorldConfiguration.class);
 
-			final int totalArtifactsToLoad = worldConfig.entities.length + worldConfig.artifactImports.length;
-
 			World world = createBaseWorld(worldConfig.friction, worldConfig.metersPerUnit, worldConfig.logicPerUnit,
 					worldConfig.worldWidth, worldConfig.worldHeight,
 					createWeather(name, worldConfig),
 					worldConfig.script == null ? null : name.resolve(new URI(worldConfig.script)));
 
+			if (worldConfig.regionRadius > 0) {
+				world.setRegionStreamer(createRegionStreamer(name, world, worldConfig));
+
+				for (ZoneDeclaration z : worldConfig.zones)
+					world.addZone(z.name, z.region);
+
+				monitor.statusChanged(1.0F, "Completed");
+
+				return world;
+			}
+
+			prefetch(name, worldConfig, monitor);
+
+			ParallelLoadStage construction = new ParallelLoadStage(m_threadPool, LOADING_HELPERS);
+
+			final IEntity[][] artifacts = new IEntity[worldConfig.artifactImports.length][];
+			final SharedSceneModelPrototypes prototypes = new SharedSceneModelPrototypes();
+
 			for (int i = 0; i < worldConfig.artifactImports.length; i++) {
-				SceneArtifactImportDeclaration artifactDeclaration = worldConfig.artifactImports[i];
+				final SceneArtifactImportDeclaration artifactDeclaration = worldConfig.artifactImports[i];
+				final boolean isShared = artifactDeclaration.isShared && artifactDeclaration.isStatic;
+
+				if (artifactDeclaration.isShared && !artifactDeclaration.isStatic)
+					m_logger.warn("Scene artifact " + artifactDeclaration.model + " is not static and so cannot share its model.");
+
+				final IEntity[] instances = new IEntity[artifactDeclaration.locations.length];
+				artifacts[i] = instances;
+
+				for (int batchStart = 0; batchStart < instances.length; batchStart += ARTIFACT_BATCH_SIZE) {
+					final int start = batchStart;
+					final int end = Math.min(instances.length, batchStart + ARTIFACT_BATCH_SIZE);
+
+					construction.add(new Runnable() {
+						@Override
+						public void run() {
+							for (int l = start; l < end; l++) {
+								try {
+									instances[l] = isShared ? createSharedSceneArtifact(artifactDeclaration, name, prototypes) : createSceneArtifact(artifactDeclaration, name);
+								} catch (EntityConstructionException e) {
+									m_logger.error("Error constructing scene artifact. Default to exclusion of artifact.", e);
+								}
+							}
+						}
+					});
+				}
+			}
 
-				try {
-					for (Vector3F location : artifactDeclaration.locations) {
-						IEntity tile = createSceneArtifact(artifactDeclaration, name);
-						world.addEntity(tile);
+			final IEntity[] entities = new IEntity[worldConfig.entities.length];
 
-						tile.getBody().setLocation(location);
+			for (int i = 0; i < worldConfig.entities.length; i++) {
+				final int index = i;
+				final EntityImportDeclaration entityConfig = worldConfig.entities[i];
+
+				construction.add(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							entities[index] = createEntity(entityConfig, name);
+						} catch (EntityConstructionException e) {
+							m_logger.error("Unable to construct entity, assuming it does not exist.", e);
+						}
 					}
-				} catch (EntityConstructionException e) {
-					m_logger.error("Error constructing scene artifact. Default to exclusion of artifact.", e);
-				}
+				});
+			}
 
-				monitor.statusChanged(i / (float) totalArtifactsToLoad, "Loading Scene Artifacts.");
+			try {
+				construction.run(monitor, LOADING_PORTION_PREFETCH, LOADING_PORTION_CONSTRUCT, "Constructing Scene Entities.");
+			} finally {
+				prototypes.dispose();
 			}
 
-			for (int i = 0; i < worldConfig.entities.length; i++) {
-				EntityImportDeclaration entityConfig = worldConfig.entities[i];
+			//Everything is added on this thread, in declaration order, once construction has completed.
+			monitor.statusChanged(LOADING_PORTION_PREFETCH + LOADING_PORTION_CONSTRUCT, "Populating World.");
 
-				try {
-					IEntity entity = createEntity(entityConfig, name);
-					world.addEntity(entity);
+			for (int i = 0; i < artifacts.length; i++) {
+				Vector3F[] locations = worldConfig.artifactImports[i].locations;
+
+				for (int l = 0; l < artifacts[i].length; l++) {
+					IEntity tile = artifacts[i][l];
+
+					if (tile == null)
+						continue;
 
-					entity.getBody().setDirection(entityConfig.direction);
-					entity.getBody().setLocation(entityConfig.location);
-				} catch (EntityConstructionException e) {
-					m_logger.error("Unable to construct entity, assuming it does not exist.", e);
+					world.addEntity(tile);
+					tile.getBody().setLocation(locations[l]);
 				}
+			}
+
+			for (int i = 0; i < entities.length; i++) {
+				IEntity entity = entities[i];
+
+				if (entity == null)
+					continue;
 
-				monitor.statusChanged((worldConfig.artifactImports.length + i) / (float) totalArtifactsToLoad, "Loading Scene Entities.");
+				world.addEntity(entity);
+
+				entity.getBody().setDirection(worldConfig.entities[i].direction);
+				entity.getBody().setLocation(worldConfig.entities[i].location);
 			}
 
 			for (ZoneDeclaration z : worldConfig.zones)
@@ -220,6 +402,48 @@ public class DefaultWorldFactory implements IWorldFactory {
 			return world;
 		} catch (ValueSerializationException | ConfigurationConstructionException | URISyntaxException e) {
 			throw new WorldConstructionException(name, e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new WorldConstructionException(name, e);
+		}
+	}
+
+	/*
+	 * Shared model prototypes of a world, by model name. Each prototype's model is constructed at most once, and
+	 * concurrent requests for the same model wait on that construction rather than constructing it again.
+	 *
+	 * Once disposed, the prototypes' source models are released and no further prototypes are retained.
+	 */
+	protected final class SharedSceneModelPrototypes {
+		private final AssetCache<URI, SharedSceneModelPrototype> m_prototypes = new AssetCache<>("sharedSceneModels", new ConstantWeigher<SharedSceneModelPrototype>(), Long.MAX_VALUE);
+		private final List<SharedSceneModelPrototype> m_loaded = new ArrayList<>();
+
+		private final ILoader<URI, SharedSceneModelPrototype, SceneModelConstructionException> m_loader = new ILoader<URI, SharedSceneModelPrototype, SceneModelConstructionException>() {
+			@Override
+			public SharedSceneModelPrototype load(URI name) throws SceneModelConstructionException {
+				SharedSceneModelPrototype prototype = new SharedSceneModelPrototype(m_sceneModelFactory.create(name));
+
+				synchronized (m_loaded) {
+					m_loaded.add(prototype);
+				}
+
+				return prototype;
+			}
+		};
+
+		public SharedSceneModelPrototype get(URI name) throws SceneModelConstructionException {
+			return m_prototypes.get(name, m_loader);
+		}
+
+		public void dispose() {
+			m_prototypes.clear();
+
+			synchronized (m_loaded) {
+				for (SharedSceneModelPrototype p : m_loaded)
+					p.disposeSource();
+
+				m_loaded.clear();
+			}
 		}
 	}
 
@@ -240,6 +464,10 @@ public class DefaultWorldFactory implements IWorldFactory {
 		public EntityImportDeclaration[] entities = new EntityImportDeclaration[0];
 		public ZoneDeclaration[] zones = new ZoneDeclaration[0];
 
+		//When non-zero, the world is streamed by region; the radius and region dimensions are measured in regions and sectors respectively.
+		public int regionRadius;
+		public int regionSectors = 1;
+
 		public WorldConfiguration() {
 		}
 
@@ -261,6 +489,11 @@ public class DefaultWorldFactory implements IWorldFactory {
 			target.addChild("artifactImports").setValue(this.artifactImports);
 			target.addChild("entities").setValue(this.entities);
 			target.addChild("zones").setValue(this.zones);
+
+			if (regionRadius > 0) {
+				target.addChild("regionRadius").setValue(this.regionRadius);
+				target.addChild("regionSectors").setValue(this.regionSectors);
+			}
 		}
 
 		@Override
@@ -282,6 +515,12 @@ public class DefaultWorldFactory implements IWorldFactory {
 				this.artifactImports = source.getChild("artifactImports").getValues(SceneArtifactImportDeclaration[].class);
 				this.entities = source.getChild("entities").getValues(EntityImportDeclaration[].class);
 				this.zones = source.getChild("zones").getValues(ZoneDeclaration[].class);
+
+				if (source.childExists("regionRadius"))
+					this.regionRadius = source.getChild("regionRadius").getInt();
+
+				if (source.childExists("regionSectors"))
+					this.regionSectors = source.getChild("regionSectors").getInt();
 			} catch (NoSuchChildVariableException e) {
 				throw new ValueSerializationException(e);
 			}
@@ -298,6 +537,9 @@ public class DefaultWorldFactory implements IWorldFactory {
 			@Nullable
 			public boolean isTraversable;
 
+			//Static, non-animated artifacts may share a single model across all of their instances.
+			public boolean isShared;
+
 			public Vector3F[] locations = new Vector3F[0];
 
 			public SceneArtifactImportDeclaration() {
@@ -310,6 +552,9 @@ public class DefaultWorldFactory implements IWorldFactory {
 				target.addChild("direction").setValue(direction.ordinal());
 				target.addChild("locations").setValue(locations);
 				target.addChild("isTraversable").setValue(this.isTraversable);
+
+				if (isShared)
+					target.addChild("isShared").setValue(true);
 			}
 
 			@Override
@@ -329,6 +574,9 @@ public class DefaultWorldFactory implements IWorldFactory {
 					direction = Direction.values()[dirBuffer];
 
 					this.isTraversable = source.getChild("isTraversable").getValue(Boolean.class);
+
+					if (source.childExists("isShared"))
+						this.isShared = source.getChild("isShared").getValue(Boolean.class);
 				} catch (NoSuchChildVariableException e) {
 					throw new ValueSerializationException(e);
 				}
@@ -24,22 +24,34 @@ import io.github.jevaengine.util.IObserverRegistry;
 import io.github.jevaengine.util.MutableProcessList;
 import io.github.jevaengine.util.Nullable;
 import io.github.jevaengine.util.Observers;
+import io.github.jevaengine.util.Profiler;
 import io.github.jevaengine.world.IImmutableEffectMap.LogicEffects;
 import io.github.jevaengine.world.entity.IEntity;
 import io.github.jevaengine.world.entity.IEntity.IEntityBodyObserver;
+import io.github.jevaengine.world.entity.SceneArtifact;
 import io.github.jevaengine.world.physics.*;
 import io.github.jevaengine.world.physics.PhysicsBodyDescription.PhysicsBodyType;
 import io.github.jevaengine.world.physics.PhysicsBodyShape.PhysicsBodyShapeType;
 import io.github.jevaengine.world.scene.ISceneBuffer;
+import io.github.jevaengine.world.scene.model.SharedSceneModel;
 import io.github.jevaengine.world.search.ISearchFilter;
 import io.github.jevaengine.world.search.RectangleSearchFilter;
 
 import java.lang.reflect.Array;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 
 public final class SceneGraph implements IDisposable {
+	static final int SECTOR_DIMENSIONS = EntitySector.SECTOR_DIMENSIONS;
+
+	private static final Profiler.Scope UPDATE_SCOPE = Profiler.getDefault().getScope("sceneGraph.update");
+	private static final Profiler.Scope RENDER_SCOPE = Profiler.getDefault().getScope("sceneGraph.enqueueRender");
+
 	private final List<EntitySector> m_sectors = new ArrayList<>();
 	private final List<EntityEntry> m_entities = new ArrayList<>();
 	private final List<EntityEntry> m_dynamicEntities = new MutableProcessList<>();
@@ -52,6 +64,12 @@ public final class SceneGraph implements IDisposable {
 
 	private final IEffectMapFactory m_effectMapFactory;
 
+	private final SceneOcclusionCuller m_occlusionCuller = new SceneOcclusionCuller();
+	private boolean m_isOcclusionCullingEnabled = false;
+	private int m_lastCulledCount = 0;
+
+	private boolean m_isStaticLayerPrerendered = false;
+
 	public SceneGraph(IPhysicsWorld hostWorld, IEffectMapFactory effectMapFactory) {
 		m_hostWorld = hostWorld;
 		m_effectMapFactory = effectMapFactory;
@@ -107,6 +125,22 @@ public final class SceneGraph implements IDisposable {
 		return getEntities(null);
 	}
 
+	public boolean isStaticLayerPrerendered() {
+		return m_isStaticLayerPrerendered;
+	}
+
+	/*
+	 * When enabled, static traversable scene artifacts (the floor layer) are baked into per-sector chunk
+	 * images which are enqueued in place of the individual artifacts. Only artifacts with shared models are
+	 * baked, since only those are guaranteed not to animate.
+	 */
+	public void setStaticLayerPrerendered(boolean isPrerendered) {
+		m_isStaticLayerPrerendered = isPrerendered;
+
+		for (EntitySector s : m_sectors)
+			s.invalidateStaticLayer();
+	}
+
 	public void add(IEntity entity) {
 		EntityEntry entry = new EntityEntry(entity);
 
@@ -118,6 +152,31 @@ public final class SceneGraph implements IDisposable {
 		m_observers.raise(ISceneGraphObserver.class).addedEntity(entity);
 	}
 
+	/*
+	 * Adds a batch of entities, resolving the sectors they occupy once for the whole batch, and raises a
+	 * single notification for the batch.
+	 */
+	public void addAll(Collection<? extends IEntity> entities) {
+		if (entities.isEmpty())
+			return;
+
+		Map<Vector2D, EntitySector> sectorCache = new HashMap<>();
+		List<IEntity> added = new ArrayList<>(entities.size());
+
+		for (IEntity entity : entities) {
+			EntityEntry entry = new EntityEntry(entity, sectorCache);
+
+			m_entities.add(entry);
+
+			if (!entity.isStatic())
+				m_dynamicEntities.add(entry);
+
+			added.add(entity);
+		}
+
+		m_observers.raise(ISceneGraphObserver.class).addedEntities(Collections.unmodifiableList(added));
+	}
+
 	public void remove(IEntity entity) {
 		Vector3F location = entity.getBody().getLocation();
 		EntityEntry entry = getEntityEntry(entity);
@@ -135,43 +194,83 @@ public final class SceneGraph implements IDisposable {
 		return m_globalEffectMap;
 	}
 
+	public boolean isOcclusionCullingEnabled() {
+		return m_isOcclusionCullingEnabled;
+	}
+
+	public void setOcclusionCullingEnabled(boolean isEnabled) {
+		m_isOcclusionCullingEnabled = isEnabled;
+		m_lastCulledCount = 0;
+	}
+
+	//Number of model components discarded by the last render enqueue.
+	public int getLastCulledCount() {
+		return m_lastCulledCount;
+	}
+
 	public void update(int delta) {
-		for (EntitySector sector : m_sectors)
-			sector.update(delta);
+		long update = UPDATE_SCOPE.begin();
 
-		for (EntityEntry e : m_dynamicEntities) {
-			e.getSubject().update(delta);
-			e.refresh();
+		try {
+			for (EntitySector sector : m_sectors)
+				sector.update(delta);
+
+			for (EntityEntry e : m_dynamicEntities) {
+				e.getSubject().update(delta);
+				e.refresh();
+			}
+		} finally {
+			UPDATE_SCOPE.end(update);
 		}
 	}
 
 	void enqueueRender(ISceneBuffer targetScene, Rect2F renderBounds) {
-		HashSet<Integer> renderSectors = new HashSet<>();
+		long enqueue = RENDER_SCOPE.begin();
 
-		int sectorX = (int) Math.floor((float) renderBounds.x / EntitySector.SECTOR_DIMENSIONS);
-		int sectorY = (int) Math.floor((float) renderBounds.y / EntitySector.SECTOR_DIMENSIONS);
-		int sectorWidth = (int) Math.ceil((float) renderBounds.width / (float) EntitySector.SECTOR_DIMENSIONS);
-		int sectorHeight = (int) Math.ceil((float) renderBounds.height / (float) EntitySector.SECTOR_DIMENSIONS);
+		try {
+			HashSet<Integer> renderSectors = new HashSet<>();
 
-		for (int y = sectorY; y <= sectorY + sectorHeight; y++) {
-			for (int x = sectorX; x <= sectorX + sectorWidth; x++) {
-				renderSectors.add(m_sectors.indexOf(new LayerSectorCoordinate(x, y, true)));
+			int sectorX = (int) Math.floor((float) renderBounds.x / EntitySector.SECTOR_DIMENSIONS);
+			int sectorY = (int) Math.floor((float) renderBounds.y / EntitySector.SECTOR_DIMENSIONS);
+			int sectorWidth = (int) Math.ceil((float) renderBounds.width / (float) EntitySector.SECTOR_DIMENSIONS);
+			int sectorHeight = (int) Math.ceil((float) renderBounds.height / (float) EntitySector.SECTOR_DIMENSIONS);
+
+			for (int y = sectorY; y <= sectorY + sectorHeight; y++) {
+				for (int x = sectorX; x <= sectorX + sectorWidth; x++) {
+					renderSectors.add(m_sectors.indexOf(new LayerSectorCoordinate(x, y, true)));
+				}
 			}
-		}
 
-		HashSet<IEntity> renderEntities = new HashSet<>();
-		for (Integer i : renderSectors) {
-			if (i >= 0)
-				m_sectors.get(i).enqueueRender(renderEntities, renderBounds);
-		}
+			HashSet<IEntity> renderEntities = new HashSet<>();
+			List<StaticLayerChunk> renderChunks = new ArrayList<>();
+			for (Integer i : renderSectors) {
+				if (i >= 0)
+					m_sectors.get(i).enqueueRender(renderEntities, renderChunks, renderBounds);
+			}
 
-		for (IEntity e : renderEntities)
-			targetScene.addModel(e.getModel(), e, e.getBody().getLocation());
+			//Chunks are enqueued first, so that they are drawn ahead of anything they are not explicitly sorted against.
+			for (StaticLayerChunk c : renderChunks)
+				targetScene.addModel(c, c.getLocation());
+
+			if (m_isOcclusionCullingEnabled)
+				m_lastCulledCount = m_occlusionCuller.enqueue(targetScene, renderEntities);
+			else {
+				for (IEntity e : renderEntities)
+					targetScene.addModel(e.getModel(), e, e.getBody().getLocation());
+			}
+		} finally {
+			RENDER_SCOPE.end(enqueue);
+		}
 	}
 
 	public interface ISceneGraphObserver {
 		void addedEntity(IEntity e);
 
+		default void addedEntities(Collection<IEntity> entities) {
+			for (IEntity e : entities)
+				addedEntity(e);
+		}
+
 		void removedEntity(Vector3F location, IEntity e);
 	}
 
@@ -230,11 +329,15 @@ public final class SceneGraph implements IDisposable {
 
 		private Vector3F m_lastLocation = null;
 
-		public EntityEntry(IEntity subject) {
+		public EntityEntry(IEntity subject, @Nullable Map<Vector2D, EntitySector> sectorCache) {
 			m_subject = subject;
 			subject.getObservers().add(m_observer);
 			subject.getBody().getObservers().add(m_observer);
-			place();
+			place(sectorCache);
+		}
+
+		public EntityEntry(IEntity subject) {
+			this(subject, null);
 		}
 
 		@Override
@@ -248,20 +351,33 @@ public final class SceneGraph implements IDisposable {
 			return m_subject;
 		}
 
-		private void place() {
+		//Sectors are only ever appended, so a cached lookup remains valid for as long as the cache is used.
+		private void place(@Nullable Map<Vector2D, EntitySector> sectorCache) {
 			Rect3F aabb = m_subject.getBody().getAABB();
 			Vector2D min = aabb.min().getXy().floor();
 			Vector2D max = aabb.max().getXy().ceil();
 
 			for (int x = min.x; x <= max.x; x++) {
 				for (int y = min.y; y <= max.y; y++) {
-					EntitySector s = getSector(new Vector2F(x, y));
+					EntitySector s = sectorCache == null ? null : sectorCache.get(new Vector2D(x, y));
+
+					if (s == null) {
+						s = getSector(new Vector2F(x, y));
+
+						if (sectorCache != null)
+							sectorCache.put(new Vector2D(x, y), s);
+					}
+
 					s.addEntity(m_subject);
 					m_containingSectors.add(s);
 				}
 			}
 		}
 
+		private void place() {
+			place(null);
+		}
+
 		private void remove() {
 			for (EntitySector s : m_containingSectors)
 				s.removeEntity(m_subject);
@@ -298,6 +414,7 @@ public final class SceneGraph implements IDisposable {
 
 	private final class EntitySector implements IDisposable {
 		protected static final int SECTOR_DIMENSIONS = 60;
+		protected static final int STATIC_LAYER_CHUNK_DIMENSIONS = 15;
 
 		private final List<IEntity> m_dynamic = new ArrayList<>();
 		private final List<IEntity> m_static = new ArrayList<>();
@@ -309,6 +426,9 @@ public final class SceneGraph implements IDisposable {
 		private final IPhysicsBody m_regionSensorBody;
 		private boolean m_isDirty = false;
 
+		private final List<StaticLayerChunk> m_staticLayer = new ArrayList<>();
+		private boolean m_isStaticLayerDirty = true;
+
 		public EntitySector(Vector2F containingLocation) {
 			m_location = containingLocation.divide(SECTOR_DIMENSIONS).floor();
 			Vector2D worldCoordinate = m_location.multiply(SECTOR_DIMENSIONS);
@@ -333,6 +453,7 @@ public final class SceneGraph implements IDisposable {
 			if (entity.isStatic()) {
 				m_static.add(entity);
 				m_isDirty = true;
+				m_isStaticLayerDirty = true;
 			} else
 				m_dynamic.add(entity);
 		}
@@ -343,6 +464,7 @@ public final class SceneGraph implements IDisposable {
 			if (m_static.contains(entity)) {
 				m_static.remove(entity);
 				m_isDirty = true;
+				m_isStaticLayerDirty = true;
 			}
 		}
 
@@ -385,8 +507,61 @@ public final class SceneGraph implements IDisposable {
 			}
 		}
 
-		public void enqueueRender(HashSet<IEntity> renderList, Rect2F renderBounds) {
+		public void invalidateStaticLayer() {
+			m_isStaticLayerDirty = true;
+		}
+
+		private boolean isStaticLayerMember(IEntity e) {
+			return e.isStatic() &&
+					e instanceof SceneArtifact &&
+					((SceneArtifact) e).isTraversable() &&
+					e.getModel() instanceof SharedSceneModel;
+		}
+
+		//Each artifact is baked only by the sector that contains its location, even if its bounds span several sectors.
+		private boolean isOwnedStaticLayerMember(IEntity e) {
+			return isStaticLayerMember(e) && e.getBody().getLocation().getXy().divide(SECTOR_DIMENSIONS).floor().equals(m_location);
+		}
+
+		private void rebuildStaticLayer() {
+			m_staticLayer.clear();
+
+			Map<Vector2D, StaticLayerChunk> chunks = new HashMap<>();
+
+			for (IEntity e : m_static) {
+				if (!isOwnedStaticLayerMember(e))
+					continue;
+
+				Vector2D chunkLocation = e.getBody().getLocation().getXy().divide(STATIC_LAYER_CHUNK_DIMENSIONS).floor();
+				StaticLayerChunk chunk = chunks.get(chunkLocation);
+
+				if (chunk == null) {
+					chunk = new StaticLayerChunk(new Vector3F(chunkLocation.multiply(STATIC_LAYER_CHUNK_DIMENSIONS), 0));
+					chunks.put(chunkLocation, chunk);
+					m_staticLayer.add(chunk);
+				}
+
+				chunk.add(e);
+			}
+
+			m_isStaticLayerDirty = false;
+		}
+
+		public void enqueueRender(HashSet<IEntity> renderList, List<StaticLayerChunk> renderChunks, Rect2F renderBounds) {
+			if (m_isStaticLayerPrerendered) {
+				if (m_isStaticLayerDirty)
+					rebuildStaticLayer();
+
+				for (StaticLayerChunk c : m_staticLayer) {
+					if (renderBounds.intersects(c.getAABB().getXy().add(c.getLocation().getXy())))
+						renderChunks.add(c);
+				}
+			}
+
 			for (IEntity e : m_static) {
+				if (m_isStaticLayerPrerendered && isStaticLayerMember(e))
+					continue;
+
 				Vector2F location = e.getBody().getLocation().getXy();
 
 				if (renderBounds.intersects(e.getModel().getAABB().getXy().add(location)))
@@ -0,0 +1,362 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.world;
+
+import io.github.jevaengine.math.Matrix3X3;
+import io.github.jevaengine.math.Rect2D;
+import io.github.jevaengine.math.Rect3F;
+import io.github.jevaengine.math.Vector2D;
+import io.github.jevaengine.math.Vector3F;
+import io.github.jevaengine.world.entity.IEntity;
+import io.github.jevaengine.world.physics.PhysicsBodyShape;
+import io.github.jevaengine.world.scene.IImmutableSceneBuffer;
+import io.github.jevaengine.world.scene.ISceneBuffer;
+import io.github.jevaengine.world.scene.model.IImmutableSceneModel;
+import io.github.jevaengine.world.scene.model.ISceneModel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/*
+ * Coarse screen-space occlusion pass. Large static entities are rasterized, front to back, into a grid
+ * of coverage cells, each cell remembering the depth of the furthest back plane of any occluder whose
+ * projected silhouette completely covers it. Model components whose projected bounds lie entirely within
+ * cells covered by an occluder sitting in front of them are discarded before they reach the scene buffer.
+ *
+ * The pass assumes occluders are opaque over their projected silhouettes, which is why it is opt-in.
+ */
+final class SceneOcclusionCuller {
+	private static final int DEFAULT_CELL_SIZE = 16;
+	private static final int DEFAULT_MIN_OCCLUDER_CELLS = 2;
+
+	private final int m_cellSize;
+	private final int m_minOccluderCells;
+
+	private final List<CullEntry> m_entries = new ArrayList<>();
+	private final List<CullEntry> m_occluders = new ArrayList<>();
+	private float[] m_coverage = new float[0];
+
+	private int m_culledCount = 0;
+
+	public SceneOcclusionCuller(int cellSize, int minOccluderCells) {
+		m_cellSize = Math.max(1, cellSize);
+		m_minOccluderCells = Math.max(1, minOccluderCells);
+	}
+
+	public SceneOcclusionCuller() {
+		this(DEFAULT_CELL_SIZE, DEFAULT_MIN_OCCLUDER_CELLS);
+	}
+
+	private static float getDepth(float x, float y, float z) {
+		return x + y + z;
+	}
+
+	private static long cross(Vector2D o, Vector2D a, int x, int y) {
+		return (long) (a.x - o.x) * (y - o.y) - (long) (a.y - o.y) * (x - o.x);
+	}
+
+	/*
+	 * Adds the render set to the target scene, discarding all fully occluded model components, and returns the
+	 * number of discarded components.
+	 */
+	public int enqueue(ISceneBuffer targetScene, Collection<IEntity> renderEntities) {
+		m_entries.clear();
+		m_occluders.clear();
+		m_culledCount = 0;
+
+		int minX = Integer.MAX_VALUE;
+		int minY = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE;
+		int maxY = Integer.MIN_VALUE;
+
+		for (IEntity e : renderEntities) {
+			CullEntry entry = new CullEntry(e, e.getModel().getAABB().add(e.getBody().getLocation()), targetScene);
+			m_entries.add(entry);
+
+			minX = Math.min(minX, entry.screenBounds.x);
+			minY = Math.min(minY, entry.screenBounds.y);
+			maxX = Math.max(maxX, entry.screenBounds.x + entry.screenBounds.width);
+			maxY = Math.max(maxY, entry.screenBounds.y + entry.screenBounds.height);
+
+			if (e.isStatic() &&
+					entry.screenBounds.width >= m_cellSize * m_minOccluderCells &&
+					entry.screenBounds.height >= m_cellSize * m_minOccluderCells)
+				m_occluders.add(entry);
+		}
+
+		if (m_occluders.isEmpty()) {
+			for (CullEntry entry : m_entries)
+				targetScene.addModel(entry.subject.getModel(), entry.subject, entry.subject.getBody().getLocation());
+
+			m_entries.clear();
+
+			return 0;
+		}
+
+		CoverageGrid grid = new CoverageGrid(minX, minY, maxX, maxY);
+
+		//Front to back, so that occluders hidden by closer occluders need not be rasterized.
+		Collections.sort(m_occluders, new Comparator<CullEntry>() {
+			@Override
+			public int compare(CullEntry a, CullEntry b) {
+				return Float.compare(b.nearDepth, a.nearDepth);
+			}
+		});
+
+		for (CullEntry occluder : m_occluders) {
+			if (!grid.isOccluded(occluder.screenBounds, occluder.nearDepth))
+				grid.rasterize(occluder);
+		}
+
+		//Components lie within their model's bounds, so only models reaching behind some coverage need be filtered.
+		for (CullEntry entry : m_entries) {
+			IEntity e = entry.subject;
+			Vector3F location = e.getBody().getLocation();
+
+			if (grid.isCovered(entry.screenBounds, entry.farDepth))
+				targetScene.addModel(new OccludedSceneModel(e.getModel(), location, grid, targetScene), e, location);
+			else
+				targetScene.addModel(e.getModel(), e, location);
+		}
+
+		m_entries.clear();
+		m_occluders.clear();
+
+		return m_culledCount;
+	}
+
+	private static final class CullEntry {
+		private final IEntity subject;
+		private final Vector2D[] corners = new Vector2D[8];
+		private final Rect2D screenBounds;
+		private final float nearDepth;
+		private final float farDepth;
+
+		public CullEntry(IEntity _subject, Rect3F bounds, IImmutableSceneBuffer targetScene) {
+			subject = _subject;
+
+			for (int i = 0; i < 8; i++)
+				corners[i] = targetScene.translateWorldToScreen(bounds.getPoint(i & 1, (i >> 1) & 1, (i >> 2) & 1));
+
+			screenBounds = getScreenBounds(corners);
+			nearDepth = getDepth(bounds.x + bounds.width, bounds.y + bounds.height, bounds.z + bounds.depth);
+			farDepth = getDepth(bounds.x, bounds.y, bounds.z);
+		}
+
+		private static Rect2D getScreenBounds(Vector2D[] corners) {
+			int minX = Integer.MAX_VALUE;
+			int minY = Integer.MAX_VALUE;
+			int maxX = Integer.MIN_VALUE;
+			int maxY = Integer.MIN_VALUE;
+
+			for (Vector2D corner : corners) {
+				minX = Math.min(minX, corner.x);
+				minY = Math.min(minY, corner.y);
+				maxX = Math.max(maxX, corner.x);
+				maxY = Math.max(maxY, corner.y);
+			}
+
+			return new Rect2D(minX, minY, maxX - minX, maxY - minY);
+		}
+
+		//Convex hull of the projected corners, counter-clockwise. An orthographically projected box is a hexagon.
+		public Vector2D[] getSilhouette() {
+			Vector2D[] points = Arrays.copyOf(corners, corners.length);
+			Arrays.sort(points, new Comparator<Vector2D>() {
+				@Override
+				public int compare(Vector2D a, Vector2D b) {
+					return a.x != b.x ? Integer.compare(a.x, b.x) : Integer.compare(a.y, b.y);
+				}
+			});
+
+			Vector2D[] hull = new Vector2D[points.length * 2];
+			int count = 0;
+
+			for (int i = 0; i < points.length; i++) {
+				while (count >= 2 && cross(hull[count - 2], hull[count - 1], points[i].x, points[i].y) <= 0)
+					count--;
+
+				hull[count++] = points[i];
+			}
+
+			for (int i = points.length - 2, lower = count + 1; i >= 0; i--) {
+				while (count >= lower && cross(hull[count - 2], hull[count - 1], points[i].x, points[i].y) <= 0)
+					count--;
+
+				hull[count++] = points[i];
+			}
+
+			return Arrays.copyOf(hull, Math.max(0, count - 1));
+		}
+	}
+
+	private final class CoverageGrid {
+		private final int m_originX;
+		private final int m_originY;
+		private final int m_width;
+		private final int m_height;
+
+		public CoverageGrid(int minX, int minY, int maxX, int maxY) {
+			m_originX = Math.floorDiv(minX, m_cellSize);
+			m_originY = Math.floorDiv(minY, m_cellSize);
+			m_width = Math.floorDiv(maxX, m_cellSize) - m_originX + 1;
+			m_height = Math.floorDiv(maxY, m_cellSize) - m_originY + 1;
+
+			int cells = m_width * m_height;
+
+			if (m_coverage.length < cells)
+				m_coverage = new float[cells];
+
+			Arrays.fill(m_coverage, 0, cells, Float.NEGATIVE_INFINITY);
+		}
+
+		private boolean contains(Vector2D[] silhouette, int x, int y) {
+			for (int i = 0; i < silhouette.length; i++) {
+				if (cross(silhouette[i], silhouette[(i + 1) % silhouette.length], x, y) < 0)
+					return false;
+			}
+
+			return true;
+		}
+
+		//Only cells entirely contained by the occluder's silhouette are marked as covered.
+		public void rasterize(CullEntry occluder) {
+			Vector2D[] silhouette = occluder.getSilhouette();
+
+			if (silhouette.length < 3)
+				return;
+
+			Rect2D r = occluder.screenBounds;
+			int startX = Math.floorDiv(r.x + m_cellSize - 1, m_cellSize);
+			int startY = Math.floorDiv(r.y + m_cellSize - 1, m_cellSize);
+			int endX = Math.floorDiv(r.x + r.width, m_cellSize);
+			int endY = Math.floorDiv(r.y + r.height, m_cellSize);
+
+			for (int y = startY; y < endY; y++) {
+				for (int x = startX; x < endX; x++) {
+					int left = x * m_cellSize;
+					int top = y * m_cellSize;
+					int right = left + m_cellSize;
+					int bottom = top + m_cellSize;
+
+					if (contains(silhouette, left, top) && contains(silhouette, right, top) &&
+							contains(silhouette, left, bottom) && contains(silhouette, right, bottom)) {
+						int i = (y - m_originY) * m_width + (x - m_originX);
+						m_coverage[i] = Math.max(m_coverage[i], occluder.farDepth);
+					}
+				}
+			}
+		}
+
+		//Every cell touched by the bounds must be covered by something entirely in front of the given depth.
+		public boolean isOccluded(Rect2D r, float nearDepth) {
+			int startX = Math.floorDiv(r.x, m_cellSize) - m_originX;
+			int startY = Math.floorDiv(r.y, m_cellSize) - m_originY;
+			int endX = Math.floorDiv(r.x + r.width, m_cellSize) - m_originX;
+			int endY = Math.floorDiv(r.y + r.height, m_cellSize) - m_originY;
+
+			//Nothing outside of the grid is covered.
+			if (startX < 0 || startY < 0 || endX >= m_width || endY >= m_height)
+				return false;
+
+			for (int y = startY; y <= endY; y++) {
+				for (int x = startX; x <= endX; x++) {
+					if (!(m_coverage[y * m_width + x] > nearDepth))
+						return false;
+				}
+			}
+
+			return true;
+		}
+
+		//Whether any cell touched by the bounds is covered by something in front of the given depth.
+		public boolean isCovered(Rect2D r, float depth) {
+			int startX = Math.max(0, Math.floorDiv(r.x, m_cellSize) - m_originX);
+			int startY = Math.max(0, Math.floorDiv(r.y, m_cellSize) - m_originY);
+			int endX = Math.min(m_width - 1, Math.floorDiv(r.x + r.width, m_cellSize) - m_originX);
+			int endY = Math.min(m_height - 1, Math.floorDiv(r.y + r.height, m_cellSize) - m_originY);
+
+			for (int y = startY; y <= endY; y++) {
+				for (int x = startX; x <= endX; x++) {
+					if (m_coverage[y * m_width + x] > depth)
+						return true;
+				}
+			}
+
+			return false;
+		}
+	}
+
+	//Filters the components of a model as the scene buffer adds them; it is only valid while the grid it reads is.
+	private final class OccludedSceneModel implements IImmutableSceneModel {
+		private final IImmutableSceneModel m_model;
+		private final Vector3F m_location;
+		private final CoverageGrid m_grid;
+		private final IImmutableSceneBuffer m_targetScene;
+
+		public OccludedSceneModel(IImmutableSceneModel model, Vector3F location, CoverageGrid grid, IImmutableSceneBuffer targetScene) {
+			m_model = model;
+			m_location = location;
+			m_grid = grid;
+			m_targetScene = targetScene;
+		}
+
+		@Override
+		public ISceneModel clone() throws SceneModelNotCloneableException {
+			return m_model.clone();
+		}
+
+		@Override
+		public Collection<ISceneModelComponent> getComponents(Matrix3X3 projection) {
+			Collection<ISceneModelComponent> components = m_model.getComponents(projection);
+			List<ISceneModelComponent> visible = new ArrayList<>(components.size());
+
+			for (ISceneModelComponent c : components) {
+				Rect3F bounds = new Rect3F(c.getBounds()).add(m_location.add(c.getOrigin()));
+				CullEntry entry = new CullEntry(null, bounds, m_targetScene);
+
+				if (m_grid.isOccluded(entry.screenBounds, entry.nearDepth))
+					m_culledCount++;
+				else
+					visible.add(c);
+			}
+
+			return visible;
+		}
+
+		@Override
+		public Rect3F getAABB() {
+			return m_model.getAABB();
+		}
+
+		@Override
+		public Direction getDirection() {
+			return m_model.getDirection();
+		}
+
+		@Override
+		public PhysicsBodyShape getBodyShape() {
+			return m_model.getBodyShape();
+		}
+	}
+}
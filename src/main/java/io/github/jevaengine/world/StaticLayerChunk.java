@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.world;
+
+import io.github.jevaengine.math.Matrix3X3;
+import io.github.jevaengine.math.Rect3F;
+import io.github.jevaengine.math.Vector3F;
+import io.github.jevaengine.util.Nullable;
+import io.github.jevaengine.world.entity.IEntity;
+import io.github.jevaengine.world.physics.PhysicsBodyShape;
+import io.github.jevaengine.world.scene.model.IImmutableSceneModel;
+import io.github.jevaengine.world.scene.model.ISceneModel;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/*
+ * A block of static floor entities baked into a single image, so that the whole block costs one
+ * scene buffer entry and one blit. The image is baked lazily on first render and re-baked whenever the
+ * projection or render scale differs from the one it was baked for.
+ *
+ * Baked members are neither pickable nor subject to per-component scene effects.
+ */
+final class StaticLayerChunk implements IImmutableSceneModel {
+	//Margin, in projected tiles, reserved around members for sprites that overhang their bounds.
+	private static final int OVERHANG_TILES = 1;
+
+	private final Vector3F m_location;
+	private final List<IEntity> m_members = new ArrayList<>();
+
+	@Nullable
+	private Rect3F m_aabb;
+
+	@Nullable
+	private BufferedImage m_image;
+	private int m_originX;
+	private int m_originY;
+	private float m_bakedScale;
+	private final float[] m_bakedProjection = new float[9];
+
+	public StaticLayerChunk(Vector3F location) {
+		m_location = new Vector3F(location);
+	}
+
+	public Vector3F getLocation() {
+		return new Vector3F(m_location);
+	}
+
+	public void add(IEntity member) {
+		m_members.add(member);
+		m_aabb = null;
+		m_image = null;
+	}
+
+	public boolean isEmpty() {
+		return m_members.isEmpty();
+	}
+
+	private static void flatten(Matrix3X3 projection, float[] dest) {
+		for (int i = 0; i < 9; i++)
+			dest[i] = projection.matrix[i / 3][i % 3];
+	}
+
+	private boolean isBaked(Matrix3X3 projection, float scale) {
+		if (m_image == null || m_bakedScale != scale)
+			return false;
+
+		for (int i = 0; i < 9; i++) {
+			if (Float.compare(projection.matrix[i / 3][i % 3], m_bakedProjection[i]) != 0)
+				return false;
+		}
+
+		return true;
+	}
+
+	private void bake(GraphicsConfiguration configuration, Matrix3X3 projection, float scale) {
+		Matrix3X3 scaledProjection = projection.scale(scale);
+
+		List<ISceneModelComponent> components = new ArrayList<>();
+		List<Vector3F> offsets = new ArrayList<>();
+
+		float minX = Float.MAX_VALUE;
+		float minY = Float.MAX_VALUE;
+		float maxX = -Float.MAX_VALUE;
+		float maxY = -Float.MAX_VALUE;
+
+		for (IEntity e : m_members) {
+			Vector3F location = e.getBody().getLocation().difference(m_location);
+
+			for (ISceneModelComponent c : e.getModel().getComponents(new Matrix3X3(projection))) {
+				Rect3F bounds = c.getBounds().add(location.add(c.getOrigin()));
+
+				for (int i = 0; i < 8; i++) {
+					Vector3F corner = scaledProjection.dot(bounds.getPoint(i & 1, (i >> 1) & 1, (i >> 2) & 1));
+					minX = Math.min(minX, corner.x);
+					minY = Math.min(minY, corner.y);
+					maxX = Math.max(maxX, corner.x);
+					maxY = Math.max(maxY, corner.y);
+				}
+
+				components.add(c);
+				offsets.add(scaledProjection.dot(location.add(c.getOrigin())));
+			}
+		}
+
+		m_image = null;
+
+		if (components.isEmpty())
+			return;
+
+		Vector3F tile = scaledProjection.dot(new Vector3F(1, 1, 1));
+		int overhang = OVERHANG_TILES * (int) Math.ceil(Math.max(Math.abs(tile.x), Math.abs(tile.y)));
+
+		m_originX = overhang - (int) Math.floor(minX);
+		m_originY = overhang - (int) Math.floor(minY);
+
+		int width = (int) Math.ceil(maxX) + m_originX + overhang;
+		int height = (int) Math.ceil(maxY) + m_originY + overhang;
+
+		BufferedImage image = configuration.createCompatibleImage(Math.max(1, width), Math.max(1, height), Transparency.TRANSLUCENT);
+		Graphics2D g = image.createGraphics();
+
+		for (int i = 0; i < components.size(); i++) {
+			Vector3F offset = offsets.get(i);
+			components.get(i).render(g, m_originX + Math.round(offset.x), m_originY + Math.round(offset.y), scale);
+		}
+
+		g.dispose();
+
+		m_image = image;
+		m_bakedScale = scale;
+		flatten(projection, m_bakedProjection);
+	}
+
+	@Override
+	public ISceneModel clone() throws SceneModelNotCloneableException {
+		throw new SceneModelNotCloneableException();
+	}
+
+	@Override
+	public Collection<ISceneModelComponent> getComponents(Matrix3X3 projection) {
+		List<ISceneModelComponent> components = new ArrayList<>();
+		components.add(new StaticLayerComponent(projection));
+
+		return components;
+	}
+
+	@Override
+	public Rect3F getAABB() {
+		if (m_aabb != null)
+			return new Rect3F(m_aabb);
+
+		Rect3F aabbs[] = new Rect3F[m_members.size()];
+
+		for (int i = 0; i < aabbs.length; i++) {
+			IEntity e = m_members.get(i);
+			aabbs[i] = e.getModel().getAABB().add(e.getBody().getLocation().difference(m_location));
+		}
+
+		m_aabb = Rect3F.getAABB(aabbs);
+
+		return new Rect3F(m_aabb);
+	}
+
+	@Override
+	public Direction getDirection() {
+		return Direction.Zero;
+	}
+
+	@Override
+	public PhysicsBodyShape getBodyShape() {
+		return new PhysicsBodyShape();
+	}
+
+	private final class StaticLayerComponent implements ISceneModelComponent {
+		private final Matrix3X3 m_projection;
+
+		public StaticLayerComponent(Matrix3X3 projection) {
+			m_projection = projection;
+		}
+
+		@Override
+		public String getName() {
+			return "staticLayer";
+		}
+
+		@Override
+		public void render(Graphics2D g, int x, int y, float scale) {
+			if (!isBaked(m_projection, scale))
+				bake(g.getDeviceConfiguration(), m_projection, scale);
+
+			if (m_image != null)
+				g.drawImage(m_image, x - m_originX, y - m_originY, null);
+		}
+
+		@Override
+		public boolean testPick(int x, int y, float scale) {
+			return false;
+		}
+
+		@Override
+		public Rect3F getBounds() {
+			return getAABB();
+		}
+
+		@Override
+		public Vector3F getOrigin() {
+			return new Vector3F();
+		}
+	}
+}
@@ -19,6 +19,7 @@
 package io.github.jevaengine.world;
 
 import io.github.jevaengine.FutureResult;
+import io.github.jevaengine.IDisposable;
 import io.github.jevaengine.IInitializationMonitor;
 import io.github.jevaengine.config.IImmutableVariable;
 import io.github.jevaengine.config.NullVariable;
@@ -28,8 +29,10 @@ import io.github.jevaengine.script.IScriptBuilder.ScriptConstructionException;
 import io.github.jevaengine.util.IObserverRegistry;
 import io.github.jevaengine.util.Nullable;
 import io.github.jevaengine.util.Observers;
+import io.github.jevaengine.util.Profiler;
 import io.github.jevaengine.util.SynchronousExecutor;
 import io.github.jevaengine.util.SynchronousExecutor.ISynchronousTask;
+import io.github.jevaengine.util.SynchronousExecutor.Priority;
 import io.github.jevaengine.world.IWeatherFactory.IWeather;
 import io.github.jevaengine.world.SceneGraph.EntitySet;
 import io.github.jevaengine.world.SceneGraph.ISceneGraphObserver;
@@ -46,12 +49,23 @@ import org.slf4j.LoggerFactory;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class World implements IDisposable {
+	private static final Profiler.Scope UPDATE_SCOPE = Profiler.getDefault().getScope("world.update");
+	private static final Profiler.Scope SYNCHRONOUS_SCOPE = Profiler.getDefault().getScope("world.update.synchronousTasks");
+	private static final Profiler.Scope WEATHER_SCOPE = Profiler.getDefault().getScope("world.update.weather");
+
+	//Time each update may spend on synchronous tasks, such as entity construction completions, before deferring the rest.
+	private static final long SYNCHRONOUS_TASK_BUDGET = TimeUnit.MILLISECONDS.toNanos(4);
 
-public final class World {
 	private final Logger m_logger = LoggerFactory.getLogger(World.class);
 	private final Observers m_observers = new Observers();
 
@@ -63,9 +77,12 @@ public final class World {
 	private SceneGraph m_sceneGraph;
 	private Rect2D m_worldBounds;
 	private WorldBridgeNotifier m_script;
-	private SynchronousExecutor m_syncExecuter = new SynchronousExecutor();
+	private SynchronousExecutor m_syncExecuter = new SynchronousExecutor(SYNCHRONOUS_TASK_BUDGET);
 	private IWeather m_weather;
 
+	@Nullable
+	private WorldRegionStreamer m_regionStreamer;
+
 	public World(int worldWidth, int worldHeight, float friction, float metersPerUnit, float logicPerUnit, IWeather weather, IPhysicsWorldFactory physicsWorldFactory, IEffectMapFactory effectMapFactory, IParallelEntityFactory entityFactory, @Nullable IScriptBuilder scriptFactory) {
 		m_weather = weather;
 
@@ -88,6 +105,17 @@ public final class World {
 			m_script = new WorldBridgeNotifier();
 	}
 
+	@Override
+	public void dispose() {
+		m_sceneGraph.dispose();
+
+		if (m_weather != null)
+			m_weather.dispose();
+
+		m_observers.raise(IWorldObserver.class).disposed();
+		m_observers.clear();
+	}
+
 	public IWeather getWeather() {
 		return m_weather;
 	}
@@ -123,6 +151,40 @@ public final class World {
 		return m_sceneGraph.getEffectMap();
 	}
 
+	public boolean isOcclusionCullingEnabled() {
+		return m_sceneGraph.isOcclusionCullingEnabled();
+	}
+
+	public void setOcclusionCullingEnabled(boolean isEnabled) {
+		m_sceneGraph.setOcclusionCullingEnabled(isEnabled);
+	}
+
+	public int getLastCulledCount() {
+		return m_sceneGraph.getLastCulledCount();
+	}
+
+	public boolean isStaticLayerPrerendered() {
+		return m_sceneGraph.isStaticLayerPrerendered();
+	}
+
+	public void setStaticLayerPrerendered(boolean isPrerendered) {
+		m_sceneGraph.setStaticLayerPrerendered(isPrerendered);
+	}
+
+	@Nullable
+	public WorldRegionStreamer getRegionStreamer() {
+		return m_regionStreamer;
+	}
+
+	public void setRegionStreamer(@Nullable WorldRegionStreamer regionStreamer) {
+		m_regionStreamer = regionStreamer;
+	}
+
+	//Runs the task during a later update, within the budget shared by all synchronous tasks of this world.
+	void enqueueSynchronous(ISynchronousTask task, Priority priority) {
+		m_syncExecuter.enqueue(task, priority);
+	}
+
 	public void addZone(String name, Rect3F zone) {
 		m_zones.put(name, zone);
 	}
@@ -146,6 +208,13 @@ public final class World {
 		m_sceneGraph.add(entity);
 	}
 
+	public void addEntities(Collection<? extends IEntity> entities) {
+		for (IEntity e : entities)
+			e.associate(this);
+
+		m_sceneGraph.addAll(entities);
+	}
+
 	public void removeEntity(IEntity entity) {
 		m_sceneGraph.remove(entity);
 
@@ -162,13 +231,36 @@ public final class World {
 	}
 
 	public void update(int delta) {
-		m_syncExecuter.execute();
-		m_sceneGraph.update(delta);
+		long update = UPDATE_SCOPE.begin();
+
+		try {
+			long synchronous = SYNCHRONOUS_SCOPE.begin();
+
+			try {
+				m_syncExecuter.execute();
+			} finally {
+				SYNCHRONOUS_SCOPE.end(synchronous);
+			}
+
+			if (m_regionStreamer != null)
+				m_regionStreamer.update();
+
+			m_sceneGraph.update(delta);
+
+			//It is important that the physics world be updated after the entities have been updated.
+			//The forces to be applied this cycle may be relative to the delta time elapsed since last cycle.
+			m_physicsWorld.update(delta);
+
+			long weather = WEATHER_SCOPE.begin();
 
-		//It is important that the physics world be updated after the entities have been updated.
-		//The forces to be applied this cycle may be relative to the delta time elapsed since last cycle.
-		m_physicsWorld.update(delta);
-		m_weather.update(delta);
+			try {
+				m_weather.update(delta);
+			} finally {
+				WEATHER_SCOPE.end(weather);
+			}
+		} finally {
+			UPDATE_SCOPE.end(update);
+		}
 	}
 
 	public void fillScene(ISceneBuffer sceneBuffer, Rect2F region) {
@@ -179,7 +271,15 @@ public final class World {
 	public interface IWorldObserver {
 		void addedEntity(IEntity e);
 
+		default void addedEntities(Collection<IEntity> entities) {
+			for (IEntity e : entities)
+				addedEntity(e);
+		}
+
 		void removedEntity(Vector3F location, IEntity e);
+
+		//Raised once the world's entities have been disposed. Resources retained for the world must be released.
+		default void disposed() { }
 	}
 
 	private class WorldEntityObserver implements ISceneGraphObserver {
@@ -188,6 +288,12 @@ public final class World {
 			m_observers.raise(IWorldObserver.class).addedEntity(e);
 		}
 
+		@Override
+		public void addedEntities(Collection<IEntity> entities) {
+			m_observers.raise(IWorldObserver.class).addedEntities(entities);
+			m_script.addedEntities(entities);
+		}
+
 		@Override
 		public void removedEntity(Vector3F location, IEntity e) {
 			m_observers.raise(IWorldObserver.class).removedEntity(location, e);
@@ -218,16 +324,31 @@ public final class World {
 		@Override
 		public void addedEntity(IEntity subject) {
 			try {
-				m_bridge.onEntityEnter.fire(subject.getBody());
+				m_bridge.onEntityEnter.fire(subject.getBridge());
 			} catch (ScriptExecuteException e) {
 				m_logger.error("Unable to completely invoke onEntityEnter script event", e);
 			}
 		}
 
+		@Override
+		public void addedEntities(Collection<IEntity> entities) {
+			EntityBridge[] bridges = new EntityBridge[entities.size()];
+			int i = 0;
+
+			for (IEntity e : entities)
+				bridges[i++] = e.getBridge();
+
+			try {
+				m_bridge.onEntitiesEnter.fire((Object) bridges);
+			} catch (ScriptExecuteException e) {
+				m_logger.error("Unable to completely invoke onEntitiesEnter script event", e);
+			}
+		}
+
 		@Override
 		public void removedEntity(Vector3F location, IEntity subject) {
 			try {
-				m_bridge.onEntityLeave.fire(subject.getBody());
+				m_bridge.onEntityLeave.fire(subject.getBridge());
 			} catch (ScriptExecuteException e) {
 				m_logger.error("Unable to completely invoke onEntityEnter script event", e);
 			}
@@ -238,6 +359,9 @@ public final class World {
 		public final ScriptEvent onTick;
 		public final ScriptEvent onEntityEnter;
 		public final ScriptEvent onEntityLeave;
+
+		//Raised once, with an array of entity bridges, for entities added as a batch.
+		public final ScriptEvent onEntitiesEnter;
 		private final IFunctionFactory m_functionFactory;
 		private final Logger m_logger = LoggerFactory.getLogger(WorldBridge.class);
 
@@ -247,6 +371,7 @@ public final class World {
 			onTick = new ScriptEvent(functionFactory);
 			onEntityEnter = new ScriptEvent(functionFactory);
 			onEntityLeave = new ScriptEvent(functionFactory);
+			onEntitiesEnter = new ScriptEvent(functionFactory);
 
 			m_functionFactory = functionFactory;
 		}
@@ -306,6 +431,64 @@ public final class World {
 			}
 		}
 
+		/*
+		 * Constructs one entity per auxiliary configuration in parallel. Once every entity has been constructed, those
+		 * which were constructed successfully are added to the world together, and the callback is invoked once with
+		 * an array of their bridges.
+		 */
+		public void createEntities(String entityTypeName, String config, IImmutableVariable[] auxConfigs, @Nullable final Object rawSuccessCallback) {
+			final IFunction successCallback = wrapFunction(rawSuccessCallback);
+
+			URI configName;
+
+			try {
+				configName = config == null ? m_context : new URI(config);
+			} catch (URISyntaxException e) {
+				m_logger.error("Unable to construct entities requested by script:", e);
+				return;
+			}
+
+			final IEntity[] entities = new IEntity[auxConfigs.length];
+			final AtomicInteger remaining = new AtomicInteger(auxConfigs.length);
+
+			if (auxConfigs.length == 0) {
+				m_syncExecuter.enqueue(new BatchSpawnTask(entities, successCallback));
+				return;
+			}
+
+			for (int i = 0; i < auxConfigs.length; i++) {
+				final int index = i;
+
+				m_entityFactory.create(entityTypeName, null, configName, auxConfigs[i], new IInitializationMonitor<IEntity, EntityConstructionException>() {
+
+					@Override
+					public void statusChanged(float progress, String status) {
+					}
+
+					@Override
+					public void completed(FutureResult<IEntity, EntityConstructionException> item) {
+						try {
+							entities[index] = item.get();
+						} catch (EntityConstructionException e) {
+							m_logger.error("Unable to construct entity requested by script:", e);
+						}
+
+						if (remaining.decrementAndGet() == 0)
+							m_syncExecuter.enqueue(new BatchSpawnTask(entities, successCallback));
+					}
+				});
+			}
+		}
+
+		public void createEntities(String entityTypeName, String config, int count, @Nullable Object rawSuccessCallback) {
+			IImmutableVariable[] auxConfigs = new IImmutableVariable[Math.max(0, count)];
+
+			for (int i = 0; i < auxConfigs.length; i++)
+				auxConfigs[i] = new NullVariable();
+
+			createEntities(entityTypeName, config, auxConfigs, rawSuccessCallback);
+		}
+
 		public void createEntity(String entityTypeName, String config, IImmutableVariable auxConfig, @Nullable final Object rawSuccessCallback) {
 			createEntity(null, entityTypeName, config, auxConfig, rawSuccessCallback);
 		}
@@ -344,5 +527,44 @@ public final class World {
 			Collection<Rect3F> zones = World.this.getContainingZones(location).values();
 			return zones.toArray(new Rect3F[zones.size()]);
 		}
+
+		private final class BatchSpawnTask implements ISynchronousTask {
+			private final IEntity[] m_entities;
+
+			@Nullable
+			private final IFunction m_successCallback;
+
+			public BatchSpawnTask(IEntity[] entities, @Nullable IFunction successCallback) {
+				m_entities = entities;
+				m_successCallback = successCallback;
+			}
+
+			@Override
+			public boolean run() {
+				List<IEntity> constructed = new ArrayList<>(m_entities.length);
+
+				for (IEntity e : m_entities) {
+					if (e != null)
+						constructed.add(e);
+				}
+
+				World.this.addEntities(constructed);
+
+				if (m_successCallback != null) {
+					EntityBridge[] bridges = new EntityBridge[constructed.size()];
+
+					for (int i = 0; i < bridges.length; i++)
+						bridges[i] = constructed.get(i).getBridge();
+
+					try {
+						m_successCallback.call((Object) bridges);
+					} catch (ScriptExecuteException e) {
+						m_logger.error("Error invoking entity construction success callback", e);
+					}
+				}
+
+				return true;
+			}
+		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,312 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.world;
+
+import io.github.jevaengine.IEngineThreadPool;
+import io.github.jevaengine.IEngineThreadPool.Purpose;
+import io.github.jevaengine.math.Vector2D;
+import io.github.jevaengine.math.Vector3F;
+import io.github.jevaengine.util.SynchronousExecutor.ISynchronousTask;
+import io.github.jevaengine.util.SynchronousExecutor.Priority;
+import io.github.jevaengine.util.ThreadSafe;
+import io.github.jevaengine.world.DefaultWorldFactory.WorldConfiguration.EntityImportDeclaration;
+import io.github.jevaengine.world.DefaultWorldFactory.WorldConfiguration.SceneArtifactImportDeclaration;
+import io.github.jevaengine.world.entity.IEntity;
+import io.github.jevaengine.world.entity.IEntityFactory.EntityConstructionException;
+import io.github.jevaengine.world.scene.camera.ICamera;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/*
+ * Keeps only the regions of a world near its foci (cameras and entities) resident. A world's declarations are
+ * partitioned into square, sector aligned regions; regions that come within the streaming radius of a focus are
+ * constructed on the loading pool and spliced into the world by its synchronous executor, and regions that fall a region
+ * beyond the radius are evicted.
+ *
+ * On eviction, scene artifacts are simply disposed and later reconstructed from their declarations. Entities are
+ * serialized back into a declaration of the region they currently occupy (by location and direction), unless that
+ * region remains resident, in which case they are handed to it. Entities removed from the world by other means are
+ * forgotten.
+ */
+public final class WorldRegionStreamer {
+	private final Logger m_logger = LoggerFactory.getLogger(WorldRegionStreamer.class);
+
+	private final World m_world;
+	private final IEngineThreadPool m_threadPool;
+	private final IRegionLoader m_loader;
+	private final int m_regionSize;
+	private final int m_radius;
+
+	private final Map<Vector2D, Region> m_regions = new HashMap<>();
+
+	private final List<ICamera> m_cameraFoci = new ArrayList<>();
+	private final List<IEntity> m_entityFoci = new ArrayList<>();
+
+	public WorldRegionStreamer(World world, IEngineThreadPool threadPool, IRegionLoader loader, int regionSectors, int radius) {
+		m_world = world;
+		m_threadPool = threadPool;
+		m_loader = loader;
+		m_regionSize = Math.max(1, regionSectors) * SceneGraph.SECTOR_DIMENSIONS;
+		m_radius = Math.max(0, radius);
+	}
+
+	private Vector2D getRegionLocation(Vector3F location) {
+		return new Vector2D((int) Math.floor(location.x / m_regionSize), (int) Math.floor(location.y / m_regionSize));
+	}
+
+	private Region getRegion(Vector3F location) {
+		Vector2D regionLocation = getRegionLocation(location);
+		Region region = m_regions.get(regionLocation);
+
+		if (region == null) {
+			region = new Region(regionLocation);
+			m_regions.put(regionLocation, region);
+		}
+
+		return region;
+	}
+
+	public void addArtifact(SceneArtifactImportDeclaration artifact, Vector3F location) {
+		getRegion(location).m_artifacts.add(new ArtifactPlacement(artifact, location));
+	}
+
+	public void addEntity(EntityImportDeclaration entity) {
+		getRegion(entity.location == null ? new Vector3F() : entity.location).m_pendingEntities.add(entity);
+	}
+
+	public void addFocus(ICamera camera) {
+		if (!m_cameraFoci.contains(camera))
+			m_cameraFoci.add(camera);
+	}
+
+	public void removeFocus(ICamera camera) {
+		m_cameraFoci.remove(camera);
+	}
+
+	public void addFocus(IEntity entity) {
+		if (!m_entityFoci.contains(entity))
+			m_entityFoci.add(entity);
+	}
+
+	public void removeFocus(IEntity entity) {
+		m_entityFoci.remove(entity);
+	}
+
+	public int getRegionCount() {
+		return m_regions.size();
+	}
+
+	public int getResidentRegionCount() {
+		int resident = 0;
+
+		for (Region r : m_regions.values()) {
+			if (r.m_isResident)
+				resident++;
+		}
+
+		return resident;
+	}
+
+	private Set<Vector2D> getRegionsInRange(int radius) {
+		List<Vector3F> foci = new ArrayList<>();
+
+		for (ICamera c : m_cameraFoci)
+			foci.add(c.getLookAt());
+
+		for (IEntity e : m_entityFoci) {
+			if (e.getWorld() == m_world)
+				foci.add(e.getBody().getLocation());
+		}
+
+		Set<Vector2D> inRange = new HashSet<>();
+
+		for (Vector3F focus : foci) {
+			Vector2D center = getRegionLocation(focus);
+
+			for (int y = -radius; y <= radius; y++) {
+				for (int x = -radius; x <= radius; x++)
+					inRange.add(new Vector2D(center.x + x, center.y + y));
+			}
+		}
+
+		return inRange;
+	}
+
+	//Invoked by the world during its update.
+	void update() {
+		Set<Vector2D> wanted = getRegionsInRange(m_radius);
+		Set<Vector2D> retained = getRegionsInRange(m_radius + 1);
+
+		List<Region> evicted = new ArrayList<>();
+
+		for (Region r : m_regions.values()) {
+			if (r.m_isLoading)
+				continue;
+
+			if (wanted.contains(r.m_location) && (!r.m_isResident || !r.m_pendingEntities.isEmpty()))
+				load(r);
+			else if (r.m_isResident && !retained.contains(r.m_location))
+				evicted.add(r);
+		}
+
+		for (Region r : evicted)
+			evict(r, retained);
+	}
+
+	private void load(final Region region) {
+		final boolean loadArtifacts = !region.m_isResident;
+		final List<EntityImportDeclaration> entityDeclarations = new ArrayList<>(region.m_pendingEntities);
+
+		region.m_pendingEntities.clear();
+		region.m_isLoading = true;
+
+		m_threadPool.execute(Purpose.Loading, new Runnable() {
+			@Override
+			public void run() {
+				final List<IEntity> artifacts = new ArrayList<>();
+				final List<Vector3F> artifactLocations = new ArrayList<>();
+				final Map<IEntity, EntityImportDeclaration> entities = new LinkedHashMap<>();
+
+				if (loadArtifacts) {
+					for (ArtifactPlacement p : region.m_artifacts) {
+						try {
+							artifacts.add(m_loader.createArtifact(p.declaration));
+							artifactLocations.add(p.location);
+						} catch (EntityConstructionException e) {
+							m_logger.error("Error constructing scene artifact. Default to exclusion of artifact.", e);
+						}
+					}
+				}
+
+				for (EntityImportDeclaration d : entityDeclarations) {
+					try {
+						entities.put(m_loader.createEntity(d), d);
+					} catch (EntityConstructionException e) {
+						m_logger.error("Unable to construct entity, assuming it does not exist.", e);
+					}
+				}
+
+				m_world.enqueueSynchronous(new ISynchronousTask() {
+					@Override
+					public boolean run() {
+						splice(region, loadArtifacts, artifacts, artifactLocations, entities);
+						return true;
+					}
+				}, Priority.Low);
+			}
+		});
+	}
+
+	private void splice(Region region, boolean loadedArtifacts, List<IEntity> artifacts, List<Vector3F> artifactLocations, Map<IEntity, EntityImportDeclaration> entities) {
+		for (int i = 0; i < artifacts.size(); i++) {
+			IEntity artifact = artifacts.get(i);
+
+			m_world.addEntity(artifact);
+			artifact.getBody().setLocation(artifactLocations.get(i));
+			region.m_residentArtifacts.add(artifact);
+		}
+
+		for (Map.Entry<IEntity, EntityImportDeclaration> e : entities.entrySet()) {
+			IEntity entity = e.getKey();
+
+			m_world.addEntity(entity);
+			entity.getBody().setDirection(e.getValue().direction);
+			entity.getBody().setLocation(e.getValue().location);
+
+			region.m_residentEntities.put(entity, e.getValue());
+		}
+
+		region.m_isResident |= loadedArtifacts;
+		region.m_isLoading = false;
+	}
+
+	private void evict(Region region, Set<Vector2D> retained) {
+		for (IEntity artifact : region.m_residentArtifacts) {
+			if (artifact.getWorld() == m_world)
+				m_world.removeEntity(artifact);
+
+			artifact.dispose();
+		}
+
+		region.m_residentArtifacts.clear();
+		region.m_isResident = false;
+
+		for (Map.Entry<IEntity, EntityImportDeclaration> e : region.m_residentEntities.entrySet()) {
+			IEntity entity = e.getKey();
+			EntityImportDeclaration declaration = e.getValue();
+
+			if (entity.getWorld() != m_world)
+				continue;
+
+			Region owner = getRegion(entity.getBody().getLocation());
+
+			if (owner.m_isResident && retained.contains(owner.m_location)) {
+				owner.m_residentEntities.put(entity, declaration);
+				continue;
+			}
+
+			declaration.location = entity.getBody().getLocation();
+			declaration.direction = entity.getBody().getDirection();
+
+			m_world.removeEntity(entity);
+			entity.dispose();
+
+			owner.m_pendingEntities.add(declaration);
+		}
+
+		region.m_residentEntities.clear();
+	}
+
+	public interface IRegionLoader {
+		@ThreadSafe
+		IEntity createArtifact(SceneArtifactImportDeclaration artifact) throws EntityConstructionException;
+
+		@ThreadSafe
+		IEntity createEntity(EntityImportDeclaration entity) throws EntityConstructionException;
+	}
+
+	private static final class ArtifactPlacement {
+		private final SceneArtifactImportDeclaration declaration;
+		private final Vector3F location;
+
+		public ArtifactPlacement(SceneArtifactImportDeclaration _declaration, Vector3F _location) {
+			declaration = _declaration;
+			location = _location;
+		}
+	}
+
+	private static final class Region {
+		private final Vector2D m_location;
+
+		private final List<ArtifactPlacement> m_artifacts = new ArrayList<>();
+		private final List<EntityImportDeclaration> m_pendingEntities = new ArrayList<>();
+
+		private final List<IEntity> m_residentArtifacts = new ArrayList<>();
+		private final Map<IEntity, EntityImportDeclaration> m_residentEntities = new LinkedHashMap<>();
+
+		private boolean m_isResident = false;
+		private boolean m_isLoading = false;
+
+		public Region(Vector2D location) {
+			m_location = location;
+		}
+	}
+}
@@ -18,13 +18,16 @@
  */
 package io.github.jevaengine.world.entity;
 
+import io.github.jevaengine.math.Vector3F;
 import io.github.jevaengine.script.IFunctionFactory;
 import io.github.jevaengine.script.IScriptBuilder;
 import io.github.jevaengine.script.IScriptBuilder.ScriptConstructionException;
 import io.github.jevaengine.script.NullFunctionFactory;
 import io.github.jevaengine.util.IObserverRegistry;
+import io.github.jevaengine.util.Nullable;
 import io.github.jevaengine.util.Observers;
 import io.github.jevaengine.world.World;
+import io.github.jevaengine.world.World.IWorldObserver;
 import io.github.jevaengine.world.physics.IPhysicsBody;
 import io.github.jevaengine.world.physics.NonparticipantPhysicsBody;
 import io.github.jevaengine.world.physics.NullPhysicsBody;
@@ -40,10 +43,10 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
-public final class DefaultEntity implements IEntity {
+public final class DefaultEntity implements IPoolableEntity {
 	private final Logger m_logger = LoggerFactory.getLogger(DefaultEntity.class);
 
-	private final String m_name;
+	private String m_name;
 	private final IEntityTaskModel m_taskModel;
 	private final Observers m_observers = new Observers();
 	private World m_world;
@@ -53,6 +56,16 @@ public final class DefaultEntity implements IEntity {
 	private ISceneModel m_model = new NullSceneModel();
 	private IPhysicsBody m_body = new NullPhysicsBody();
 
+	@Nullable
+	private IEntityRecycler m_recycler;
+	private boolean m_isRecycling = false;
+
+	@Nullable
+	private IPhysicsBody m_suspendedBody;
+	@Nullable
+	private World m_suspendedWorld;
+	private final SuspendedWorldObserver m_suspendedWorldObserver = new SuspendedWorldObserver();
+
 	public DefaultEntity(IEntityTaskModelFactory taskModelFactory) {
 		this(taskModelFactory, null);
 	}
@@ -81,10 +94,34 @@ public final class DefaultEntity implements IEntity {
 
 	@Override
 	public void dispose() {
-		m_observers.clear();
+		IEntityRecycler recycler = m_recycler;
+		m_isRecycling = recycler != null;
+
+		//Observers of a recycled entity are told its body was suspended, so they may detach from it, before they are cleared.
+		if (!m_isRecycling)
+			m_observers.clear();
 
 		if (m_world != null)
 			m_world.removeEntity(this);
+
+		m_isRecycling = false;
+		m_observers.clear();
+
+		if (recycler == null || !recycler.recycle(this))
+			destroySuspendedPhysicsBody();
+	}
+
+	@Override
+	public void setRecycler(@Nullable IEntityRecycler recycler) {
+		m_recycler = recycler;
+	}
+
+	@Override
+	public void reset(@Nullable String instanceName) {
+		m_name = instanceName;
+		m_flags.clear();
+		m_taskModel.cancelTasks();
+		m_bridge.reattach();
 	}
 
 	@Override
@@ -96,6 +133,20 @@ public final class DefaultEntity implements IEntity {
 	 * Physics body routines.
 	 */
 	private void constructPhysicsBody() {
+		if (m_suspendedBody != null && m_suspendedWorld == m_world) {
+			m_body = m_suspendedBody;
+			m_body.resume();
+
+			m_suspendedWorld.getObservers().remove(m_suspendedWorldObserver);
+			m_suspendedBody = null;
+			m_suspendedWorld = null;
+
+			m_observers.raise(IEntityBodyObserver.class).bodyChanged(new NullPhysicsBody(), m_body);
+			return;
+		}
+
+		destroySuspendedPhysicsBody();
+
 		if (m_physicsBodyDescription == null)
 			m_body = new NonparticipantPhysicsBody(this);
 		else
@@ -114,6 +165,34 @@ public final class DefaultEntity implements IEntity {
 		m_observers.raise(IEntityBodyObserver.class).bodyChanged(new NullPhysicsBody(), new NullPhysicsBody());
 	}
 
+	//Bodies which cannot be suspended are destroyed, and reconstructed if the entity is reused.
+	private void suspendPhysicsBody() {
+		IPhysicsBody body = m_body;
+
+		if (m_physicsBodyDescription == null || !body.suspend()) {
+			destroyPhysicsBody();
+			return;
+		}
+
+		m_suspendedBody = body;
+		m_suspendedWorld = m_world;
+		m_suspendedWorld.getObservers().add(m_suspendedWorldObserver);
+		m_body = new NullPhysicsBody();
+
+		m_observers.raise(IEntityBodyObserver.class).bodyChanged(body, m_body);
+	}
+
+	private void destroySuspendedPhysicsBody() {
+		if (m_suspendedBody != null)
+			m_suspendedBody.destory();
+
+		if (m_suspendedWorld != null)
+			m_suspendedWorld.getObservers().remove(m_suspendedWorldObserver);
+
+		m_suspendedBody = null;
+		m_suspendedWorld = null;
+	}
+
 	@Override
 	public final IPhysicsBody getBody() {
 		return m_body;
@@ -189,7 +268,10 @@ public final class DefaultEntity implements IEntity {
 		if (m_world == null)
 			throw new WorldAssociationException("Not associated with world");
 
-		destroyPhysicsBody();
+		if (m_isRecycling)
+			suspendPhysicsBody();
+		else
+			destroyPhysicsBody();
 
 		m_taskModel.cancelTasks();
 
@@ -224,6 +306,20 @@ public final class DefaultEntity implements IEntity {
 	protected void doLogic(int deltaTime) {
 	}
 
+	//Releases a body suspended in a world once that world is disposed, so a pooled entity does not retain the world.
+	private final class SuspendedWorldObserver implements IWorldObserver {
+		@Override
+		public void addedEntity(IEntity e) { }
+
+		@Override
+		public void removedEntity(Vector3F location, IEntity e) { }
+
+		@Override
+		public void disposed() {
+			destroySuspendedPhysicsBody();
+		}
+	}
+
 	public final class DefaultEntityBridge extends EntityBridge {
 		private DefaultEntityBridge(IFunctionFactory functionFactory, URI scriptUri) {
 			super(DefaultEntity.this, functionFactory, scriptUri);
@@ -24,6 +24,9 @@ import io.github.jevaengine.script.*;
 import io.github.jevaengine.util.IObserverRegistry;
 import io.github.jevaengine.util.NullObservers;
 import io.github.jevaengine.util.Nullable;
+import io.github.jevaengine.util.ObserverBroadcaster;
+import io.github.jevaengine.util.ObserverSet;
+import io.github.jevaengine.util.Observers;
 import io.github.jevaengine.world.World;
 import io.github.jevaengine.world.World.WorldBridge;
 import io.github.jevaengine.world.entity.tasks.IdleTask;
@@ -91,20 +94,127 @@ public interface IEntity extends IDisposable {
 	 */
 	void update(int delta);
 
+	@ObserverBroadcaster(IEntityWorldObserver.Broadcaster.class)
 	public interface IEntityWorldObserver {
 		void enterWorld();
 
 		void leaveWorld();
+
+		final class Broadcaster implements IEntityWorldObserver {
+			private final ObserverSet<IEntityWorldObserver> m_observers;
+
+			public Broadcaster(Observers observers) {
+				m_observers = observers.getObserverSet(IEntityWorldObserver.class);
+			}
+
+			@Override
+			public void enterWorld() {
+				m_observers.beginDispatch();
+
+				try {
+					for (int i = 0; i < m_observers.size(); i++) {
+						IEntityWorldObserver o = m_observers.get(i);
+
+						if (o != null)
+							o.enterWorld();
+					}
+				} finally {
+					m_observers.endDispatch();
+				}
+			}
+
+			@Override
+			public void leaveWorld() {
+				m_observers.beginDispatch();
+
+				try {
+					for (int i = 0; i < m_observers.size(); i++) {
+						IEntityWorldObserver o = m_observers.get(i);
+
+						if (o != null)
+							o.leaveWorld();
+					}
+				} finally {
+					m_observers.endDispatch();
+				}
+			}
+		}
 	}
 
+	@ObserverBroadcaster(IEntityFlagObserver.Broadcaster.class)
 	public interface IEntityFlagObserver {
 		void flagSet(String name, int value);
 
 		void flagCleared(String name);
+
+		final class Broadcaster implements IEntityFlagObserver {
+			private final ObserverSet<IEntityFlagObserver> m_observers;
+
+			public Broadcaster(Observers observers) {
+				m_observers = observers.getObserverSet(IEntityFlagObserver.class);
+			}
+
+			@Override
+			public void flagSet(String name, int value) {
+				m_observers.beginDispatch();
+
+				try {
+					for (int i = 0; i < m_observers.size(); i++) {
+						IEntityFlagObserver o = m_observers.get(i);
+
+						if (o != null)
+							o.flagSet(name, value);
+					}
+				} finally {
+					m_observers.endDispatch();
+				}
+			}
+
+			@Override
+			public void flagCleared(String name) {
+				m_observers.beginDispatch();
+
+				try {
+					for (int i = 0; i < m_observers.size(); i++) {
+						IEntityFlagObserver o = m_observers.get(i);
+
+						if (o != null)
+							o.flagCleared(name);
+					}
+				} finally {
+					m_observers.endDispatch();
+				}
+			}
+		}
 	}
 
+	@ObserverBroadcaster(IEntityBodyObserver.Broadcaster.class)
 	public interface IEntityBodyObserver {
 		void bodyChanged(IPhysicsBody oldBody, IPhysicsBody newBody);
+
+		final class Broadcaster implements IEntityBodyObserver {
+			private final ObserverSet<IEntityBodyObserver> m_observers;
+
+			public Broadcaster(Observers observers) {
+				m_observers = observers.getObserverSet(IEntityBodyObserver.class);
+			}
+
+			@Override
+			public void bodyChanged(IPhysicsBody oldBody, IPhysicsBody newBody) {
+				m_observers.beginDispatch();
+
+				try {
+					for (int i = 0; i < m_observers.size(); i++) {
+						IEntityBodyObserver o = m_observers.get(i);
+
+						if (o != null)
+							o.bodyChanged(oldBody, newBody);
+					}
+				} finally {
+					m_observers.endDispatch();
+				}
+			}
+		}
 	}
 
 	public static class EntityBridge {
@@ -143,6 +253,11 @@ public interface IEntity extends IDisposable {
 			this(host, new NullFunctionFactory());
 		}
 
+		//Re-registers the bridge with its host after the host's observers have been cleared for reuse.
+		void reattach() {
+			m_host.getObservers().add(m_notifier);
+		}
+
 		@ScriptHiddenMember
 		public final IEntity getEntity() {
 			return m_host;
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.world.entity;
+
+import io.github.jevaengine.util.Nullable;
+
+/*
+ * Implemented by entities which may be reused once disposed, rather than constructed anew. A disposed entity with a
+ * recycler is offered to it after leaving its world; where possible, its physics body is suspended rather than
+ * destroyed, and resumed if the entity is next added to the same world.
+ *
+ * Reused entities keep their scene model and behaviour script, so scripts should initialize per-spawn state when
+ * their entity enters a world.
+ */
+public interface IPoolableEntity extends IEntity {
+	void setRecycler(@Nullable IEntityRecycler recycler);
+
+	/*
+	 * Prepares a recycled entity for reuse under the given instance name, clearing its flags and tasks.
+	 */
+	void reset(@Nullable String instanceName);
+
+	interface IEntityRecycler {
+		/*
+		 * Returns false if the entity was not accepted, in which case it is discarded.
+		 */
+		boolean recycle(IPoolableEntity entity);
+	}
+}
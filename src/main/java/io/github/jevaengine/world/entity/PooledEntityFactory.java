@@ -0,0 +1,348 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.world.entity;
+
+import io.github.jevaengine.config.IImmutableVariable;
+import io.github.jevaengine.config.NullVariable;
+import io.github.jevaengine.util.Nullable;
+import io.github.jevaengine.util.ThreadSafe;
+import io.github.jevaengine.world.entity.IPoolableEntity.IEntityRecycler;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Reuses disposed entities of types which implement IPoolableEntity, rather than constructing them anew. Entities
+ * are pooled per requested type and configuration. Requests which provide a configuration variable, or a non-null
+ * auxiliary configuration, are always constructed, since those configurations are consumed during construction.
+ *
+ * Pooling is opt-in: no class is pooled until it is given a capacity through setCapacity.
+ */
+@ThreadSafe
+public final class PooledEntityFactory implements IEntityFactory {
+	private final IEntityFactory m_entityFactory;
+
+	private final Map<Class<?>, Integer> m_capacities = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<PoolKey, EntityPool> m_pools = new ConcurrentHashMap<>();
+
+	public PooledEntityFactory(IEntityFactory entityFactory) {
+		m_entityFactory = entityFactory;
+	}
+
+	/*
+	 * Sets the number of disposed entities of the given class retained per configuration. A capacity of zero
+	 * disables pooling for the class.
+	 */
+	public void setCapacity(Class<? extends IPoolableEntity> entityClass, int capacity) {
+		m_capacities.put(entityClass, Math.max(0, capacity));
+
+		for (EntityPool p : m_pools.values()) {
+			if (p.m_entityClass == entityClass)
+				p.setCapacity(capacity);
+		}
+	}
+
+	private int getCapacity(Class<?> entityClass) {
+		Integer capacity = m_capacities.get(entityClass);
+
+		return capacity == null ? 0 : capacity;
+	}
+
+	private EntityPool getPool(PoolKey key, Class<?> entityClass) {
+		EntityPool pool = m_pools.get(key);
+
+		if (pool == null) {
+			pool = new EntityPool(key, entityClass, getCapacity(entityClass));
+			EntityPool existing = m_pools.putIfAbsent(key, pool);
+
+			if (existing != null)
+				pool = existing;
+		}
+
+		return pool;
+	}
+
+	@Nullable
+	private IPoolableEntity take(PoolKey key, @Nullable String instanceName) {
+		EntityPool pool = m_pools.get(key);
+
+		if (pool == null)
+			return null;
+
+		IPoolableEntity entity = pool.take();
+
+		if (entity != null)
+			entity.reset(instanceName);
+
+		return entity;
+	}
+
+	private <T extends IEntity> T admit(PoolKey key, T entity) {
+		if (entity instanceof IPoolableEntity && getCapacity(entity.getClass()) > 0) {
+			EntityPool pool = getPool(key, entity.getClass());
+			pool.recordMiss();
+
+			((IPoolableEntity) entity).setRecycler(pool);
+		}
+
+		return entity;
+	}
+
+	private static boolean isPoolable(IImmutableVariable auxConfig) {
+		return auxConfig instanceof NullVariable;
+	}
+
+	/*
+	 * Discards every pooled entity.
+	 */
+	public void clear() {
+		for (EntityPool p : m_pools.values())
+			p.clear();
+	}
+
+	public List<EntityPoolStatistics> getStatistics() {
+		List<EntityPoolStatistics> statistics = new ArrayList<>();
+
+		for (EntityPool p : m_pools.values())
+			statistics.add(p.getStatistics());
+
+		return statistics;
+	}
+
+	@Override
+	@Nullable
+	public Class<? extends IEntity> lookup(String className) {
+		return m_entityFactory.lookup(className);
+	}
+
+	@Override
+	@Nullable
+	public <T extends IEntity> String lookup(Class<T> entityClass) {
+		return m_entityFactory.lookup(entityClass);
+	}
+
+	@Override
+	public <T extends IEntity> T create(Class<T> entityClass, @Nullable String instanceName, URI config) throws EntityConstructionException {
+		PoolKey key = new PoolKey(entityClass, config);
+		IPoolableEntity entity = take(key, instanceName);
+
+		if (entity != null)
+			return entityClass.cast(entity);
+
+		return admit(key, m_entityFactory.create(entityClass, instanceName, config));
+	}
+
+	@Override
+	public <T extends IEntity> T create(Class<T> entityClass, @Nullable String instanceName, URI config, IImmutableVariable auxConfig) throws EntityConstructionException {
+		if (isPoolable(auxConfig))
+			return create(entityClass, instanceName, config);
+
+		return m_entityFactory.create(entityClass, instanceName, config, auxConfig);
+	}
+
+	@Override
+	public <T extends IEntity> T create(Class<T> entityClass, @Nullable String instanceName, IImmutableVariable config) throws EntityConstructionException {
+		return m_entityFactory.create(entityClass, instanceName, config);
+	}
+
+	@Override
+	public <T extends IEntity> T create(Class<T> entityClass, @Nullable String instanceName) throws EntityConstructionException {
+		PoolKey key = new PoolKey(entityClass, null);
+		IPoolableEntity entity = take(key, instanceName);
+
+		if (entity != null)
+			return entityClass.cast(entity);
+
+		return admit(key, m_entityFactory.create(entityClass, instanceName));
+	}
+
+	@Override
+	public IEntity create(String entityClass, @Nullable String instanceName, URI config) throws EntityConstructionException {
+		Class<? extends IEntity> resolved = m_entityFactory.lookup(entityClass);
+
+		if (resolved == null)
+			return m_entityFactory.create(entityClass, instanceName, config);
+
+		return create(resolved, instanceName, config);
+	}
+
+	@Override
+	public IEntity create(String entityClass, @Nullable String instanceName, URI config, IImmutableVariable auxConfig) throws EntityConstructionException {
+		if (isPoolable(auxConfig))
+			return create(entityClass, instanceName, config);
+
+		return m_entityFactory.create(entityClass, instanceName, config, auxConfig);
+	}
+
+	@Override
+	public IEntity create(String entityClass, @Nullable String instanceName, IImmutableVariable config) throws EntityConstructionException {
+		return m_entityFactory.create(entityClass, instanceName, config);
+	}
+
+	@Override
+	public IEntity create(String entityClass, @Nullable String instanceName) throws EntityConstructionException {
+		Class<? extends IEntity> resolved = m_entityFactory.lookup(entityClass);
+
+		if (resolved == null)
+			return m_entityFactory.create(entityClass, instanceName);
+
+		return create(resolved, instanceName);
+	}
+
+	public static final class EntityPoolStatistics {
+		public final String name;
+		public final int pooled;
+		public final int capacity;
+		public final long hits;
+		public final long misses;
+		public final long recycled;
+		public final long discarded;
+
+		private EntityPoolStatistics(String _name, int _pooled, int _capacity, long _hits, long _misses, long _recycled, long _discarded) {
+			name = _name;
+			pooled = _pooled;
+			capacity = _capacity;
+			hits = _hits;
+			misses = _misses;
+			recycled = _recycled;
+			discarded = _discarded;
+		}
+
+		public float getHitRatio() {
+			long requests = hits + misses;
+
+			return requests == 0 ? 0 : hits / (float) requests;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s: %d/%d pooled, %d hits, %d misses (%.1f%% hit ratio), %d recycled, %d discarded",
+					name, pooled, capacity, hits, misses, getHitRatio() * 100, recycled, discarded);
+		}
+	}
+
+	private static final class PoolKey {
+		private final Class<?> m_entityClass;
+
+		@Nullable
+		private final URI m_config;
+
+		public PoolKey(Class<?> entityClass, @Nullable URI config) {
+			m_entityClass = entityClass;
+			m_config = config;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (o == this)
+				return true;
+			else if (!(o instanceof PoolKey))
+				return false;
+
+			PoolKey key = (PoolKey) o;
+
+			return key.m_entityClass == m_entityClass && (m_config == null ? key.m_config == null : m_config.equals(key.m_config));
+		}
+
+		@Override
+		public int hashCode() {
+			return m_entityClass.hashCode() * 31 + (m_config == null ? 0 : m_config.hashCode());
+		}
+
+		@Override
+		public String toString() {
+			return m_entityClass.getSimpleName() + (m_config == null ? "" : " " + m_config);
+		}
+	}
+
+	private static final class EntityPool implements IEntityRecycler {
+		private final PoolKey m_key;
+		private final Class<?> m_entityClass;
+		private final ArrayDeque<IPoolableEntity> m_entities = new ArrayDeque<>();
+		private int m_capacity;
+
+		private long m_hits = 0;
+		private long m_misses = 0;
+		private long m_recycled = 0;
+		private long m_discarded = 0;
+
+		public EntityPool(PoolKey key, Class<?> entityClass, int capacity) {
+			m_key = key;
+			m_entityClass = entityClass;
+			m_capacity = capacity;
+		}
+
+		public synchronized void setCapacity(int capacity) {
+			m_capacity = Math.max(0, capacity);
+
+			while (m_entities.size() > m_capacity)
+				discard(m_entities.poll());
+		}
+
+		@Nullable
+		public synchronized IPoolableEntity take() {
+			IPoolableEntity entity = m_entities.poll();
+
+			if (entity != null)
+				m_hits++;
+
+			return entity;
+		}
+
+		public synchronized void recordMiss() {
+			m_misses++;
+		}
+
+		@Override
+		public synchronized boolean recycle(IPoolableEntity entity) {
+			if (m_entities.contains(entity))
+				return true;
+
+			if (m_entities.size() >= m_capacity) {
+				m_discarded++;
+				return false;
+			}
+
+			m_entities.push(entity);
+			m_recycled++;
+
+			return true;
+		}
+
+		//Detaches the entity from the pool before disposing it, so that it is discarded rather than recycled.
+		private void discard(IPoolableEntity entity) {
+			entity.setRecycler(null);
+			entity.dispose();
+			m_discarded++;
+		}
+
+		public synchronized void clear() {
+			for (IPoolableEntity entity; (entity = m_entities.poll()) != null; )
+				discard(entity);
+		}
+
+		public synchronized EntityPoolStatistics getStatistics() {
+			return new EntityPoolStatistics(m_key.toString(), m_entities.size(), m_capacity, m_hits, m_misses, m_recycled, m_discarded);
+		}
+	}
+}
@@ -40,4 +40,15 @@ public interface IPhysicsBody extends IImmutablePhysicsBody {
 	void destory();
 
 	void setCollidable(boolean isCollidable);
+
+	/*
+	 * Removes the body from the simulation without destroying it, so that it may later be resumed in the same
+	 * world. Returns false if the body cannot be suspended, in which case it is left as it was.
+	 */
+	default boolean suspend() {
+		return false;
+	}
+
+	default void resume() {
+	}
 }
@@ -18,8 +18,53 @@
  */
 package io.github.jevaengine.world.physics;
 
+import io.github.jevaengine.util.ObserverBroadcaster;
+import io.github.jevaengine.util.ObserverSet;
+import io.github.jevaengine.util.Observers;
+
+@ObserverBroadcaster(IPhysicsBodyContactObserver.Broadcaster.class)
 public interface IPhysicsBodyContactObserver {
 	void onBeginContact(IImmutablePhysicsBody other);
 
 	void onEndContact(IImmutablePhysicsBody other);
+
+	final class Broadcaster implements IPhysicsBodyContactObserver {
+		private final ObserverSet<IPhysicsBodyContactObserver> m_observers;
+
+		public Broadcaster(Observers observers) {
+			m_observers = observers.getObserverSet(IPhysicsBodyContactObserver.class);
+		}
+
+		@Override
+		public void onBeginContact(IImmutablePhysicsBody other) {
+			m_observers.beginDispatch();
+
+			try {
+				for (int i = 0; i < m_observers.size(); i++) {
+					IPhysicsBodyContactObserver o = m_observers.get(i);
+
+					if (o != null)
+						o.onBeginContact(other);
+				}
+			} finally {
+				m_observers.endDispatch();
+			}
+		}
+
+		@Override
+		public void onEndContact(IImmutablePhysicsBody other) {
+			m_observers.beginDispatch();
+
+			try {
+				for (int i = 0; i < m_observers.size(); i++) {
+					IPhysicsBodyContactObserver o = m_observers.get(i);
+
+					if (o != null)
+						o.onEndContact(other);
+				}
+			} finally {
+				m_observers.endDispatch();
+			}
+		}
+	}
 }
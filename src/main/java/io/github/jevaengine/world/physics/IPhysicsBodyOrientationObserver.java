@@ -18,8 +18,53 @@
  */
 package io.github.jevaengine.world.physics;
 
+import io.github.jevaengine.util.ObserverBroadcaster;
+import io.github.jevaengine.util.ObserverSet;
+import io.github.jevaengine.util.Observers;
+
+@ObserverBroadcaster(IPhysicsBodyOrientationObserver.Broadcaster.class)
 public interface IPhysicsBodyOrientationObserver {
 	void locationSet();
 
 	void directionSet();
+
+	final class Broadcaster implements IPhysicsBodyOrientationObserver {
+		private final ObserverSet<IPhysicsBodyOrientationObserver> m_observers;
+
+		public Broadcaster(Observers observers) {
+			m_observers = observers.getObserverSet(IPhysicsBodyOrientationObserver.class);
+		}
+
+		@Override
+		public void locationSet() {
+			m_observers.beginDispatch();
+
+			try {
+				for (int i = 0; i < m_observers.size(); i++) {
+					IPhysicsBodyOrientationObserver o = m_observers.get(i);
+
+					if (o != null)
+						o.locationSet();
+				}
+			} finally {
+				m_observers.endDispatch();
+			}
+		}
+
+		@Override
+		public void directionSet() {
+			m_observers.beginDispatch();
+
+			try {
+				for (int i = 0; i < m_observers.size(); i++) {
+					IPhysicsBodyOrientationObserver o = m_observers.get(i);
+
+					if (o != null)
+						o.directionSet();
+				}
+			} finally {
+				m_observers.endDispatch();
+			}
+		}
+	}
 }
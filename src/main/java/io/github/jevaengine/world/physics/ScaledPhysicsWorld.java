@@ -271,5 +271,15 @@ public final class ScaledPhysicsWorld extends ImmutableScaledPhysicsWorld implem
 		public void setCollidable(boolean isCollidable) {
 			m_body.setCollidable(isCollidable);
 		}
+
+		@Override
+		public boolean suspend() {
+			return m_body.suspend();
+		}
+
+		@Override
+		public void resume() {
+			m_body.resume();
+		}
 	}
 }
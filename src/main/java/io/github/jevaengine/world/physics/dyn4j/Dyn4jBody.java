@@ -115,6 +115,23 @@ public final class Dyn4jBody implements IPhysicsBody {
 		setDirection(dir);
 	}
 
+	//Static bodies are enabled and disabled by the world as dynamic bodies approach them, so cannot be suspended.
+	@Override
+	public boolean suspend() {
+		if (m_world == null || isStatic() || isDisabled())
+			return false;
+
+		setLinearVelocity(new Vector3F());
+		disable();
+
+		return true;
+	}
+
+	@Override
+	public void resume() {
+		enable();
+	}
+
 	@Override
 	public void destory() {
 		m_observers.clear();
@@ -21,6 +21,7 @@ package io.github.jevaengine.world.physics.dyn4j;
 import io.github.jevaengine.math.Rect3F;
 import io.github.jevaengine.math.Vector2F;
 import io.github.jevaengine.util.Nullable;
+import io.github.jevaengine.util.Profiler;
 import io.github.jevaengine.world.entity.IEntity;
 import io.github.jevaengine.world.physics.*;
 import io.github.jevaengine.world.search.RadialSearchFilter;
@@ -43,6 +44,8 @@ public final class Dyn4jWorld implements IPhysicsWorld {
 	private static final float ACTIVATE_RADIUS_ON = 1.5f;
 	private static final float ACTIVATE_RADIUS_OFF_SQUARED = 1.5f * 1.5f;
 
+	private static final Profiler.Scope UPDATE_SCOPE = Profiler.getDefault().getScope("physics.update");
+
 	protected final World m_physicsWorld = new World();
 
 	private final float m_maxSurfaceFrictionForceNewtonMeters;
@@ -97,6 +100,9 @@ public final class Dyn4jWorld implements IPhysicsWorld {
 		Set<Dyn4jBody> keepEnabled = new HashSet<>();
 
 		for(Dyn4jBody b : m_dynamicBodies) {
+			if(b.isDisabled())
+				continue;
+
 			if(b.hasOwner() && b.getOwner().getWorld() != null) {
 				IEntity owner = b.getOwner();
 				IEntity[] activateRadius = owner.getWorld().getEntities().search(IEntity.class,
@@ -153,9 +159,15 @@ public final class Dyn4jWorld implements IPhysicsWorld {
 
 	@Override
 	public void update(int deltaTime) {
-		updateEnabledBodies();
-		m_physicsWorld.update(deltaTime / 1000.0);
-		m_contactListener.relay();
+		long update = UPDATE_SCOPE.begin();
+
+		try {
+			updateEnabledBodies();
+			m_physicsWorld.update(deltaTime / 1000.0);
+			m_contactListener.relay();
+		} finally {
+			UPDATE_SCOPE.end(update);
+		}
 	}
 
 	@Override
@@ -20,6 +20,7 @@ package io.github.jevaengine.world.scene;
 
 import io.github.jevaengine.math.*;
 import io.github.jevaengine.util.Nullable;
+import io.github.jevaengine.util.Profiler;
 import io.github.jevaengine.world.entity.IEntity;
 import io.github.jevaengine.world.scene.model.IImmutableSceneModel;
 import io.github.jevaengine.world.scene.model.IImmutableSceneModel.ISceneModelComponent;
@@ -33,6 +34,9 @@ import java.util.concurrent.*;
 public final class TopologicalOrthographicProjectionSceneBuffer implements ISceneBuffer {
 	private static final int NUM_CONCURRENT_SORTS = Runtime.getRuntime().availableProcessors();
 
+	private static final Profiler.Scope SORT_SCOPE = Profiler.getDefault().getScope("sceneBuffer.sort");
+	private static final Profiler.Scope RENDER_SCOPE = Profiler.getDefault().getScope("sceneBuffer.render");
+
 	private static final ExecutorService m_exector = Executors.newFixedThreadPool(NUM_CONCURRENT_SORTS, new ThreadFactory() {
 		@Override
 		public Thread newThread(Runnable r) {
@@ -80,30 +84,36 @@ public final class TopologicalOrthographicProjectionSceneBuffer implements IScen
 		if (!m_isTopologicalSortDirty)
 			return;
 
-		//Move all sorted entries back into unsorted queue since they must be resorted with the new entries.
-		m_unsortedVertices.addAll(m_sortedVertices);
-		m_sortedVertices.clear();
-
-		m_dependencyMappingWorkQueue.clear();
-		m_dependencyMappingWorkQueue.addAll(m_unsortedVertices);
+		long sort = SORT_SCOPE.begin();
 
 		try {
-			m_exector.invokeAll(m_dependenyConstructRoutines);
-		} catch (InterruptedException e) {
-			//We've been interrupted. Cancel the sort and return early. This would result in
-			//the scene being empty for the present operation that required the scene be sorted.
-			//Not a big deal considering how frequently frames are generated.
-			Thread.currentThread().interrupt();
-			return;
-		}
+			//Move all sorted entries back into unsorted queue since they must be resorted with the new entries.
+			m_unsortedVertices.addAll(m_sortedVertices);
+			m_sortedVertices.clear();
+
+			m_dependencyMappingWorkQueue.clear();
+			m_dependencyMappingWorkQueue.addAll(m_unsortedVertices);
+
+			try {
+				m_exector.invokeAll(m_dependenyConstructRoutines);
+			} catch (InterruptedException e) {
+				//We've been interrupted. Cancel the sort and return early. This would result in
+				//the scene being empty for the present operation that required the scene be sorted.
+				//Not a big deal considering how frequently frames are generated.
+				Thread.currentThread().interrupt();
+				return;
+			}
 
-		for (Vertex v; (v = m_unsortedVertices.poll()) != null; ) {
-			visit(v);
-			v.clearIns();
-		}
+			for (Vertex v; (v = m_unsortedVertices.poll()) != null; ) {
+				visit(v);
+				v.clearIns();
+			}
 
-		m_unsortedVertices.clear();
-		m_isTopologicalSortDirty = false;
+			m_unsortedVertices.clear();
+			m_isTopologicalSortDirty = false;
+		} finally {
+			SORT_SCOPE.end(sort);
+		}
 	}
 
 	@Override
@@ -169,51 +179,56 @@ public final class TopologicalOrthographicProjectionSceneBuffer implements IScen
 
 	@Override
 	public void render(Graphics2D g, int offsetX, int offsetY, float scale, Rect2D bounds) {
-		for (ISceneBufferEffect e : m_effects)
-			e.getUnderlay(m_translation, bounds, new Matrix3X3(m_worldToScreenMatrix)).render(g, offsetX, offsetY, scale);
+		long render = RENDER_SCOPE.begin();
 
-		sort();
-		ignored.clear();
-		for (Vertex v : m_sortedVertices) {
-			Vector2D renderLocation = translateWorldToScreen(v.m_entry.location, scale);
-
-			List<List<ISceneComponentEffect>> effects = createComponentRenderEffects(g, offsetX + m_translation.x, offsetY + m_translation.y, scale, renderLocation.difference(m_translation), v);
+		try {
+			for (ISceneBufferEffect e : m_effects)
+				e.getUnderlay(m_translation, bounds, new Matrix3X3(m_worldToScreenMatrix)).render(g, offsetX, offsetY, scale);
+
+			sort();
+			ignored.clear();
+			for (Vertex v : m_sortedVertices) {
+				Vector2D renderLocation = translateWorldToScreen(v.m_entry.location, scale);
+
+				List<List<ISceneComponentEffect>> effects = createComponentRenderEffects(g, offsetX + m_translation.x, offsetY + m_translation.y, scale, renderLocation.difference(m_translation), v);
+
+				boolean ignore = false;
+				for (List<ISceneComponentEffect> passEffects : effects) {
+					for (ISceneComponentEffect e : passEffects) {
+						if (e.ignore(v.m_entry.dispatcher, v.m_entry.component)) {
+							ignore = true;
+							break;
+						}
+					}
 
-			boolean ignore = false;
-			for (List<ISceneComponentEffect> passEffects : effects) {
-				for (ISceneComponentEffect e : passEffects) {
-					if (e.ignore(v.m_entry.dispatcher, v.m_entry.component)) {
-						ignore = true;
+					if(ignore)
 						break;
-					}
 				}
 
-				if(ignore)
-					break;
-			}
-
-			if(ignore) {
-				ignored.add(v.m_entry);
-				continue;
-			}
+				if(ignore) {
+					ignored.add(v.m_entry);
+					continue;
+				}
 
 
-			for (List<ISceneComponentEffect> passEffects : effects) {
-				for (ISceneComponentEffect e : passEffects)
-					e.prerender();
-			}
+				for (List<ISceneComponentEffect> passEffects : effects) {
+					for (ISceneComponentEffect e : passEffects)
+						e.prerender();
+				}
 
-			v.m_entry.component.render(g, renderLocation.x + offsetX, renderLocation.y + offsetY, scale);
+				v.m_entry.component.render(g, renderLocation.x + offsetX, renderLocation.y + offsetY, scale);
 
-			for (List<ISceneComponentEffect> passEffects : effects) {
-				for (ISceneComponentEffect e : passEffects)
-					e.postrender();
+				for (List<ISceneComponentEffect> passEffects : effects) {
+					for (ISceneComponentEffect e : passEffects)
+						e.postrender();
+				}
 			}
-		}
-
-		for (ISceneBufferEffect e : m_effects)
-			e.getOverlay(m_translation, bounds, new Matrix3X3(m_worldToScreenMatrix)).render(g, offsetX, offsetY, scale);
 
+			for (ISceneBufferEffect e : m_effects)
+				e.getOverlay(m_translation, bounds, new Matrix3X3(m_worldToScreenMatrix)).render(g, offsetX, offsetY, scale);
+		} finally {
+			RENDER_SCOPE.end(render);
+		}
 	}
 
 	@Override
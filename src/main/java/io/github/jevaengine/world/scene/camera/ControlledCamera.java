@@ -81,10 +81,16 @@ public final class ControlledCamera implements ICamera {
 	public void attach(World world) {
 		dettach();
 		m_world = world;
+
+		if (world.getRegionStreamer() != null)
+			world.getRegionStreamer().addFocus(this);
 	}
 
 	@Override
 	public final void dettach() {
+		if (m_world != null && m_world.getRegionStreamer() != null)
+			m_world.getRegionStreamer().removeFocus(this);
+
 		m_world = null;
 	}
 
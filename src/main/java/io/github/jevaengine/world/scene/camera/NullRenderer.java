@@ -23,10 +23,27 @@ import io.github.jevaengine.graphics.IRenderable;
 import io.github.jevaengine.math.Vector2D;
 
 import java.awt.*;
+import java.awt.image.BufferedImage;
 
 public final class NullRenderer implements IRenderer {
+	//There is no screen device to query when headless; images are made compatible with an in-memory surface instead.
+	private static final GraphicsConfiguration HEADLESS_CONFIGURATION = createHeadlessConfiguration();
+
+	private static GraphicsConfiguration createHeadlessConfiguration() {
+		Graphics2D g = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+
+		try {
+			return g.getDeviceConfiguration();
+		} finally {
+			g.dispose();
+		}
+	}
+
 	@Override
 	public GraphicsConfiguration getGraphicsConfiguration() {
+		if (GraphicsEnvironment.isHeadless())
+			return HEADLESS_CONFIGURATION;
+
 		return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
 	}
 
@@ -22,6 +22,8 @@ import io.github.jevaengine.math.Matrix3X3;
 import io.github.jevaengine.math.Rect3F;
 import io.github.jevaengine.util.IObserverRegistry;
 import io.github.jevaengine.util.NullObservers;
+import io.github.jevaengine.util.ObserverBroadcaster;
+import io.github.jevaengine.util.ObserverSet;
 import io.github.jevaengine.util.Observers;
 import io.github.jevaengine.world.Direction;
 import io.github.jevaengine.world.physics.PhysicsBodyShape;
@@ -54,10 +56,51 @@ public interface IAnimationSceneModel extends ISceneModel {
 		IObserverRegistry getObservers();
 	}
 
+	@ObserverBroadcaster(IAnimationSceneModelAnimationObserver.Broadcaster.class)
 	public interface IAnimationSceneModelAnimationObserver {
 		void event(String name);
 
 		void stateChanged(AnimationSceneModelAnimationState state);
+
+		final class Broadcaster implements IAnimationSceneModelAnimationObserver {
+			private final ObserverSet<IAnimationSceneModelAnimationObserver> m_observers;
+
+			public Broadcaster(Observers observers) {
+				m_observers = observers.getObserverSet(IAnimationSceneModelAnimationObserver.class);
+			}
+
+			@Override
+			public void event(String name) {
+				m_observers.beginDispatch();
+
+				try {
+					for (int i = 0; i < m_observers.size(); i++) {
+						IAnimationSceneModelAnimationObserver o = m_observers.get(i);
+
+						if (o != null)
+							o.event(name);
+					}
+				} finally {
+					m_observers.endDispatch();
+				}
+			}
+
+			@Override
+			public void stateChanged(AnimationSceneModelAnimationState state) {
+				m_observers.beginDispatch();
+
+				try {
+					for (int i = 0; i < m_observers.size(); i++) {
+						IAnimationSceneModelAnimationObserver o = m_observers.get(i);
+
+						if (o != null)
+							o.stateChanged(state);
+					}
+				} finally {
+					m_observers.endDispatch();
+				}
+			}
+		}
 	}
 
 	public static final class NullAnimationSceneModelAnimation implements IAnimationSceneModelAnimation {
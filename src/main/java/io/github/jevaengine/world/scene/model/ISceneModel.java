@@ -20,6 +20,8 @@ package io.github.jevaengine.world.scene.model;
 
 import io.github.jevaengine.IDisposable;
 import io.github.jevaengine.util.IObserverRegistry;
+import io.github.jevaengine.util.ObserverBroadcaster;
+import io.github.jevaengine.util.ObserverSet;
 import io.github.jevaengine.util.Observers;
 import io.github.jevaengine.world.Direction;
 
@@ -30,7 +32,32 @@ public interface ISceneModel extends IImmutableSceneModel, IDisposable {
 
 	IObserverRegistry getObservers();
 
+	@ObserverBroadcaster(ISceneModelObserver.Broadcaster.class)
 	interface ISceneModelObserver {
 		void directionChanged();
+
+		final class Broadcaster implements ISceneModelObserver {
+			private final ObserverSet<ISceneModelObserver> m_observers;
+
+			public Broadcaster(Observers observers) {
+				m_observers = observers.getObserverSet(ISceneModelObserver.class);
+			}
+
+			@Override
+			public void directionChanged() {
+				m_observers.beginDispatch();
+
+				try {
+					for (int i = 0; i < m_observers.size(); i++) {
+						ISceneModelObserver o = m_observers.get(i);
+
+						if (o != null)
+							o.directionChanged();
+					}
+				} finally {
+					m_observers.endDispatch();
+				}
+			}
+		}
 	}
 }
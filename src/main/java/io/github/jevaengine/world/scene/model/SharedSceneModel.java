@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2015 Jeremy Wildsmith.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package io.github.jevaengine.world.scene.model;
+
+import io.github.jevaengine.math.Matrix3X3;
+import io.github.jevaengine.math.Rect3F;
+import io.github.jevaengine.util.IObserverRegistry;
+import io.github.jevaengine.util.Nullable;
+import io.github.jevaengine.util.Observers;
+import io.github.jevaengine.util.ThreadSafe;
+import io.github.jevaengine.world.Direction;
+import io.github.jevaengine.world.physics.PhysicsBodyShape;
+import io.github.jevaengine.world.scene.model.IImmutableSceneModel.SceneModelNotCloneableException;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+
+/*
+ * Flyweight model for static, non-animated scene artifacts. Every instance created from the same prototype
+ * renders through a single shared model per direction, which is never updated; an instance stores only its
+ * direction. The shared models are disposed along with the last instance referring to them.
+ */
+public final class SharedSceneModel implements ISceneModel {
+	private final SharedSceneModelPrototype m_prototype;
+	private final Observers m_observers = new Observers();
+
+	private Direction m_direction;
+	private SharedModel m_model;
+	private boolean m_isDisposed = false;
+
+	private SharedSceneModel(SharedSceneModelPrototype prototype, Direction direction) {
+		m_prototype = prototype;
+		m_direction = direction;
+		m_model = prototype.getModel(direction);
+	}
+
+	@Override
+	public void dispose() {
+		if (m_isDisposed)
+			return;
+
+		m_isDisposed = true;
+		m_prototype.release();
+	}
+
+	@Override
+	public ISceneModel clone() {
+		return m_prototype.create(m_direction);
+	}
+
+	@Override
+	public Collection<ISceneModelComponent> getComponents(Matrix3X3 projection) {
+		return m_model.model.getComponents(projection);
+	}
+
+	@Override
+	public Rect3F getAABB() {
+		return new Rect3F(m_model.aabb);
+	}
+
+	@Override
+	public PhysicsBodyShape getBodyShape() {
+		return new PhysicsBodyShape(m_model.bodyShape);
+	}
+
+	@Override
+	public void update(int deltaTime) {
+	}
+
+	@Override
+	public Direction getDirection() {
+		return m_direction;
+	}
+
+	@Override
+	public void setDirection(Direction direction) {
+		if (direction == m_direction)
+			return;
+
+		m_direction = direction;
+		m_model = m_prototype.getModel(direction);
+
+		m_observers.raise(ISceneModelObserver.class).directionChanged();
+	}
+
+	@Override
+	public IObserverRegistry getObservers() {
+		return m_observers;
+	}
+
+	@ThreadSafe
+	public static final class SharedSceneModelPrototype {
+		@Nullable
+		private ISceneModel m_source;
+		private final Map<Direction, SharedModel> m_models = new EnumMap<>(Direction.class);
+		private int m_references = 0;
+
+		/*
+		 * The prototype takes ownership of the source model, which is only ever cloned and is retained until
+		 * disposeSource is invoked.
+		 */
+		public SharedSceneModelPrototype(ISceneModel source) {
+			m_source = source;
+		}
+
+		public synchronized SharedSceneModel create(Direction direction) throws SceneModelNotCloneableException {
+			SharedSceneModel model = new SharedSceneModel(this, direction);
+			m_references++;
+
+			return model;
+		}
+
+		/*
+		 * Disposes the source model. Directions not yet in use are afterwards cloned from a shared model which is,
+		 * so once every instance has been disposed, no further instances may be created.
+		 */
+		public synchronized void disposeSource() {
+			if (m_source == null)
+				return;
+
+			m_source.dispose();
+			m_source = null;
+		}
+
+		private synchronized SharedModel getModel(Direction direction) {
+			SharedModel model = m_models.get(direction);
+
+			if (model == null) {
+				ISceneModel source = m_source;
+
+				if (source == null) {
+					if (m_models.isEmpty())
+						throw new IllegalStateException("Shared model has been released along with its source.");
+
+					source = m_models.values().iterator().next().model;
+				}
+
+				ISceneModel directed = source.clone();
+				directed.setDirection(direction);
+
+				model = new SharedModel(directed);
+				m_models.put(direction, model);
+			}
+
+			return model;
+		}
+
+		private synchronized void release() {
+			if (--m_references > 0)
+				return;
+
+			for (SharedModel m : m_models.values())
+				m.model.dispose();
+
+			m_models.clear();
+		}
+	}
+
+	private static final class SharedModel {
+		private final ISceneModel model;
+		private final Rect3F aabb;
+		private final PhysicsBodyShape bodyShape;
+
+		public SharedModel(ISceneModel _model) {
+			model = _model;
+			aabb = _model.getAABB();
+			bodyShape = _model.getBodyShape();
+		}
+	}
+}
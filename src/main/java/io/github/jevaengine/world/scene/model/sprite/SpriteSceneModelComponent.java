@@ -25,6 +25,8 @@ import io.github.jevaengine.graphics.Sprite.NoSuchSpriteAnimation;
 import io.github.jevaengine.math.Rect3F;
 import io.github.jevaengine.math.Vector3F;
 import io.github.jevaengine.util.IObserverRegistry;
+import io.github.jevaengine.util.ObserverBroadcaster;
+import io.github.jevaengine.util.ObserverSet;
 import io.github.jevaengine.util.Observers;
 import io.github.jevaengine.world.scene.model.IAnimationSceneModel.AnimationSceneModelAnimationState;
 import io.github.jevaengine.world.scene.model.IImmutableSceneModel.ISceneModelComponent;
@@ -153,7 +155,32 @@ public final class SpriteSceneModelComponent implements ISceneModelComponent {
 		return m_origin;
 	}
 
+	@ObserverBroadcaster(IDefaultSceneModelComponentObserver.Broadcaster.class)
 	interface IDefaultSceneModelComponentObserver {
 		void onFrameEvent(String name);
+
+		final class Broadcaster implements IDefaultSceneModelComponentObserver {
+			private final ObserverSet<IDefaultSceneModelComponentObserver> m_observers;
+
+			public Broadcaster(Observers observers) {
+				m_observers = observers.getObserverSet(IDefaultSceneModelComponentObserver.class);
+			}
+
+			@Override
+			public void onFrameEvent(String name) {
+				m_observers.beginDispatch();
+
+				try {
+					for (int i = 0; i < m_observers.size(); i++) {
+						IDefaultSceneModelComponentObserver o = m_observers.get(i);
+
+						if (o != null)
+							o.onFrameEvent(name);
+					}
+				} finally {
+					m_observers.endDispatch();
+				}
+			}
+		}
 	}
 }
@@ -0,0 +1,187 @@
+package io.github.jevaengine.config;
+
+import io.github.jevaengine.config.IConfigurationFactory.ConfigurationConstructionException;
+import io.github.jevaengine.config.json.JsonVariable;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CachedConfigurationFactoryTest {
+	@Test
+	public void shareNormalizedNames() throws Exception {
+		CountingFactory source = new CountingFactory(null);
+		CachedConfigurationFactory factory = new CachedConfigurationFactory(source);
+
+		IImmutableVariable a = factory.create(URI.create("entities/../world.jec"));
+		IImmutableVariable b = factory.create(URI.create("world.jec"));
+
+		assertSame(a, b);
+		assertEquals(1, source.loads.get());
+	}
+
+	@Test
+	public void coalesceConcurrentLoads() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		CountingFactory source = new CountingFactory(release);
+		final CachedConfigurationFactory factory = new CachedConfigurationFactory(source);
+
+		final IImmutableVariable[] results = new IImmutableVariable[4];
+		Thread[] threads = new Thread[results.length];
+
+		for (int i = 0; i < threads.length; i++) {
+			final int index = i;
+			threads[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						results[index] = factory.create(URI.create("world.jec"));
+					} catch (ConfigurationConstructionException e) {
+						throw new RuntimeException(e);
+					}
+				}
+			});
+			threads[i].start();
+		}
+
+		source.started.await();
+
+		//Every other request is either waiting on the load or has yet to miss; neither may start a second load.
+		for (Thread t : threads) {
+			while (t.isAlive() && t.getState() != Thread.State.WAITING)
+				Thread.yield();
+		}
+
+		release.countDown();
+
+		for (Thread t : threads)
+			t.join();
+
+		assertEquals(1, source.loads.get());
+
+		for (IImmutableVariable r : results)
+			assertSame(results[0], r);
+	}
+
+	@Test
+	public void retryFailedLoads() throws Exception {
+		CountingFactory source = new CountingFactory(null);
+		source.failures.set(1);
+		CachedConfigurationFactory factory = new CachedConfigurationFactory(source);
+
+		try {
+			factory.create(URI.create("world.jec"));
+			fail();
+		} catch (ConfigurationConstructionException e) {
+			assertEquals(IOException.class, e.getCause().getClass());
+		}
+
+		factory.create(URI.create("world.jec"));
+
+		assertEquals(2, source.loads.get());
+	}
+
+	@Test
+	public void writeMutableObjectArray() throws Exception {
+		JsonVariable shared = JsonVariable.create(new ByteArrayInputStream("{\"name\": \"world\", \"entities\": [{\"name\": \"a\"}, {\"name\": \"b\"}]}".getBytes(StandardCharsets.UTF_8)));
+		CachedConfigurationFactory factory = new CachedConfigurationFactory(new SharedFactory(shared));
+
+		IVariable mutable = factory.createMutable(URI.create("world.jec"));
+		mutable.getChild("name").setValue("copy");
+
+		assertTrue(((CopyOnWriteVariable) mutable).isCopied());
+		assertEquals("copy", mutable.getChild("name").getValue(String.class));
+		assertEquals("world", shared.getChild("name").getValue(String.class));
+
+		Named[] entities = mutable.getChild("entities").getValues(Named[].class);
+		assertEquals(2, entities.length);
+		assertEquals("a", entities[0].name);
+		assertEquals("b", entities[1].name);
+
+		mutable.getChild("entities").setValue(new Named[]{entities[1]});
+
+		assertEquals(1, mutable.getChild("entities").getValues(Named[].class).length);
+		assertEquals(2, shared.getChild("entities").getValues(Named[].class).length);
+	}
+
+	private static final class Named implements ISerializable {
+		public String name;
+
+		@Override
+		public void serialize(IVariable target) throws ValueSerializationException {
+			target.addChild("name").setValue(name);
+		}
+
+		@Override
+		public void deserialize(IImmutableVariable source) throws ValueSerializationException {
+			try {
+				name = source.getChild("name").getValue(String.class);
+			} catch (NoSuchChildVariableException e) {
+				throw new ValueSerializationException(e);
+			}
+		}
+	}
+
+	private static final class SharedFactory implements IConfigurationFactory {
+		private final IImmutableVariable m_shared;
+
+		public SharedFactory(IImmutableVariable shared) {
+			m_shared = shared;
+		}
+
+		@Override
+		public IVariable createMutable(URI name) throws ConfigurationConstructionException {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public IImmutableVariable create(URI name) throws ConfigurationConstructionException {
+			return m_shared;
+		}
+	}
+
+	private static final class CountingFactory implements IConfigurationFactory {
+		public final AtomicInteger loads = new AtomicInteger();
+		public final AtomicInteger failures = new AtomicInteger();
+		public final CountDownLatch started = new CountDownLatch(1);
+
+		private final CountDownLatch m_release;
+
+		public CountingFactory(CountDownLatch release) {
+			m_release = release;
+		}
+
+		@Override
+		public IVariable createMutable(URI name) throws ConfigurationConstructionException {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public IImmutableVariable create(URI name) throws ConfigurationConstructionException {
+			loads.incrementAndGet();
+			started.countDown();
+
+			if (m_release != null) {
+				try {
+					m_release.await();
+				} catch (InterruptedException e) {
+					throw new ConfigurationConstructionException(name, e);
+				}
+			}
+
+			if (failures.getAndDecrement() > 0)
+				throw new ConfigurationConstructionException(name, new IOException("Unreadable."));
+
+			return new NullVariable();
+		}
+	}
+}
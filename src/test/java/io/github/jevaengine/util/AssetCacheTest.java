@@ -0,0 +1,236 @@
+package io.github.jevaengine.util;
+
+import io.github.jevaengine.util.AssetCache.AssetCacheStatistics;
+import io.github.jevaengine.util.AssetCache.ConstantWeigher;
+import io.github.jevaengine.util.AssetCache.ILoader;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class AssetCacheTest {
+	private AssetCache<String, Integer> m_cache;
+
+	//Waits until each thread is parked, either loading (on the test's release latch) or waiting on another thread's load.
+	private static void awaitBlocked(Thread... threads) {
+		for (Thread t : threads) {
+			while (t.isAlive() && t.getState() != Thread.State.WAITING)
+				Thread.yield();
+		}
+	}
+
+	@Before
+	public void startup() {
+		m_cache = new AssetCache<>("test", new AssetCache.IWeigher<Integer>() {
+			@Override
+			public long weigh(Integer value) {
+				return value;
+			}
+		}, 10, 1);
+	}
+
+	@Test
+	public void evictLeastRecentlyUsed() {
+		m_cache.put("a", 4);
+		m_cache.put("b", 4);
+
+		assertEquals(new Integer(4), m_cache.get("a"));
+
+		m_cache.put("c", 4);
+
+		assertNull(m_cache.get("b"));
+		assertEquals(new Integer(4), m_cache.get("a"));
+		assertEquals(new Integer(4), m_cache.get("c"));
+		assertEquals(1, m_cache.getStatistics().evictions);
+	}
+
+	@Test
+	public void rejectOverweight() {
+		m_cache.put("a", 11);
+
+		assertNull(m_cache.get("a"));
+		assertEquals(0, m_cache.getStatistics().size);
+	}
+
+	@Test
+	public void admitUpToWholeBudget() {
+		AssetCache<String, Integer> cache = new AssetCache<>("test", new AssetCache.IWeigher<Integer>() {
+			@Override
+			public long weigh(Integer value) {
+				return value;
+			}
+		}, 10, 4);
+
+		cache.put("a", 8);
+
+		assertEquals(new Integer(8), cache.get("a"));
+		assertEquals(8, cache.getStatistics().size);
+	}
+
+	@Test
+	public void evictAcrossStripes() {
+		AssetCache<String, String> cache = new AssetCache<>("test", new ConstantWeigher<String>(), 10, 4);
+
+		for (int i = 0; i < 20; i++)
+			cache.put("k" + i, "v");
+
+		for (int i = 0; i < 10; i++)
+			assertNull(cache.get("k" + i));
+
+		for (int i = 10; i < 20; i++)
+			assertEquals("v", cache.get("k" + i));
+
+		assertEquals(10, cache.getStatistics().size);
+		assertEquals(10, cache.getStatistics().evictions);
+	}
+
+	@Test
+	public void trackStatistics() {
+		AssetCache<String, String> cache = new AssetCache<>("test", new ConstantWeigher<String>(), 100);
+
+		cache.put("a", "a");
+		cache.put("a", "b");
+		cache.get("a");
+		cache.get("b");
+
+		AssetCacheStatistics statistics = cache.getStatistics();
+
+		assertEquals(1, statistics.entries);
+		assertEquals(1, statistics.size);
+		assertEquals(1, statistics.hits);
+		assertEquals(1, statistics.misses);
+	}
+
+	@Test
+	public void coalesceConcurrentLoads() throws InterruptedException {
+		final AtomicInteger loads = new AtomicInteger();
+		final CountDownLatch release = new CountDownLatch(1);
+		final Integer[] results = new Integer[8];
+		final CountDownLatch arrived = new CountDownLatch(results.length);
+
+		final ILoader<String, Integer, IOException> loader = new ILoader<String, Integer, IOException>() {
+			@Override
+			public Integer load(String key) throws IOException {
+				loads.incrementAndGet();
+
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					throw new IOException(e);
+				}
+
+				return 2;
+			}
+		};
+
+		Thread[] threads = new Thread[results.length];
+
+		for (int i = 0; i < threads.length; i++) {
+			final int index = i;
+			threads[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					arrived.countDown();
+
+					try {
+						results[index] = m_cache.get("a", loader);
+					} catch (IOException e) {
+						results[index] = -1;
+					}
+				}
+			});
+			threads[i].start();
+		}
+
+		arrived.await();
+		awaitBlocked(threads);
+		release.countDown();
+
+		for (Thread t : threads)
+			t.join();
+
+		assertEquals(1, loads.get());
+
+		for (Integer r : results)
+			assertEquals(new Integer(2), r);
+	}
+
+	@Test
+	public void shareLoadFailure() throws InterruptedException {
+		final AtomicInteger loads = new AtomicInteger();
+		final CountDownLatch loading = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final IOException[] failures = new IOException[2];
+
+		final ILoader<String, Integer, IOException> loader = new ILoader<String, Integer, IOException>() {
+			@Override
+			public Integer load(String key) throws IOException {
+				loads.incrementAndGet();
+				loading.countDown();
+
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					throw new IOException(e);
+				}
+
+				throw new IOException("Unreadable.");
+			}
+		};
+
+		Thread[] threads = new Thread[failures.length];
+
+		for (int i = 0; i < threads.length; i++) {
+			final int index = i;
+			threads[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						m_cache.get("a", loader);
+					} catch (IOException e) {
+						failures[index] = e;
+					}
+				}
+			});
+		}
+
+		//The second thread only requests the asset once the first is loading it, so it must wait on that load.
+		threads[0].start();
+		loading.await();
+		threads[1].start();
+
+		awaitBlocked(threads);
+		release.countDown();
+
+		for (Thread t : threads)
+			t.join();
+
+		assertEquals(1, loads.get());
+		assertNotNull(failures[0]);
+		assertSame(failures[0], failures[1]);
+		assertNull(m_cache.get("a"));
+	}
+
+	@Test
+	public void rejectNullLoad() {
+		try {
+			m_cache.get("a", new ILoader<String, Integer, RuntimeException>() {
+				@Override
+				public Integer load(String key) {
+					return null;
+				}
+			});
+			fail();
+		} catch (IllegalStateException e) {
+			assertNull(m_cache.get("a"));
+		}
+	}
+}
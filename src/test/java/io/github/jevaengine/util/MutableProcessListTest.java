@@ -3,9 +3,11 @@ package io.github.jevaengine.util;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Iterator;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 public class MutableProcessListTest {
 	private List<Integer> m_mutableProcessList;
@@ -30,4 +32,86 @@ public class MutableProcessListTest {
 		assertEquals(3628800, factorial);
 	}
 
+	@Test
+	public void skipRemovedDuringParse() {
+		for (int i = 0; i < 10; i++)
+			m_mutableProcessList.add(i);
+
+		int sum = 0;
+
+		for (Integer i : m_mutableProcessList) {
+			sum += i;
+			m_mutableProcessList.remove(Integer.valueOf(i + 1));
+		}
+
+		assertEquals(0 + 2 + 4 + 6 + 8, sum);
+		assertEquals(5, m_mutableProcessList.size());
+	}
+
+	@Test
+	public void clearDuringParse() {
+		m_mutableProcessList.add(1);
+		m_mutableProcessList.add(2);
+
+		int visited = 0;
+
+		for (Integer i : m_mutableProcessList) {
+			visited++;
+
+			if (i == 1) {
+				m_mutableProcessList.clear();
+				m_mutableProcessList.add(3);
+			}
+		}
+
+		assertEquals(2, visited);
+		assertEquals(new Integer(3), m_mutableProcessList.get(0));
+	}
+
+	@Test
+	public void resumeAcrossCompaction() {
+		for (int i = 0; i < 100; i++)
+			m_mutableProcessList.add(i);
+
+		Iterator<Integer> it = m_mutableProcessList.iterator();
+
+		for (int i = 0; i < 50; i++)
+			it.next();
+
+		for (int i = 0; i < 100; i += 2)
+			m_mutableProcessList.remove(Integer.valueOf(i));
+
+		m_mutableProcessList.add(0, -1);
+		m_mutableProcessList.add(100);
+
+		int expected = 51;
+
+		while (it.hasNext()) {
+			assertEquals(new Integer(expected), it.next());
+			expected = expected == 99 ? 100 : expected + 2;
+		}
+
+		assertEquals(102, expected);
+		assertFalse(m_mutableProcessList.contains(50));
+		assertEquals(52, m_mutableProcessList.size());
+	}
+
+	@Test
+	public void visitInsertedAtCursor() {
+		m_mutableProcessList.add(1);
+		m_mutableProcessList.add(2);
+		m_mutableProcessList.add(3);
+
+		Iterator<Integer> it = m_mutableProcessList.iterator();
+
+		assertEquals(new Integer(1), it.next());
+
+		m_mutableProcessList.add(1, 9);
+
+		assertEquals(new Integer(9), it.next());
+		assertEquals(new Integer(2), it.next());
+		assertEquals(new Integer(3), it.next());
+		assertFalse(it.hasNext());
+	}
+
 }
@@ -78,6 +78,35 @@ public class ObserversTest {
 		assertEquals(2, m_a);
 	}
 
+	@Test
+	public void invokeNominatedBroadcasterTest() {
+		final AObserver a = new AObserver();
+		final CObserver c = new CObserver();
+
+		m_observers.add(new IC() {
+			@Override
+			public void c() {
+				m_observers.remove(c);
+				m_observers.add(a);
+			}
+		});
+		m_observers.add(c);
+		m_observers.add(a);
+
+		assertEquals(CBroadcaster.class, m_observers.raise(IC.class).getClass());
+
+		m_observers.raise(IC.class).c();
+		assertEquals(0, m_b);
+
+		m_observers.raise(IA.class).a();
+		assertEquals(1, m_a);
+
+		m_observers.remove(a);
+		m_observers.add(c);
+		m_observers.raise(IC.class).c();
+		assertEquals(0, m_b);
+	}
+
 	interface IA {
 		void a();
 	}
@@ -94,6 +123,42 @@ public class ObserversTest {
 
 	}
 
+	@ObserverBroadcaster(CBroadcaster.class)
+	interface IC {
+		void c();
+	}
+
+	static final class CBroadcaster implements IC {
+		private final ObserverSet<IC> m_observers;
+
+		public CBroadcaster(Observers observers) {
+			m_observers = observers.getObserverSet(IC.class);
+		}
+
+		@Override
+		public void c() {
+			m_observers.beginDispatch();
+
+			try {
+				for (int i = 0; i < m_observers.size(); i++) {
+					IC o = m_observers.get(i);
+
+					if (o != null)
+						o.c();
+				}
+			} finally {
+				m_observers.endDispatch();
+			}
+		}
+	}
+
+	private class CObserver implements IC {
+		@Override
+		public void c() {
+			m_b++;
+		}
+	}
+
 	private class AObserver implements IA {
 
 		@Override
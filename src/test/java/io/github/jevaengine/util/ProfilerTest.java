@@ -0,0 +1,62 @@
+package io.github.jevaengine.util;
+
+import io.github.jevaengine.util.Profiler.ScopeStatistics;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ProfilerTest {
+	private Profiler m_profiler;
+
+	@Before
+	public void startup() {
+		m_profiler = new Profiler(true);
+	}
+
+	@Test
+	public void recordScopes() throws InterruptedException {
+		Profiler.Scope scope = m_profiler.getScope("test");
+
+		assertSame(scope, m_profiler.getScope("test"));
+
+		for (int i = 0; i < 3; i++) {
+			long begin = scope.begin();
+			Thread.sleep(1);
+			scope.end(begin);
+		}
+
+		ScopeStatistics statistics = scope.getStatistics();
+
+		assertEquals(3, statistics.count);
+		assertTrue(statistics.maxTime >= 1000000);
+		assertTrue(statistics.totalTime >= 3000000);
+		assertTrue(statistics.getPercentileTime(50) <= statistics.maxTime);
+		assertEquals(statistics.totalTime, m_profiler.getTotalTime("test"));
+	}
+
+	@Test
+	public void ignoreWhileDisabled() {
+		Profiler.Scope scope = m_profiler.getScope("test");
+		Profiler.Counter counter = m_profiler.getCounter("counter");
+
+		m_profiler.setEnabled(false);
+
+		long begin = scope.begin();
+		counter.add(5);
+
+		m_profiler.setEnabled(true);
+
+		scope.end(begin);
+		counter.increment();
+
+		assertEquals(0, scope.getStatistics().count);
+		assertEquals(1, m_profiler.getCounterValue("counter"));
+
+		m_profiler.reset();
+
+		assertEquals(0, counter.getValue());
+	}
+}
@@ -0,0 +1,146 @@
+package io.github.jevaengine.util;
+
+import io.github.jevaengine.util.SynchronousExecutor.ISynchronousTask;
+import io.github.jevaengine.util.SynchronousExecutor.Priority;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SynchronousExecutorTest {
+	private static ISynchronousTask record(final List<Integer> order, final int id) {
+		return new ISynchronousTask() {
+			@Override
+			public boolean run() {
+				order.add(id);
+				return true;
+			}
+		};
+	}
+
+	@Test
+	public void runByPriority() {
+		SynchronousExecutor executor = new SynchronousExecutor();
+		List<Integer> order = new ArrayList<>();
+
+		executor.enqueue(record(order, 2), Priority.Low);
+		executor.enqueue(record(order, 1));
+		executor.enqueue(record(order, 0), Priority.High);
+
+		executor.execute();
+
+		assertEquals(3, order.size());
+
+		for (int i = 0; i < order.size(); i++)
+			assertEquals(i, (int) order.get(i));
+
+		assertEquals(0, executor.getQueueDepth());
+	}
+
+	@Test
+	public void requeueOncePerExecute() {
+		SynchronousExecutor executor = new SynchronousExecutor();
+		final int[] runs = new int[1];
+
+		executor.enqueue(new ISynchronousTask() {
+			@Override
+			public boolean run() {
+				return ++runs[0] == 3;
+			}
+		});
+
+		executor.execute();
+		assertEquals(1, runs[0]);
+		assertEquals(1, executor.getQueueDepth());
+
+		executor.execute();
+		executor.execute();
+		assertEquals(3, runs[0]);
+		assertEquals(0, executor.getQueueDepth());
+		assertEquals(2, executor.getStatistics().requeued);
+	}
+
+	@Test
+	public void overflowPastLaneCapacity() {
+		SynchronousExecutor executor = new SynchronousExecutor(0, 4);
+		List<Integer> order = new ArrayList<>();
+
+		for (int i = 0; i < 10; i++)
+			executor.enqueue(record(order, i));
+
+		assertEquals(10, executor.getQueueDepth(Priority.Normal));
+
+		executor.execute();
+
+		assertEquals(10, order.size());
+
+		for (int i = 0; i < order.size(); i++)
+			assertEquals(i, (int) order.get(i));
+
+		assertEquals(0, executor.getQueueDepth());
+		assertTrue(executor.getStatistics().overflowed > 0);
+	}
+
+	@Test
+	public void requeueOncePastLaneCapacity() {
+		SynchronousExecutor executor = new SynchronousExecutor(0, 4);
+		final int[] runs = new int[10];
+
+		for (int i = 0; i < runs.length; i++) {
+			final int id = i;
+
+			executor.enqueue(new ISynchronousTask() {
+				@Override
+				public boolean run() {
+					return ++runs[id] == 2;
+				}
+			});
+		}
+
+		executor.execute();
+
+		for (int r : runs)
+			assertEquals(1, r);
+
+		assertEquals(10, executor.getQueueDepth());
+
+		executor.execute();
+
+		for (int r : runs)
+			assertEquals(2, r);
+
+		assertEquals(0, executor.getQueueDepth());
+	}
+
+	@Test
+	public void deferPastBudget() {
+		SynchronousExecutor executor = new SynchronousExecutor(1);
+		final int[] runs = new int[1];
+
+		for (int i = 0; i < 5; i++) {
+			executor.enqueue(new ISynchronousTask() {
+				@Override
+				public boolean run() {
+					runs[0]++;
+
+					try {
+						Thread.sleep(1);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+
+					return true;
+				}
+			});
+		}
+
+		executor.execute();
+
+		assertEquals(1, runs[0]);
+		assertEquals(4, executor.getQueueDepth());
+		assertEquals(4, executor.getStatistics().deferred);
+	}
+}
@@ -0,0 +1,161 @@
+package io.github.jevaengine.world;
+
+import io.github.jevaengine.math.Vector3F;
+import io.github.jevaengine.script.IFunction;
+import io.github.jevaengine.script.IFunctionFactory;
+import io.github.jevaengine.script.IScript;
+import io.github.jevaengine.script.IScriptBuilder;
+import io.github.jevaengine.script.ScriptExecuteException;
+import io.github.jevaengine.script.UnrecognizedFunctionException;
+import io.github.jevaengine.world.IWeatherFactory.NullWeather;
+import io.github.jevaengine.world.World.IWorldObserver;
+import io.github.jevaengine.world.entity.DefaultEntity;
+import io.github.jevaengine.world.entity.IEntity;
+import io.github.jevaengine.world.entity.IEntity.EntityBridge;
+import io.github.jevaengine.world.entity.NullEntityTaskModelFactory;
+import io.github.jevaengine.world.physics.NullPhysicsWorldFactory;
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+public class WorldTest {
+	private static World createWorld(IScriptBuilder script) {
+		return new World(64, 64, 0, 1, 1, new NullWeather(), new NullPhysicsWorldFactory(), new TiledEffectMapFactory(), null, script);
+	}
+
+	private static List<IEntity> createEntities(int count) {
+		List<IEntity> entities = new ArrayList<>();
+
+		for (int i = 0; i < count; i++)
+			entities.add(new DefaultEntity(new NullEntityTaskModelFactory(), "entity" + i));
+
+		return entities;
+	}
+
+	@Test
+	public void addAllEntities() {
+		World world = createWorld(null);
+		List<IEntity> entities = createEntities(3);
+		final List<Collection<IEntity>> batches = new ArrayList<>();
+		final int[] singles = new int[1];
+
+		world.getObservers().add(new IWorldObserver() {
+			@Override
+			public void addedEntity(IEntity e) {
+				singles[0]++;
+			}
+
+			@Override
+			public void addedEntities(Collection<IEntity> entities) {
+				batches.add(new ArrayList<>(entities));
+			}
+
+			@Override
+			public void removedEntity(Vector3F location, IEntity e) { }
+		});
+
+		world.addEntities(entities);
+
+		assertEquals(0, singles[0]);
+		assertEquals(1, batches.size());
+		assertEquals(entities, batches.get(0));
+		assertEquals(3, world.getEntities().all().length);
+
+		for (IEntity e : entities) {
+			assertSame(world, e.getWorld());
+			assertSame(e, world.getEntities().getByName(IEntity.class, e.getInstanceName()));
+		}
+	}
+
+	@Test
+	public void scriptNotifiedOncePerBatch() throws Exception {
+		RecordingScript script = new RecordingScript();
+		World world = createWorld(script);
+		List<IEntity> entities = createEntities(3);
+
+		RecordingFunction enter = new RecordingFunction();
+		RecordingFunction batch = new RecordingFunction();
+		world.getBridge().onEntityEnter.add(enter);
+		world.getBridge().onEntitiesEnter.add(batch);
+
+		world.addEntities(entities);
+
+		assertEquals(0, enter.calls.size());
+		assertEquals(1, batch.calls.size());
+
+		EntityBridge[] bridges = (EntityBridge[]) batch.calls.get(0)[0];
+		assertNotNull(bridges);
+		assertArrayEquals(new EntityBridge[]{entities.get(0).getBridge(), entities.get(1).getBridge(), entities.get(2).getBridge()}, bridges);
+	}
+
+	@Test
+	public void scriptNotNotifiedPerEntity() throws Exception {
+		World world = createWorld(new RecordingScript());
+		RecordingFunction enter = new RecordingFunction();
+		RecordingFunction leave = new RecordingFunction();
+		world.getBridge().onEntityEnter.add(enter);
+		world.getBridge().onEntityLeave.add(leave);
+
+		List<IEntity> entities = createEntities(3);
+		world.addEntities(entities);
+		world.addEntity(new DefaultEntity(new NullEntityTaskModelFactory(), "single"));
+		world.removeEntity(entities.get(0));
+
+		assertEquals(0, enter.calls.size());
+		assertEquals(0, leave.calls.size());
+	}
+
+	private static final class RecordingFunction implements IFunction {
+		public final List<Object[]> calls = new ArrayList<>();
+
+		@Override
+		public Object call(Object... arguments) throws ScriptExecuteException {
+			calls.add(Arrays.copyOf(arguments, arguments.length));
+			return null;
+		}
+	}
+
+	private static final class RecordingScript implements IScriptBuilder {
+		@Override
+		public IScript create(Object context) {
+			return null;
+		}
+
+		@Override
+		public IScript create() {
+			return null;
+		}
+
+		@Override
+		public IFunctionFactory getFunctionFactory() {
+			return new IFunctionFactory() {
+				@Override
+				public IFunction wrap(Object function) throws UnrecognizedFunctionException {
+					if (!(function instanceof IFunction))
+						throw new UnrecognizedFunctionException();
+
+					return (IFunction) function;
+				}
+
+				@Override
+				public boolean recognizes(Object function) {
+					return function instanceof IFunction;
+				}
+			};
+		}
+
+		@Override
+		public URI getUri() {
+			return URI.create("");
+		}
+	}
+}
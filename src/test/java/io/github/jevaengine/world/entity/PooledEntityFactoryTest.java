@@ -0,0 +1,322 @@
+package io.github.jevaengine.world.entity;
+
+import io.github.jevaengine.config.IImmutableVariable;
+import io.github.jevaengine.math.Vector2F;
+import io.github.jevaengine.script.NullScriptBuilder;
+import io.github.jevaengine.world.IWeatherFactory.NullWeather;
+import io.github.jevaengine.world.TiledEffectMapFactory;
+import io.github.jevaengine.world.World;
+import io.github.jevaengine.world.entity.IEntity.IEntityBodyObserver;
+import io.github.jevaengine.world.entity.PooledEntityFactory.EntityPoolStatistics;
+import io.github.jevaengine.world.physics.IPhysicsBody;
+import io.github.jevaengine.world.physics.IPhysicsWorld;
+import io.github.jevaengine.world.physics.IPhysicsWorldFactory;
+import io.github.jevaengine.world.physics.NonparticipantPhysicsBody;
+import io.github.jevaengine.world.physics.PhysicsBodyDescription;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class PooledEntityFactoryTest {
+	private static EntityPoolStatistics getStatistics(PooledEntityFactory factory) {
+		assertEquals(1, factory.getStatistics().size());
+
+		return factory.getStatistics().get(0);
+	}
+
+	private static PooledEntityFactory createFactory(IEntityFactory entityFactory, int capacity) {
+		PooledEntityFactory factory = new PooledEntityFactory(entityFactory);
+		factory.setCapacity(DefaultEntity.class, capacity);
+
+		return factory;
+	}
+
+	@Test
+	public void poolingDisabledByDefault() throws Exception {
+		ConstructingFactory constructor = new ConstructingFactory();
+		PooledEntityFactory factory = new PooledEntityFactory(constructor);
+
+		DefaultEntity first = factory.create(DefaultEntity.class, "a");
+		first.dispose();
+
+		assertNotSame(first, factory.create(DefaultEntity.class, "b"));
+		assertEquals(2, constructor.constructed);
+		assertEquals(0, factory.getStatistics().size());
+	}
+
+	@Test
+	public void recycleDisposedEntity() throws Exception {
+		PooledEntityFactory factory = createFactory(new ConstructingFactory(), 32);
+
+		factory.create(DefaultEntity.class, "a").dispose();
+
+		EntityPoolStatistics statistics = getStatistics(factory);
+		assertEquals(1, statistics.pooled);
+		assertEquals(1, statistics.recycled);
+		assertEquals(0, statistics.discarded);
+	}
+
+	@Test
+	public void reuseRecycledEntity() throws Exception {
+		ConstructingFactory constructor = new ConstructingFactory();
+		PooledEntityFactory factory = createFactory(constructor, 32);
+
+		DefaultEntity first = factory.create(DefaultEntity.class, "a");
+		first.dispose();
+
+		DefaultEntity second = factory.create(DefaultEntity.class, "b");
+
+		assertSame(first, second);
+		assertEquals(1, constructor.constructed);
+		assertEquals(0, getStatistics(factory).pooled);
+	}
+
+	@Test
+	public void resetRecycledEntity() throws Exception {
+		PooledEntityFactory factory = createFactory(new ConstructingFactory(), 32);
+
+		DefaultEntity entity = factory.create(DefaultEntity.class, "a");
+		entity.setFlag("health", 10);
+		entity.dispose();
+
+		entity = factory.create(DefaultEntity.class, "b");
+
+		assertEquals("b", entity.getInstanceName());
+		assertEquals(0, entity.getFlags().size());
+		assertNull(entity.getWorld());
+	}
+
+	@Test
+	public void hitRatio() throws Exception {
+		PooledEntityFactory factory = createFactory(new ConstructingFactory(), 32);
+
+		DefaultEntity a = factory.create(DefaultEntity.class, "a");
+		DefaultEntity b = factory.create(DefaultEntity.class, "b");
+		a.dispose();
+		b.dispose();
+
+		factory.create(DefaultEntity.class, "c");
+
+		EntityPoolStatistics statistics = getStatistics(factory);
+		assertEquals(1, statistics.hits);
+		assertEquals(2, statistics.misses);
+		assertEquals(1 / 3.0F, statistics.getHitRatio(), 0.0001F);
+	}
+
+	@Test
+	public void discardPastCapacity() throws Exception {
+		ConstructingFactory constructor = new ConstructingFactory();
+		PooledEntityFactory factory = createFactory(constructor, 1);
+
+		DefaultEntity a = factory.create(DefaultEntity.class, "a");
+		DefaultEntity b = factory.create(DefaultEntity.class, "b");
+		a.dispose();
+		b.dispose();
+
+		EntityPoolStatistics statistics = getStatistics(factory);
+		assertEquals(1, statistics.pooled);
+		assertEquals(1, statistics.recycled);
+		assertEquals(1, statistics.discarded);
+	}
+
+	@Test
+	public void resumeSuspendedBodyInSameWorld() throws Exception {
+		SuspendablePhysicsWorldFactory physics = new SuspendablePhysicsWorldFactory();
+		World world = physics.createWorld();
+		PooledEntityFactory factory = createFactory(new ConstructingFactory(), 32);
+
+		DefaultEntity entity = factory.create(DefaultEntity.class, "a", ConstructingFactory.PHYSICAL);
+		world.addEntity(entity);
+		IPhysicsBody body = entity.getBody();
+		entity.dispose();
+
+		assertEquals(1, physics.suspended);
+
+		entity = factory.create(DefaultEntity.class, "b", ConstructingFactory.PHYSICAL);
+		world.addEntity(entity);
+
+		assertSame(body, entity.getBody());
+		assertEquals(1, physics.created);
+		assertEquals(1, physics.resumed);
+		assertEquals(0, physics.destroyed);
+	}
+
+	@Test
+	public void notifySuspendedBodyOnDispose() throws Exception {
+		SuspendablePhysicsWorldFactory physics = new SuspendablePhysicsWorldFactory();
+		World world = physics.createWorld();
+		PooledEntityFactory factory = createFactory(new ConstructingFactory(), 32);
+
+		DefaultEntity entity = factory.create(DefaultEntity.class, "a", ConstructingFactory.PHYSICAL);
+		world.addEntity(entity);
+
+		final IPhysicsBody body = entity.getBody();
+		final IPhysicsBody[] released = new IPhysicsBody[1];
+
+		entity.getObservers().add(new IEntityBodyObserver() {
+			@Override
+			public void bodyChanged(IPhysicsBody oldBody, IPhysicsBody newBody) {
+				released[0] = oldBody;
+			}
+		});
+
+		entity.dispose();
+
+		assertSame(body, released[0]);
+	}
+
+	@Test
+	public void releaseSuspendedBodyOnWorldDispose() throws Exception {
+		SuspendablePhysicsWorldFactory physics = new SuspendablePhysicsWorldFactory();
+		World world = physics.createWorld();
+		PooledEntityFactory factory = createFactory(new ConstructingFactory(), 32);
+
+		DefaultEntity entity = factory.create(DefaultEntity.class, "a", ConstructingFactory.PHYSICAL);
+		world.addEntity(entity);
+		IPhysicsBody body = entity.getBody();
+
+		world.dispose();
+
+		assertEquals(1, physics.suspended);
+		assertEquals(1, physics.destroyed);
+		assertEquals(1, getStatistics(factory).pooled);
+
+		World other = physics.createWorld();
+		entity = factory.create(DefaultEntity.class, "b", ConstructingFactory.PHYSICAL);
+		other.addEntity(entity);
+
+		assertNotSame(body, entity.getBody());
+		assertEquals(2, physics.created);
+		assertEquals(0, physics.resumed);
+	}
+
+	private static final class ConstructingFactory implements IEntityFactory {
+		public static final URI PHYSICAL = URI.create("physical.jec");
+
+		public int constructed = 0;
+
+		@Override
+		public Class<? extends IEntity> lookup(String className) {
+			return null;
+		}
+
+		@Override
+		public <T extends IEntity> String lookup(Class<T> entityClass) {
+			return null;
+		}
+
+		@Override
+		public <T extends IEntity> T create(Class<T> entityClass, String instanceName, URI config) throws EntityConstructionException {
+			constructed++;
+
+			return entityClass.cast(new DefaultEntity(new NullEntityTaskModelFactory(), null, new NullScriptBuilder(), new PhysicsBodyDescription(), instanceName));
+		}
+
+		@Override
+		public <T extends IEntity> T create(Class<T> entityClass, String instanceName, URI config, IImmutableVariable auxConfig) throws EntityConstructionException {
+			return create(entityClass, instanceName, config);
+		}
+
+		@Override
+		public <T extends IEntity> T create(Class<T> entityClass, String instanceName, IImmutableVariable config) throws EntityConstructionException {
+			return create(entityClass, instanceName);
+		}
+
+		@Override
+		public <T extends IEntity> T create(Class<T> entityClass, String instanceName) throws EntityConstructionException {
+			constructed++;
+
+			return entityClass.cast(new DefaultEntity(new NullEntityTaskModelFactory(), instanceName));
+		}
+
+		@Override
+		public IEntity create(String entityClass, String instanceName, URI config) throws EntityConstructionException {
+			return create(DefaultEntity.class, instanceName, config);
+		}
+
+		@Override
+		public IEntity create(String entityClass, String instanceName, URI config, IImmutableVariable auxConfig) throws EntityConstructionException {
+			return create(DefaultEntity.class, instanceName, config);
+		}
+
+		@Override
+		public IEntity create(String entityClass, String instanceName, IImmutableVariable config) throws EntityConstructionException {
+			return create(DefaultEntity.class, instanceName);
+		}
+
+		@Override
+		public IEntity create(String entityClass, String instanceName) throws EntityConstructionException {
+			return create(DefaultEntity.class, instanceName);
+		}
+	}
+
+	//Creates entity bodies which may be suspended, counting how they are used.
+	private static final class SuspendablePhysicsWorldFactory implements IPhysicsWorldFactory {
+		public int created = 0;
+		public int suspended = 0;
+		public int resumed = 0;
+		public int destroyed = 0;
+
+		public World createWorld() {
+			return new World(64, 64, 0, 1, 1, new NullWeather(), this, new TiledEffectMapFactory(), null, null);
+		}
+
+		private IPhysicsBody createBody(IEntity owner) {
+			final IPhysicsBody body = new NonparticipantPhysicsBody(owner);
+			created++;
+
+			return (IPhysicsBody) Proxy.newProxyInstance(IPhysicsBody.class.getClassLoader(), new Class<?>[]{IPhysicsBody.class}, new InvocationHandler() {
+				@Override
+				public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+					switch (method.getName()) {
+						case "suspend":
+							suspended++;
+							return true;
+						case "resume":
+							resumed++;
+							return null;
+						case "destory":
+							destroyed++;
+							break;
+					}
+
+					return method.invoke(body, args);
+				}
+			});
+		}
+
+		@Override
+		public IPhysicsWorld create(final float maxSurfaceFrictionForceNewtonMeters) {
+			return new IPhysicsWorld() {
+				@Override
+				public void update(int deltaTime) { }
+
+				@Override
+				public void setGravity(Vector2F gravity) { }
+
+				@Override
+				public IPhysicsBody createBody(IEntity owner, PhysicsBodyDescription bodyDescription) {
+					return SuspendablePhysicsWorldFactory.this.createBody(owner);
+				}
+
+				@Override
+				public IPhysicsBody createBody(PhysicsBodyDescription bodyDescription) {
+					return new NonparticipantPhysicsBody();
+				}
+
+				@Override
+				public float getMaxFrictionForce() {
+					return maxSurfaceFrictionForceNewtonMeters;
+				}
+			};
+		}
+	}
+}